@@ -0,0 +1,60 @@
+package com.pyramid.usermanagement.benchmark;
+
+import com.pyramid.usermanagement.UserManagementApplication;
+import com.pyramid.usermanagement.domain.user.dto.UserCreateDTO;
+import com.pyramid.usermanagement.domain.user.services.UserService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Boots the application against an embedded H2 database for JMH benchmarks and seeds it.
+ */
+public final class BenchmarkContext {
+
+    private static final String[] QUIET_PROPERTIES = {
+            "spring.jpa.show-sql=false",
+            "spring.h2.console.enabled=false",
+            "logging.level.root=WARN",
+            "logging.level.org.hibernate.SQL=WARN",
+            "logging.level.org.hibernate.orm.jdbc.bind=WARN",
+            "logging.level.org.springframework.security=WARN"
+    };
+
+    private BenchmarkContext() {
+    }
+
+    public static ConfigurableApplicationContext start(String... properties) {
+        List<String> all = new ArrayList<>(List.of(QUIET_PROPERTIES));
+        all.addAll(List.of(properties));
+        // A unique database per context so that several benchmark states never share rows
+        all.add("spring.datasource.url=jdbc:h2:mem:bench-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        return new SpringApplicationBuilder(UserManagementApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(all.toArray(String[]::new))
+                .run();
+    }
+
+    /**
+     * Seeds {@code count} users named {@code <prefix><n>} with email {@code <prefix><n>@example.com}.
+     */
+    public static void seedUsers(ConfigurableApplicationContext context, String prefix, int count) {
+        UserService userService = context.getBean(UserService.class);
+        List<UserCreateDTO> rows = new AbstractList<>() {
+            @Override
+            public UserCreateDTO get(int index) {
+                return new UserCreateDTO(prefix + index, "User " + index, prefix + index + "@example.com");
+            }
+
+            @Override
+            public int size() {
+                return count;
+            }
+        };
+        userService.importUsers(rows.iterator());
+    }
+}
@@ -0,0 +1,44 @@
+package com.pyramid.usermanagement.benchmark;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.ScalarResult;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reports sizes measured in a benchmark's setup, such as bytes on the wire or the heap held by an index, as
+ * secondary results next to its timings, in the JMH report and its JSON or CSV output:
+ * {@code -prof com.pyramid.usermanagement.benchmark.FootprintProfiler}. Sizes are recorded in the forked JVM that
+ * runs the benchmark and averaged over its iterations, so a size recorded once per trial is reported as is.
+ */
+public final class FootprintProfiler implements InternalProfiler {
+
+    private static final Map<String, ScalarResult> FOOTPRINTS = new ConcurrentHashMap<>();
+
+    public static void record(String label, double value, String unit) {
+        FOOTPRINTS.put(label, new ScalarResult("·" + label, value, unit, AggregationPolicy.AVG));
+    }
+
+    @Override
+    public String getDescription() {
+        return "Sizes recorded by the benchmark setup";
+    }
+
+    @Override
+    public void beforeIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams) {
+    }
+
+    @Override
+    public Collection<? extends Result> afterIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams,
+                                                       IterationResult result) {
+        return List.copyOf(FOOTPRINTS.values());
+    }
+}
@@ -0,0 +1,104 @@
+package com.pyramid.usermanagement.core.exceptions;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pyramid.usermanagement.domain.user.controller.UserController;
+import com.pyramid.usermanagement.domain.user.dto.UserCreateDTO;
+import com.pyramid.usermanagement.domain.user.services.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Throughput of 404-heavy and 409-heavy traffic: unknown ids and signups with a taken email, answered by
+ * {@link UserController} and {@link GlobalExceptionHandler} through the dispatcher servlet.
+ * <p>
+ * The service raises the domain exceptions as {@code UserServiceImpl} does, without touching a database, so
+ * that the error path itself is measured: creating the exception, resolving its handler and rendering the body.
+ * The {@code Handler} variants skip the dispatcher and call the exception handler directly, leaving the cost of
+ * the exception and of its error response. Security filters are left out, which makes stacks shallower than in
+ * production, where capturing one costs more.
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="DomainErrorPathBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DomainErrorPathBenchmark {
+
+    private final AtomicLong sequence = new AtomicLong();
+    private UserService userService;
+    private GlobalExceptionHandler exceptionHandler;
+    private MockMvc mockMvc;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        userService = (UserService) Proxy.newProxyInstance(UserService.class.getClassLoader(),
+                new Class<?>[]{UserService.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getUserById" -> throw new ResourceNotFoundException("User not found with id: ", args[0]);
+                        case "createUser" -> throw new EmailAlreadyExistException("Email already exists: ", ((UserCreateDTO) args[0]).email());
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+        exceptionHandler = new GlobalExceptionHandler(new SimpleMeterRegistry());
+        mockMvc = MockMvcBuilders.standaloneSetup(new UserController(userService, null, new ObjectMapper()))
+                .setControllerAdvice(exceptionHandler)
+                .build();
+    }
+
+    @Benchmark
+    public int unknownUser() throws Exception {
+        return mockMvc.perform(get("/api/users/{id}", sequence.incrementAndGet()))
+                .andReturn().getResponse().getStatus();
+    }
+
+    @Benchmark
+    public int emailConflict() throws Exception {
+        long n = sequence.incrementAndGet();
+        return mockMvc.perform(post("/api/users").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"login\":\"user" + n + "\",\"name\":\"User\",\"email\":\"user" + n + "@example.com\"}"))
+                .andReturn().getResponse().getStatus();
+    }
+
+    @Benchmark
+    public Object unknownUserHandler() {
+        try {
+            return userService.getUserById(sequence.incrementAndGet());
+        } catch (ResourceNotFoundException e) {
+            return exceptionHandler.handleResourceNotFoundException(e);
+        }
+    }
+
+    @Benchmark
+    public Object emailConflictHandler() {
+        long n = sequence.incrementAndGet();
+        try {
+            return userService.createUser(new UserCreateDTO("user" + n, "User", "user" + n + "@example.com"));
+        } catch (EmailAlreadyExistException e) {
+            return exceptionHandler.handleEmailAlreadyExistException(e);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.pyramid.usermanagement.core.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of bearer authentication, without the rest of the servlet stack.
+ * <p>
+ * {@code noToken} is the filter passing an anonymous request through, {@code verifyEveryRequest} the
+ * signature check and parse an uncached filter would pay each time, and {@code cachedToken} the filter
+ * resolving a token it verified before.
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="JwtAuthenticationBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationBenchmark {
+
+    private static final FilterChain CLEAR_CONTEXT = (request, response) -> SecurityContextHolder.clearContext();
+
+    private JwtTokenService jwtTokenService;
+    private JwtAuthenticationFilter filter;
+    private String token;
+    private MockHttpServletRequest anonymousRequest;
+    private MockHttpServletRequest bearerRequest;
+    private MockHttpServletResponse response;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        jwtTokenService = new JwtTokenService("secureJwtSecretKey123456789012345678901234567890", 86_400_000);
+        filter = new JwtAuthenticationFilter(jwtTokenService, 10_000, new SimpleMeterRegistry());
+        token = jwtTokenService.issue("admin", List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))).token();
+
+        anonymousRequest = new MockHttpServletRequest("GET", "/api/users/1");
+        bearerRequest = new MockHttpServletRequest("GET", "/api/users/1");
+        bearerRequest.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        response = new MockHttpServletResponse();
+        filter.doFilter(bearerRequest, response, CLEAR_CONTEXT);
+    }
+
+    @Benchmark
+    public void noToken() throws Exception {
+        filterOnce(anonymousRequest);
+    }
+
+    @Benchmark
+    public JwtTokenService.VerifiedToken verifyEveryRequest() {
+        return jwtTokenService.verify(token);
+    }
+
+    @Benchmark
+    public void cachedToken() throws Exception {
+        filterOnce(bearerRequest);
+    }
+
+    // OncePerRequestFilter marks the request as filtered; the same request object is reused every invocation
+    private void filterOnce(MockHttpServletRequest request) throws Exception {
+        filter.doFilter(request, response, CLEAR_CONTEXT);
+        request.removeAttribute(filter.getClass().getName() + ".FILTERED");
+    }
+}
@@ -0,0 +1,91 @@
+package com.pyramid.usermanagement.domain.user.cache;
+
+import com.pyramid.usermanagement.benchmark.BenchmarkContext;
+import com.pyramid.usermanagement.domain.user.dto.BulkImportResultDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserCreateDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserDTO;
+import com.pyramid.usermanagement.domain.user.services.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * Write throughput with and without the {@link UserEmailFilter} in front of the email uniqueness checks, over a
+ * table of {@code datasetSize} users: single creates, bulk import chunks of new emails, and the filter lookup alone.
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="UserEmailFilterBenchmark -p datasetSize=1000000 -jvmArgs -Xmx4g"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserEmailFilterBenchmark {
+
+    private static final int IMPORT_ROWS = 1000;
+
+    @Param({"100000"})
+    public int datasetSize;
+
+    @Param({"true", "false"})
+    public String emailFilter;
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private UserEmailFilter userEmailFilter;
+    private final AtomicLong writtenUsers = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() throws InterruptedException {
+        context = BenchmarkContext.start("app.users.emailFilter.enabled=" + emailFilter, "app.users.search.enabled=false");
+        BenchmarkContext.seedUsers(context, "seed", datasetSize);
+        userService = context.getBean(UserService.class);
+        userEmailFilter = context.getBean(UserEmailFilter.class);
+        if (Boolean.parseBoolean(emailFilter)) {
+            // The startup build may have read the table before seeding finished
+            userEmailFilter.rebuild();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserDTO createUser() {
+        long n = writtenUsers.incrementAndGet();
+        return userService.createUser(new UserCreateDTO("bench" + n, "Bench " + n, "bench" + n + "@example.com"));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public BulkImportResultDTO importChunk() {
+        long first = writtenUsers.getAndAdd(IMPORT_ROWS);
+        return userService.importUsers(IntStream.range(0, IMPORT_ROWS)
+                .mapToObj(i -> new UserCreateDTO("bulk" + (first + i), "Bulk " + i, "bulk" + (first + i) + "@example.com"))
+                .iterator());
+    }
+
+    @Benchmark
+    public boolean mightExist() {
+        return userEmailFilter.mightExist("missing" + writtenUsers.incrementAndGet() + "@example.com");
+    }
+}
@@ -0,0 +1,115 @@
+package com.pyramid.usermanagement.domain.user.controller;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.pyramid.usermanagement.benchmark.FootprintProfiler;
+import com.pyramid.usermanagement.core.configs.WireFormatConfig;
+import com.pyramid.usermanagement.domain.user.dto.UserDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.web.PagedModel;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialization cost per {@link UserDTO}, and bytes on the wire, of a page of users in each response format.
+ * <p>
+ * {@code json-page-impl} is the page as sent by default, Spring Data's {@code PageImpl} serialized as is;
+ * the other formats send the slim {@code {content, page}} envelope of {@code envelope=page}. With {@code gzip}, the cost includes
+ * compressing the output as the server does for clients accepting it. Sizes are reported by the
+ * {@link FootprintProfiler}.
+ * {@code serializeUser} writes a single user, a body the server sends uncompressed since it is under
+ * {@code server.compression.min-response-size}; its {@code gzip} variant is the cost that saves.
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="UserWireFormatBenchmark -prof gc -prof com.pyramid.usermanagement.benchmark.FootprintProfiler"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserWireFormatBenchmark {
+
+    private static final int PAGE_SIZE = 1000;
+
+    @Param({"json-page-impl", "json", "smile", "cbor"})
+    public String format;
+
+    @Param({"identity", "gzip"})
+    public String encoding;
+
+    private ObjectWriter writer;
+    private Object page;
+    private UserDTO user;
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(1 << 20);
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        LocalDateTime created = LocalDateTime.of(2025, 4, 6, 1, 48, 12, 345_678_000);
+        List<UserDTO> users = IntStream.range(0, PAGE_SIZE)
+                .mapToObj(i -> new UserDTO(100_000L + i, "user" + i, "User " + i, "user" + i + "@example.com",
+                        created.plusSeconds(i), created.plusSeconds(i), 0L))
+                .toList();
+        PageImpl<UserDTO> pageImpl = new PageImpl<>(users, PageRequest.of(3, PAGE_SIZE), 250_000);
+
+        // The mappers of the application's converters, built from a plain builder as Spring Boot would
+        WireFormatConfig wireFormatConfig = new WireFormatConfig(DataSize.ofKilobytes(2));
+        writer = switch (format) {
+            case "json-page-impl", "json" -> Jackson2ObjectMapperBuilder.json().build().writer();
+            case "smile" -> wireFormatConfig.smileHttpMessageConverter(Jackson2ObjectMapperBuilder.json()).getObjectMapper().writer();
+            case "cbor" -> wireFormatConfig.cborHttpMessageConverter(Jackson2ObjectMapperBuilder.json()).getObjectMapper().writer();
+            default -> throw new IllegalArgumentException(format);
+        };
+        page = "json-page-impl".equals(format) ? pageImpl : new PagedModel<>(pageImpl);
+        user = users.getFirst();
+
+        FootprintProfiler.record("pageBytesPerUser", (double) serialize(page) / PAGE_SIZE, "B/user");
+        FootprintProfiler.record("userBytes", serialize(user), "B");
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAGE_SIZE)
+    public int serializePage() throws IOException {
+        return serialize(page);
+    }
+
+    @Benchmark
+    public int serializeUser() throws IOException {
+        return serialize(user);
+    }
+
+    private int serialize(Object value) throws IOException {
+        buffer.reset();
+        if ("gzip".equals(encoding)) {
+            try (OutputStream out = new GZIPOutputStream(buffer, 8192)) {
+                writer.writeValue(out, value);
+            }
+        } else {
+            writer.writeValue(buffer, value);
+        }
+        return buffer.size();
+    }
+}
@@ -0,0 +1,87 @@
+package com.pyramid.usermanagement.domain.user.repository;
+
+import com.pyramid.usermanagement.benchmark.BenchmarkContext;
+import com.pyramid.usermanagement.domain.user.model.AppUser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-row email lookups against the {@code users} table as created by the entity mapping.
+ * <p>
+ * {@code rawEmail} is the previous exact-match lookup, {@code lowerEmail} the case-insensitive match it would
+ * take without a normalized column, and {@code emailKey} the indexed lookup the repository now uses.
+ * Rows are inserted with SQL, so the 10M-row run only needs heap for H2:
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="EmailLookupBenchmark -p rows=10000000 -jvmArgs -Xmx8g"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmailLookupBenchmark {
+
+    @Param({"1000000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("""
+                insert into users (id, login, name, email, email_key, created_date)
+                select next value for users_seq, 'login' || x, 'User ' || x, 'User' || x || '@Example.com',
+                       'user' || x || '@example.com', current_timestamp
+                from system_range(1, ?)
+                """, rows);
+        jdbcTemplate.execute("analyze");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private String randomEmail() {
+        return "User" + (ThreadLocalRandom.current().nextInt(rows) + 1) + "@Example.com";
+    }
+
+    @Benchmark
+    public List<Long> rawEmail() {
+        return jdbcTemplate.queryForList("select id from users where email = ?", Long.class, randomEmail());
+    }
+
+    @Benchmark
+    public List<Long> lowerEmail() {
+        return jdbcTemplate.queryForList("select id from users where lower(email) = ?", Long.class,
+                AppUser.normalizeEmail(randomEmail()));
+    }
+
+    @Benchmark
+    public List<Long> emailKey() {
+        return jdbcTemplate.queryForList("select id from users where email_key = ?", Long.class,
+                AppUser.normalizeEmail(randomEmail()));
+    }
+}
@@ -0,0 +1,91 @@
+package com.pyramid.usermanagement.domain.user.search;
+
+import com.pyramid.usermanagement.benchmark.FootprintProfiler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of a first page (20 hits) from the {@link UserSearchIndex}, built directly from synthetic users
+ * whose names are drawn from small word lists, so common prefixes match a large share of them.
+ * <p>
+ * {@code shortPrefix} is a two-character query answered from one posting list, {@code loginPrefix} a
+ * selective prefix, {@code infix} a substring inside names and emails, and {@code popularName} a query
+ * matching a tenth of all users. Sample mode reports p50 to p99.99, and the {@link FootprintProfiler} the
+ * estimated size of the index; the 10M-user run needs a large heap:
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="UserSearchBenchmark -p users=10000000 -jvmArgs -Xmx12g -prof com.pyramid.usermanagement.benchmark.FootprintProfiler"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserSearchBenchmark {
+
+    private static final String[] FIRST_NAMES = {
+            "james", "mary", "robert", "patricia", "john", "jennifer", "michael", "linda", "david", "elizabeth",
+            "william", "barbara", "richard", "susan", "joseph", "jessica", "thomas", "sarah", "charles", "karen"
+    };
+    private static final String[] LAST_NAMES = {
+            "smith", "johnson", "williams", "brown", "jones", "garcia", "miller", "davis", "rodriguez", "martinez",
+            "hernandez", "lopez", "gonzalez", "wilson", "anderson", "thomas", "taylor", "moore", "jackson", "martin"
+    };
+
+    @Param({"1000000"})
+    public int users;
+
+    private UserSearchIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        index = new UserSearchIndex();
+        SplittableRandom random = new SplittableRandom(42);
+        for (int id = 1; id <= users; id++) {
+            String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            index.upsert(id, first.charAt(0) + last + id, capitalize(first) + " " + capitalize(last),
+                    first + "." + last + id + "@example.com");
+        }
+        FootprintProfiler.record("indexMegabytes", index.estimatedBytes() / (double) (1 << 20), "MB");
+    }
+
+    @Benchmark
+    public UserSearchIndex.Hits shortPrefix() {
+        return index.search("jo", 0, 20);
+    }
+
+    @Benchmark
+    public UserSearchIndex.Hits loginPrefix() {
+        return index.search("jsmith" + (ThreadLocalRandom.current().nextInt(users / 10) + 1), 0, 20);
+    }
+
+    @Benchmark
+    public UserSearchIndex.Hits infix() {
+        return index.search("liams", 0, 20);
+    }
+
+    @Benchmark
+    public UserSearchIndex.Hits popularName() {
+        return index.search(LAST_NAMES[ThreadLocalRandom.current().nextInt(LAST_NAMES.length)], 0, 20);
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+}
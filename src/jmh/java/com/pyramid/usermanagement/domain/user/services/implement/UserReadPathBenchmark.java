@@ -0,0 +1,94 @@
+package com.pyramid.usermanagement.domain.user.services.implement;
+
+import com.pyramid.usermanagement.benchmark.BenchmarkContext;
+import com.pyramid.usermanagement.domain.user.dto.UserDTO;
+import com.pyramid.usermanagement.domain.user.repository.UserRepository;
+import com.pyramid.usermanagement.domain.user.services.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Entity-hydrating reads (load managed {@code AppUser}, then {@link UserServiceImpl#convertEntityToDTO}) against
+ * the projection-based read path the service now uses. Run with {@code -prof gc} to compare allocation per call:
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="UserReadPathBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserReadPathBenchmark {
+
+    @Param({"10000"})
+    public int datasetSize;
+
+    @Param({"20", "500"})
+    public int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+    private UserService userService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        BenchmarkContext.seedUsers(context, "seed", datasetSize);
+        userRepository = context.getBean(UserRepository.class);
+        userService = context.getBean(UserService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private PageRequest randomPage() {
+        int pages = Math.max(1, datasetSize / pageSize);
+        return PageRequest.of(ThreadLocalRandom.current().nextInt(pages), pageSize, Sort.by("name"));
+    }
+
+    @Benchmark
+    public Page<UserDTO> entityPage() {
+        return userRepository.findAll(randomPage()).map(UserServiceImpl::convertEntityToDTO);
+    }
+
+    @Benchmark
+    public Page<UserDTO> projectionPage() {
+        return userService.getAllUsersPaginated(randomPage());
+    }
+
+    @Benchmark
+    public List<UserDTO> entityAll() {
+        return userRepository.findAll().stream()
+                .map(UserServiceImpl::convertEntityToDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<UserDTO> projectionAll() {
+        return userService.getAllUsers();
+    }
+}
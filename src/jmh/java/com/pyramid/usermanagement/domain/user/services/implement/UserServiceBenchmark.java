@@ -0,0 +1,123 @@
+package com.pyramid.usermanagement.domain.user.services.implement;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pyramid.usermanagement.benchmark.BenchmarkContext;
+import com.pyramid.usermanagement.domain.user.dto.UserCreateDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserDTO;
+import com.pyramid.usermanagement.domain.user.model.AppUser;
+import com.pyramid.usermanagement.domain.user.services.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hot paths of {@link UserServiceImpl} against an embedded H2 seeded with {@code datasetSize} users.
+ * <p>
+ * Throughput and sampled latency percentiles are reported for every method; add {@code -prof gc} for the
+ * allocation rate:
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="UserServiceBenchmark -p datasetSize=100000 -prof gc"
+ * </pre>
+ * {@code cacheSize=0} disables the read cache so that lookups reach the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserServiceBenchmark {
+
+    @Param({"10000"})
+    public int datasetSize;
+
+    @Param({"0", "10000"})
+    public String cacheSize;
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private ObjectMapper objectMapper;
+    private long[] ids;
+    private String[] emails;
+    private AppUser entity;
+    private UserDTO dto;
+    private final AtomicLong createdUsers = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("app.cache.users.maximumSize=" + cacheSize);
+        BenchmarkContext.seedUsers(context, "seed", datasetSize);
+
+        userService = context.getBean(UserService.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        ids = jdbcTemplate.queryForList("select id from users", Long.class).stream().mapToLong(Long::longValue).toArray();
+        emails = jdbcTemplate.queryForList("select email from users", String.class).toArray(String[]::new);
+
+        entity = new AppUser();
+        entity.setId(42L);
+        entity.setLogin("jdoe");
+        entity.setName("John Doe");
+        entity.setEmail("jdoe@example.com");
+        entity.setCreatedDate(LocalDateTime.now());
+        dto = UserServiceImpl.convertEntityToDTO(entity);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserDTO createUser() {
+        long n = createdUsers.incrementAndGet();
+        return userService.createUser(new UserCreateDTO("bench" + n, "Bench " + n, "bench" + n + "@example.com"));
+    }
+
+    @Benchmark
+    public UserDTO getUserById() {
+        return userService.getUserById(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+    }
+
+    @Benchmark
+    public UserDTO getUserByEmail() {
+        return userService.getUserByEmail(emails[ThreadLocalRandom.current().nextInt(emails.length)]);
+    }
+
+    @Benchmark
+    public Page<UserDTO> getAllUsersPaginated() {
+        int pages = Math.max(1, datasetSize / 20);
+        return userService.getAllUsersPaginated(PageRequest.of(ThreadLocalRandom.current().nextInt(pages), 20, Sort.by("id")));
+    }
+
+    @Benchmark
+    public UserDTO convertEntityToDTO() {
+        return UserServiceImpl.convertEntityToDTO(entity);
+    }
+
+    @Benchmark
+    public byte[] serializeUserDTO() throws Exception {
+        return objectMapper.writeValueAsBytes(dto);
+    }
+}
@@ -0,0 +1,214 @@
+package com.pyramid.usermanagement.core.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Admits or turns away requests before any controller or database work is done.
+ * <p>
+ * Each client (the authenticated subject, otherwise the remote address) has its own token bucket per endpoint;
+ * buckets live in a bounded concurrent map and are updated with a compare-and-set, so clients never contend
+ * with each other. Endpoints with a concurrency cap also hold a permit until the response is complete,
+ * including streamed responses that finish asynchronously. Rejections are immediate 429s with
+ * {@code Retry-After}; nothing waits for capacity.
+ * <p>
+ * Not a bean: registered on the security filter chain only, after authentication.
+ */
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final String DEFAULT_ENDPOINT = "default";
+
+    private final List<EndpointPolicy> endpoints = new ArrayList<>();
+    private final EndpointPolicy defaults;
+    private final Cache<String, AtomicLong> buckets;
+    private final ObjectMapper objectMapper;
+
+    public AdmissionControlFilter(AdmissionProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.maxClients())
+                .expireAfterAccess(properties.idleTimeout())
+                .build();
+
+        AdmissionProperties.Limit limit = properties.defaults();
+        this.defaults = new EndpointPolicy(DEFAULT_ENDPOINT, null, null, limit.requestsPerSecond(), limit.burst(),
+                limit.maxConcurrent(), meterRegistry);
+        if (properties.endpoints() != null) {
+            properties.endpoints().forEach((name, endpoint) -> endpoints.add(new EndpointPolicy(name, endpoint.method(),
+                    PathPatternParser.defaultInstance.parse(endpoint.path()), endpoint.requestsPerSecond(), endpoint.burst(),
+                    endpoint.maxConcurrent(), meterRegistry)));
+        }
+        // Most specific pattern first, so /api/users/{id} never shadows /api/users/search
+        endpoints.sort(Comparator.comparing(policy -> policy.pattern, PathPattern.SPECIFICITY_COMPARATOR));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        EndpointPolicy policy = match(request);
+
+        if (policy.rateLimit != null) {
+            long now = System.nanoTime();
+            AtomicLong bucket = buckets.get(policy.name + '|' + clientKey(request), key -> policy.rateLimit.newState(now));
+            long wait = policy.rateLimit.tryAcquire(bucket, now);
+            if (wait > 0) {
+                policy.rateLimited.increment();
+                reject(response, TimeUnit.NANOSECONDS.toSeconds(wait + 999_999_999L), "Rate limit exceeded, retry later");
+                return;
+            }
+        }
+
+        if (policy.inFlight == null) {
+            policy.admitted.increment();
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (!policy.inFlight.tryAcquire()) {
+            policy.concurrencyLimited.increment();
+            reject(response, 1, "Too many concurrent requests, retry later");
+            return;
+        }
+        policy.admitted.increment();
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseOnComplete(policy.inFlight));
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                policy.inFlight.release();
+            }
+        }
+
+    }
+
+    private EndpointPolicy match(HttpServletRequest request) {
+        PathContainer path = PathContainer.parsePath(UrlPathHelper.defaultInstance.getPathWithinApplication(request));
+        for (EndpointPolicy policy : endpoints) {
+            if (policy.method.equalsIgnoreCase(request.getMethod()) && policy.pattern.matches(path)) {
+                return policy;
+            }
+        }
+        return defaults;
+    }
+
+    /**
+     * The client a request is accounted to: the authenticated subject, otherwise the remote address.
+     */
+    public static String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated() && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, long retryAfterSeconds, String message) throws IOException {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", HttpStatus.TOO_MANY_REQUESTS.value());
+        body.put("message", message);
+        body.put("timestamp", LocalDateTime.now());
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, retryAfterSeconds)));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        // With its length, so that Tomcat leaves this small body uncompressed
+        byte[] bytes = objectMapper.writeValueAsBytes(body);
+        response.setContentLength(bytes.length);
+        response.getOutputStream().write(bytes);
+    }
+
+    private static final class EndpointPolicy {
+
+        final String name;
+        final String method;
+        final PathPattern pattern;
+        final RateLimit rateLimit;
+        final Semaphore inFlight;
+        final Counter admitted;
+        final Counter rateLimited;
+        final Counter concurrencyLimited;
+
+        EndpointPolicy(String name, String method, PathPattern pattern, double requestsPerSecond, int burst,
+                       int maxConcurrent, MeterRegistry meterRegistry) {
+            this.name = name;
+            this.method = method;
+            this.pattern = pattern;
+            this.rateLimit = requestsPerSecond > 0 ? new RateLimit(requestsPerSecond, burst) : null;
+            this.inFlight = maxConcurrent > 0 ? new Semaphore(maxConcurrent) : null;
+            this.admitted = admissionCounter(meterRegistry, name, "admitted");
+            this.rateLimited = admissionCounter(meterRegistry, name, "rate_limited");
+            this.concurrencyLimited = admissionCounter(meterRegistry, name, "concurrency_limited");
+            if (inFlight != null) {
+                Gauge.builder("api.admission.inflight", inFlight, permits -> maxConcurrent - permits.availablePermits())
+                        .description("Requests in progress on an endpoint with a concurrency cap")
+                        .tag("endpoint", name)
+                        .register(meterRegistry);
+            }
+        }
+
+        private static Counter admissionCounter(MeterRegistry meterRegistry, String endpoint, String outcome) {
+            return Counter.builder("api.admission")
+                    .description("User API requests by admission outcome")
+                    .tag("endpoint", endpoint)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry);
+        }
+    }
+
+    private record ReleaseOnComplete(Semaphore inFlight) implements AsyncListener {
+
+        // Called once at the end of every async request, after any timeout or error callback
+        @Override
+        public void onComplete(AsyncEvent event) {
+            inFlight.release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
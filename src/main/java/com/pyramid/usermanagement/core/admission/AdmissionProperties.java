@@ -0,0 +1,38 @@
+package com.pyramid.usermanagement.core.admission;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Admission limits of the user API: a rate per client and an optional cap on concurrent requests per endpoint.
+ * Endpoints are matched by method and path pattern; requests matching none get the defaults. A rate of 0
+ * and a cap of 0 mean unlimited.
+ */
+@ConfigurationProperties("app.admission")
+public record AdmissionProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("100000") long maxClients,
+        @DefaultValue("PT10M") Duration idleTimeout,
+        @DefaultValue Limit defaults,
+        Map<String, Endpoint> endpoints
+) {
+
+    public record Limit(
+            @DefaultValue("100") double requestsPerSecond,
+            @DefaultValue("200") int burst,
+            @DefaultValue("0") int maxConcurrent
+    ) {
+    }
+
+    public record Endpoint(
+            @DefaultValue("GET") String method,
+            String path,
+            @DefaultValue("0") double requestsPerSecond,
+            @DefaultValue("1") int burst,
+            @DefaultValue("0") int maxConcurrent
+    ) {
+    }
+}
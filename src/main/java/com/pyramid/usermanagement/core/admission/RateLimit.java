@@ -0,0 +1,50 @@
+package com.pyramid.usermanagement.core.admission;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket of {@code burst} tokens refilled at {@code requestsPerSecond}, run as the generic cell rate
+ * algorithm: a client's whole bucket is one timestamp, the theoretical arrival time of its next request, so
+ * admitting a request is a single compare-and-set and no lock is shared between clients.
+ */
+public final class RateLimit {
+
+    private final long emissionIntervalNanos;
+    private final long toleranceNanos;
+
+    public RateLimit(double requestsPerSecond, int burst) {
+        if (requestsPerSecond <= 0) {
+            throw new IllegalArgumentException("requestsPerSecond must be positive");
+        }
+        this.emissionIntervalNanos = Math.max(1, (long) (1_000_000_000L / requestsPerSecond));
+        this.toleranceNanos = emissionIntervalNanos * (Math.max(1, burst) - 1);
+    }
+
+    /**
+     * State of a new client, whose bucket starts full.
+     */
+    public AtomicLong newState(long nowNanos) {
+        return new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes a token from the bucket held in {@code state}.
+     *
+     * @return 0 if admitted, otherwise how many nanoseconds until a token is available
+     */
+    public long tryAcquire(AtomicLong state, long nowNanos) {
+
+        while (true) {
+            long arrival = state.get();
+            long base = arrival - nowNanos > 0 ? arrival : nowNanos;
+            long wait = base - nowNanos - toleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (state.compareAndSet(arrival, base + emissionIntervalNanos)) {
+                return 0;
+            }
+        }
+
+    }
+}
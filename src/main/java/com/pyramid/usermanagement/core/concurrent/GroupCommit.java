@@ -0,0 +1,169 @@
+package com.pyramid.usermanagement.core.concurrent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Group commit: concurrent submissions are collected into one batch and written together by a single
+ * call, each caller getting back its own item's result.
+ * <p>
+ * The first caller to find no open batch leads it: it waits until {@code maxBatchSize} items have joined
+ * or {@code maxDelay} has passed, closes the batch and runs the writer on its own thread while later
+ * callers start the next batch. There is no background thread. The writer returns one result per item,
+ * in order; if it throws, every caller of the batch gets the exception. Metrics are published as
+ * {@code groupcommit.batches} and {@code groupcommit.batch.size}, tagged with the name.
+ */
+public class GroupCommit<T, R> {
+
+    private final Function<List<T>, List<R>> writer;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final Counter batches;
+    private final DistributionSummary batchSizes;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition closed = lock.newCondition();
+    private Batch<T, R> open;
+
+    public GroupCommit(String name, int maxBatchSize, Duration maxDelay, MeterRegistry meterRegistry,
+                       Function<List<T>, List<R>> writer) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive: " + maxBatchSize);
+        }
+        this.writer = writer;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.batches = Counter.builder("groupcommit.batches")
+                .description("Batches written by a group commit")
+                .tag("name", name)
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("groupcommit.batch.size")
+                .description("Items written per group commit batch")
+                .tag("name", name)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    public R submit(T item) {
+
+        Batch<T, R> batch;
+        int slot;
+        boolean leader;
+        lock.lock();
+        try {
+            leader = open == null;
+            if (leader) {
+                open = new Batch<>(maxBatchSize);
+            }
+            batch = open;
+            slot = batch.items.size();
+            batch.items.add(item);
+            if (batch.items.size() == maxBatchSize) {
+                open = null;
+                closed.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (leader) {
+            awaitClose(batch);
+            write(batch);
+        }
+        return batch.result(slot);
+
+    }
+
+    private void awaitClose(Batch<T, R> batch) {
+
+        boolean interrupted = false;
+        lock.lock();
+        try {
+            long nanos = maxDelayNanos;
+            while (open == batch && nanos > 0) {
+                try {
+                    nanos = closed.awaitNanos(nanos);
+                } catch (InterruptedException e) {
+                    // Followers are waiting on this batch: write it now and keep the interrupt for later
+                    interrupted = true;
+                    break;
+                }
+            }
+            if (open == batch) {
+                open = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+    }
+
+    private void write(Batch<T, R> batch) {
+
+        batches.increment();
+        batchSizes.record(batch.items.size());
+        try {
+            List<R> results = writer.apply(batch.items);
+            if (results.size() != batch.items.size()) {
+                throw new IllegalStateException("Expected " + batch.items.size() + " results, got " + results.size());
+            }
+            batch.done.complete(results);
+        } catch (RuntimeException | Error e) {
+            batch.done.completeExceptionally(e);
+        }
+
+    }
+
+    private static final class Batch<T, R> {
+
+        // Only modified under the lock, and no longer once the batch is closed
+        final List<T> items;
+        final CompletableFuture<List<R>> done = new CompletableFuture<>();
+
+        Batch(int capacity) {
+            this.items = new ArrayList<>(Math.min(capacity, 1024));
+        }
+
+        R result(int slot) {
+
+            boolean interrupted = false;
+            try {
+                while (true) {
+                    try {
+                        return done.get().get(slot);
+                    } catch (InterruptedException e) {
+                        // The batch is being written and cannot be withdrawn from, so its outcome is still ours
+                        interrupted = true;
+                    }
+                }
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                if (cause instanceof Error error) {
+                    throw error;
+                }
+                throw new IllegalStateException(cause);
+            } finally {
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.pyramid.usermanagement.core.configs;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.security.core.userdetails.MapReactiveUserDetailsService;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+import org.springframework.stereotype.Component;
+
+/**
+ * Refuses to start with Spring Boot's in-memory account when no {@code spring.security.user.password} is
+ * configured: {@code POST /api/auth/token} would issue tokens for a generated password written to the log, or
+ * for whatever default a copied configuration carries. Applications providing their own user details service
+ * are not affected.
+ */
+@Component
+public class AccountCredentialsCheck implements SmartInitializingSingleton {
+
+    private final SecurityProperties securityProperties;
+    private final ObjectProvider<InMemoryUserDetailsManager> servletAccounts;
+    private final ObjectProvider<MapReactiveUserDetailsService> reactiveAccounts;
+
+    public AccountCredentialsCheck(SecurityProperties securityProperties, ObjectProvider<InMemoryUserDetailsManager> servletAccounts,
+                                   ObjectProvider<MapReactiveUserDetailsService> reactiveAccounts) {
+        this.securityProperties = securityProperties;
+        this.servletAccounts = servletAccounts;
+        this.reactiveAccounts = reactiveAccounts;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        boolean inMemoryAccount = servletAccounts.getIfAvailable() != null || reactiveAccounts.getIfAvailable() != null;
+        if (inMemoryAccount && securityProperties.getUser().isPasswordGenerated()) {
+            throw new IllegalStateException("No account to issue tokens for: set spring.security.user.name, "
+                    + "spring.security.user.password and spring.security.user.roles (or run with the dev profile locally)");
+        }
+    }
+}
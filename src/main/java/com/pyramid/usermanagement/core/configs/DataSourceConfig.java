@@ -0,0 +1,63 @@
+package com.pyramid.usermanagement.core.configs;
+
+import com.pyramid.usermanagement.core.datasource.ReadReplicaProperties;
+import com.pyramid.usermanagement.core.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The JDBC datasources behind JPA: the primary, from the usual {@code spring.datasource.*} properties, and the
+ * read replicas of {@code app.datasource.replicas}, behind one routing datasource. Declared here because Spring
+ * Boot backs off its own datasource as soon as R2DBC is on the classpath, and JPA stays the write path.
+ */
+@Configuration
+@EnableConfigurationProperties({DataSourceProperties.class, ReadReplicaProperties.class})
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @Primary
+    public ReplicaRoutingDataSource dataSource(HikariDataSource primaryDataSource, ReadReplicaProperties readReplicaProperties,
+                                               MeterRegistry meterRegistry) {
+
+        Map<String, HikariDataSource> replicas = new LinkedHashMap<>();
+        if (readReplicaProperties.replicas() != null) {
+            readReplicaProperties.replicas().forEach((name, replica) -> replicas.put(name, replicaDataSource(name, replica, meterRegistry)));
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, readReplicaProperties.healthCheckInterval(), meterRegistry);
+
+    }
+
+    private static HikariDataSource replicaDataSource(String name, ReadReplicaProperties.Replica replica, MeterRegistry meterRegistry) {
+
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("replica-" + name);
+        config.setJdbcUrl(replica.url());
+        config.setUsername(replica.username());
+        config.setPassword(replica.password());
+        config.setMaximumPoolSize(replica.maximumPoolSize());
+        config.setConnectionTimeout(replica.connectionTimeout().toMillis());
+        config.setReadOnly(true);
+        // A replica that is down at startup does not fail the application; its first failed read takes it out of rotation
+        config.setInitializationFailTimeout(-1);
+        config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return new HikariDataSource(config);
+
+    }
+}
@@ -0,0 +1,45 @@
+package com.pyramid.usermanagement.core.configs;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Startup trimming of the {@code fast-startup} profile: beans of the API documentation (springdoc and
+ * {@link OpenApiConfig}) are made lazy, so they are created by the first request for the docs rather than
+ * at boot. Applied at build time too when the jar is AOT-processed with that profile.
+ */
+@Configuration
+@Profile("fast-startup")
+public class FastStartupConfig {
+
+    private static final String[] DEFERRED_CLASS_PREFIXES = {"org.springdoc.", OpenApiConfig.class.getName()};
+
+    @Bean
+    public static BeanFactoryPostProcessor deferApiDocumentation() {
+        return beanFactory -> {
+            for (String beanName : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition beanDefinition = beanFactory.getBeanDefinition(beanName);
+                // @Bean methods are declared by their configuration class
+                String factoryBeanName = beanDefinition.getFactoryBeanName();
+                String declaringClass = factoryBeanName != null && beanFactory.containsBeanDefinition(factoryBeanName)
+                        ? beanFactory.getBeanDefinition(factoryBeanName).getBeanClassName()
+                        : beanDefinition.getBeanClassName();
+                if (declaringClass != null && isDeferred(declaringClass)) {
+                    beanDefinition.setLazyInit(true);
+                }
+            }
+        };
+    }
+
+    private static boolean isDeferred(String className) {
+        for (String prefix : DEFERRED_CLASS_PREFIXES) {
+            if (className.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,85 @@
+package com.pyramid.usermanagement.core.configs;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Holds back a body written by a message converter until it outgrows {@code threshold} bytes, so that a small
+ * body is sent in one piece with its {@code Content-Length}. Tomcat only applies
+ * {@code server.compression.min-response-size} to responses of known length: without one, a 404 or a single user
+ * would be gzipped like a list. A larger body is streamed from the moment it crosses the threshold, as before.
+ * <p>
+ * The response headers are written when the body is first requested from the delegate, so that happens only on
+ * overflow or in {@link #finish()}.
+ */
+final class KnownLengthOutputMessage implements HttpOutputMessage {
+
+    private final HttpOutputMessage delegate;
+    private final int threshold;
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+    private final OutputStream body = new OutputStream() {
+        @Override
+        public void write(int b) throws IOException {
+            if (overflow(1)) {
+                streamed.write(b);
+            } else {
+                buffer.write(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (overflow(len)) {
+                streamed.write(b, off, len);
+            } else {
+                buffer.write(b, off, len);
+            }
+        }
+
+        // The converter flushes once the body is written; only a streamed body has anything to flush
+        @Override
+        public void flush() throws IOException {
+            if (streamed != null) {
+                streamed.flush();
+            }
+        }
+    };
+    private OutputStream streamed;
+
+    KnownLengthOutputMessage(HttpOutputMessage delegate, int threshold) {
+        this.delegate = delegate;
+        this.threshold = threshold;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        return delegate.getHeaders();
+    }
+
+    @Override
+    public OutputStream getBody() {
+        return body;
+    }
+
+    /**
+     * Sends a body that stayed under the threshold, with its length.
+     */
+    void finish() throws IOException {
+        if (streamed == null) {
+            delegate.getHeaders().setContentLength(buffer.size());
+            buffer.writeTo(delegate.getBody());
+        }
+    }
+
+    private boolean overflow(int length) throws IOException {
+        if (streamed == null && buffer.size() + length > threshold) {
+            streamed = delegate.getBody();
+            buffer.writeTo(streamed);
+        }
+        return streamed != null;
+    }
+}
@@ -41,8 +41,7 @@ public class OpenApiConfig {
                                 .name("Apache 2.0")
                                 .url("http://springdoc.org")))
                 .addServersItem(new Server().url(localUrlPath).description("Development server"))
-                .addServersItem(new Server().url(integUrlPath).description("Production server"));
-                /*
+                .addServersItem(new Server().url(integUrlPath).description("Production server"))
                 .addSecurityItem(new SecurityRequirement().addList("bearerAuth"))
                 .components(new Components()
                         .addSecuritySchemes("bearerAuth",
@@ -51,7 +50,5 @@ public class OpenApiConfig {
                                         .type(SecurityScheme.Type.HTTP)
                                         .scheme("bearer")
                                         .bearerFormat("JWT")));
-
-                 */
     }
 }
@@ -0,0 +1,113 @@
+package com.pyramid.usermanagement.core.configs;
+
+import com.pyramid.usermanagement.core.security.JwtTokenService;
+import io.jsonwebtoken.JwtException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.config.Customizer;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.security.web.server.context.ServerSecurityContextRepository;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatchers;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * WebFlux counterpart of {@link SecurityConfig} for the {@code reactive} profile: the same bearer tokens guard
+ * {@code /api/users/**}, actuator endpoints other than health take an {@code ADMIN} account over HTTP Basic, and
+ * everything else stays open. The token is verified on each request (a few
+ * microseconds of CPU, no I/O); admission control is only available on the servlet stack.
+ */
+@Configuration
+@EnableWebFluxSecurity
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveSecurityConfig {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    @Bean
+    @Order(1)
+    public SecurityWebFilterChain userApiSecurityWebFilterChain(ServerHttpSecurity http, JwtTokenService jwtTokenService) {
+
+        return http
+                .securityMatcher(ServerWebExchangeMatchers.pathMatchers("/api/users/**"))
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .securityContextRepository(new BearerTokenSecurityContextRepository(jwtTokenService))
+                .authorizeExchange(authorize -> authorize.anyExchange().authenticated())
+                .exceptionHandling(exceptions -> exceptions.authenticationEntryPoint((exchange, e) -> {
+                    exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+                    exchange.getResponse().getHeaders().set(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+                    return exchange.getResponse().setComplete();
+                }))
+                .build();
+
+    }
+
+    @Bean
+    @Order(2)
+    public SecurityWebFilterChain operationsSecurityWebFilterChain(ServerHttpSecurity http) {
+
+        return http
+                .securityMatcher(ServerWebExchangeMatchers.pathMatchers("/actuator/**"))
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .authorizeExchange(authorize -> authorize
+                        .pathMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                        .anyExchange().hasRole("ADMIN"))
+                .httpBasic(Customizer.withDefaults())
+                .build();
+
+    }
+
+    @Bean
+    @Order(3)
+    public SecurityWebFilterChain defaultSecurityWebFilterChain(ServerHttpSecurity http) {
+
+        return http
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .authorizeExchange(authorize -> authorize.anyExchange().permitAll())
+                .build();
+
+    }
+
+    /**
+     * Stateless: the security context is rebuilt from the {@code Authorization} header of every request.
+     */
+    private record BearerTokenSecurityContextRepository(JwtTokenService jwtTokenService) implements ServerSecurityContextRepository {
+
+        @Override
+        public Mono<Void> save(ServerWebExchange exchange, SecurityContext context) {
+            return Mono.empty();
+        }
+
+        @Override
+        public Mono<SecurityContext> load(ServerWebExchange exchange) {
+
+            String header = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+            if (header == null || !header.startsWith(BEARER_PREFIX)) {
+                return Mono.empty();
+            }
+            try {
+                JwtTokenService.VerifiedToken verified = jwtTokenService.verify(header.substring(BEARER_PREFIX.length()));
+                return Mono.just(new SecurityContextImpl(verified.authentication()));
+            } catch (JwtException | IllegalArgumentException e) {
+                // Rejected like a missing token: the entry point answers 401
+                return Mono.empty();
+            }
+
+        }
+    }
+}
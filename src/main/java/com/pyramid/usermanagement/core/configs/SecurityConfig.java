@@ -0,0 +1,108 @@
+package com.pyramid.usermanagement.core.configs;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pyramid.usermanagement.core.admission.AdmissionControlFilter;
+import com.pyramid.usermanagement.core.admission.AdmissionProperties;
+import com.pyramid.usermanagement.core.datasource.ReadReplicaProperties;
+import com.pyramid.usermanagement.core.datasource.ReadYourWritesFilter;
+import com.pyramid.usermanagement.core.security.JwtAuthenticationFilter;
+import com.pyramid.usermanagement.core.security.JwtTokenService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.config.Customizer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+
+/**
+ * Stateless bearer-token security for {@code /api/users/**}. Actuator endpoints other than health, and the H2
+ * console, take the credentials of an {@code ADMIN} account over HTTP Basic, which scrapers and browsers send
+ * without a token round trip; token issuance and API docs stay open. Accounts come from the
+ * {@code spring.security.user.*} properties unless another {@code UserDetailsService} is provided. Authenticated or
+ * not, user API requests then pass admission control and, with read replicas configured, are pinned to the
+ * primary after their client wrote.
+ */
+@Configuration
+@EnableWebSecurity
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@EnableConfigurationProperties(AdmissionProperties.class)
+public class SecurityConfig {
+
+    @Bean
+    @Order(1)
+    public SecurityFilterChain userApiSecurityFilterChain(HttpSecurity http, JwtTokenService jwtTokenService,
+                                                          AdmissionProperties admissionProperties, ReadReplicaProperties readReplicaProperties,
+                                                          ObjectMapper objectMapper,
+                                                          MeterRegistry meterRegistry,
+                                                          @Value("${app.cache.tokens.maximumSize:10000}") long tokenCacheSize)
+            throws Exception {
+
+        JwtAuthenticationFilter jwtAuthenticationFilter = new JwtAuthenticationFilter(jwtTokenService, tokenCacheSize, meterRegistry);
+        http
+                .securityMatcher("/api/users/**")
+                .csrf(AbstractHttpConfigurer::disable)
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .authorizeHttpRequests(authorize -> authorize
+                        // Streamed responses finish on an async dispatch of a request that was already authorized
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
+                        .anyRequest().authenticated())
+                .exceptionHandling(exceptions -> exceptions.authenticationEntryPoint((request, response, e) -> {
+                    response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+                    response.sendError(HttpStatus.UNAUTHORIZED.value(), HttpStatus.UNAUTHORIZED.getReasonPhrase());
+                }))
+                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+        if (admissionProperties.enabled()) {
+            http.addFilterAfter(new AdmissionControlFilter(admissionProperties, objectMapper, meterRegistry),
+                    JwtAuthenticationFilter.class);
+        }
+        if (readReplicaProperties.replicas() != null && !readReplicaProperties.replicas().isEmpty()) {
+            http.addFilterAfter(new ReadYourWritesFilter(readReplicaProperties.readYourWritesWindow(),
+                    readReplicaProperties.readYourWritesMaxClients()), JwtAuthenticationFilter.class);
+        }
+        return http.build();
+
+    }
+
+    @Bean
+    @Order(2)
+    public SecurityFilterChain operationsSecurityFilterChain(HttpSecurity http,
+                                                             @Value("${spring.h2.console.path:/h2-console}") String h2ConsolePath)
+            throws Exception {
+
+        return http
+                .securityMatcher("/actuator/**", h2ConsolePath + "/**")
+                .csrf(AbstractHttpConfigurer::disable)
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                // The H2 console is a frameset
+                .headers(headers -> headers.frameOptions(frameOptions -> frameOptions.sameOrigin()))
+                .authorizeHttpRequests(authorize -> authorize
+                        .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                        .anyRequest().hasRole("ADMIN"))
+                .httpBasic(Customizer.withDefaults())
+                .build();
+
+    }
+
+    @Bean
+    @Order(3)
+    public SecurityFilterChain defaultSecurityFilterChain(HttpSecurity http) throws Exception {
+
+        return http
+                .csrf(AbstractHttpConfigurer::disable)
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .authorizeHttpRequests(authorize -> authorize.anyRequest().permitAll())
+                .build();
+
+    }
+}
@@ -0,0 +1,27 @@
+package com.pyramid.usermanagement.core.configs;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Runs streamed responses (the NDJSON export and the change feed) on a virtual thread each. A change stream
+ * idles for up to {@code app.users.changes.maxStreamDuration}, and Spring Boot's task executor, which would run
+ * them otherwise, has 8 threads and an unbounded queue: a ninth stream would be admitted and never start, and
+ * exports would queue behind it. How many streams run at once is left to admission control.
+ * <p>
+ * Not a bean: any {@code Executor} bean would replace Spring Boot's task executor everywhere else too.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class StreamingConfig implements WebMvcConfigurer {
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("stream-");
+        executor.setVirtualThreads(true);
+        configurer.setTaskExecutor(executor);
+    }
+}
@@ -0,0 +1,89 @@
+package com.pyramid.usermanagement.core.configs;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Binary alternatives to JSON for the API, negotiated through {@code Accept} and {@code Content-Type}: Smile
+ * ({@code application/x-jackson-smile}) and CBOR ({@code application/cbor}). Their mappers are built like the JSON
+ * one, with the same modules and settings, except that dates are written as numeric arrays rather than ISO strings.
+ * <p>
+ * These converters replace Spring MVC's defaults for the two formats in place, after the JSON converter, so JSON
+ * remains the answer to clients that accept anything. All three send bodies under the compression threshold with
+ * their length (see {@link KnownLengthOutputMessage}), so that only larger ones are compressed.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class WireFormatConfig {
+
+    private final int minCompressedSize;
+
+    public WireFormatConfig(@Value("${server.compression.min-response-size:2KB}") DataSize minCompressedSize) {
+        this.minCompressedSize = Math.toIntExact(minCompressedSize.toBytes());
+    }
+
+    // Takes the place of Spring Boot's JSON converter, with the same mapper
+    @Bean
+    public MappingJackson2HttpMessageConverter jsonHttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2HttpMessageConverter(objectMapper) {
+            @Override
+            protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+                writeWithLength(outputMessage, message -> super.writeInternal(object, type, message));
+            }
+        };
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(binaryMapper(builder, new SmileFactory())) {
+            @Override
+            protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+                writeWithLength(outputMessage, message -> super.writeInternal(object, type, message));
+            }
+        };
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(binaryMapper(builder, new CBORFactory())) {
+            @Override
+            protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+                writeWithLength(outputMessage, message -> super.writeInternal(object, type, message));
+            }
+        };
+    }
+
+    // The builder is a prototype: each converter configures its own copy
+    private static ObjectMapper binaryMapper(Jackson2ObjectMapperBuilder builder, JsonFactory factory) {
+        return builder.factory(factory)
+                .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    private void writeWithLength(HttpOutputMessage outputMessage, BodyWriter writer) throws IOException {
+        KnownLengthOutputMessage message = new KnownLengthOutputMessage(outputMessage, minCompressedSize);
+        writer.write(message);
+        message.finish();
+    }
+
+    @FunctionalInterface
+    private interface BodyWriter {
+        void write(HttpOutputMessage message) throws IOException;
+    }
+}
@@ -0,0 +1,30 @@
+package com.pyramid.usermanagement.core.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Read replicas of the primary datasource, by name. Without any, every query goes to the primary.
+ * A client that wrote reads from the primary for {@code readYourWritesWindow}, which should exceed the
+ * replicas' usual replication lag.
+ */
+@ConfigurationProperties("app.datasource")
+public record ReadReplicaProperties(
+        Map<String, Replica> replicas,
+        @DefaultValue("PT5S") Duration readYourWritesWindow,
+        @DefaultValue("100000") long readYourWritesMaxClients,
+        @DefaultValue("PT5S") Duration healthCheckInterval
+) {
+
+    public record Replica(
+            String url,
+            String username,
+            String password,
+            @DefaultValue("10") int maximumPoolSize,
+            @DefaultValue("PT1S") Duration connectionTimeout
+    ) {
+    }
+}
@@ -0,0 +1,47 @@
+package com.pyramid.usermanagement.core.datasource;
+
+/**
+ * Routing hints of the current thread, read by {@link ReplicaRoutingDataSource} when a connection is requested:
+ * whether the work in progress is a {@link ReplicaRead}, and whether the request must stay on the primary to
+ * see its client's own writes.
+ */
+public final class ReadRouting {
+
+    private static final ThreadLocal<Boolean> replicaRead = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> pinnedToPrimary = new ThreadLocal<>();
+
+    private ReadRouting() {
+    }
+
+    /**
+     * Whether a connection requested now would come from the primary whatever the replicas' health: work sharing
+     * a read between threads must not hand a replica's answer to a caller that has to see the primary.
+     */
+    public static boolean readsFromPrimary() {
+        return !isReplicaRead() || isPinnedToPrimary();
+    }
+
+    static boolean isReplicaRead() {
+        return replicaRead.get() != null;
+    }
+
+    static void setReplicaRead(boolean value) {
+        if (value) {
+            replicaRead.set(Boolean.TRUE);
+        } else {
+            replicaRead.remove();
+        }
+    }
+
+    static boolean isPinnedToPrimary() {
+        return pinnedToPrimary.get() != null;
+    }
+
+    static void setPinnedToPrimary(boolean value) {
+        if (value) {
+            pinnedToPrimary.set(Boolean.TRUE);
+        } else {
+            pinnedToPrimary.remove();
+        }
+    }
+}
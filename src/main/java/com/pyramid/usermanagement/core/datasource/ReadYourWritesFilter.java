@@ -0,0 +1,63 @@
+package com.pyramid.usermanagement.core.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.pyramid.usermanagement.core.admission.AdmissionControlFilter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Read-your-writes for clients of the user API: from the moment a client sends a write until {@code window}
+ * after it finished, its requests read from the primary, by which time the replicas should have caught up.
+ * Clients are told apart as they are for admission control. The recent writers are kept in a bounded map;
+ * a client evicted from it early merely reads from a replica sooner.
+ * <p>
+ * Not a bean: registered on the security filter chain only, after authentication, when replicas are configured.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWritesFilter(Duration window, long maxClients) {
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterWrite(window)
+                .build();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String client = AdmissionControlFilter.clientKey(request);
+        boolean write = !isRead(request.getMethod());
+        // Recorded before the write runs: its response is committed inside the chain, and a read sent as soon as
+        // the client sees it must already be pinned
+        if (write) {
+            recentWriters.put(client, Boolean.TRUE);
+        }
+        boolean pinned = recentWriters.getIfPresent(client) != null;
+        ReadRouting.setPinnedToPrimary(pinned);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadRouting.setPinnedToPrimary(false);
+            // And again once it has finished, failed or not, so that the window runs from its commit
+            if (write) {
+                recentWriters.put(client, Boolean.TRUE);
+            }
+        }
+
+    }
+
+    private static boolean isRead(String method) {
+        return HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method) || HttpMethod.OPTIONS.matches(method);
+    }
+}
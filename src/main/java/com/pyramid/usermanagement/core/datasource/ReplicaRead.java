@@ -0,0 +1,17 @@
+package com.pyramid.usermanagement.core.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a read that may be served by a read replica, and so may miss the latest writes of other clients.
+ * Has no effect when called inside a transaction, which keeps the connection it started with.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReplicaRead {
+}
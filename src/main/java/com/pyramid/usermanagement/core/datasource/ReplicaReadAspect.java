@@ -0,0 +1,35 @@
+package com.pyramid.usermanagement.core.datasource;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Flags {@link ReplicaRead} methods for the routing datasource. Ordered before the transaction interceptor,
+ * so the flag is set by the time a transaction of the method itself asks for its connection.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ReplicaReadAspect {
+
+    @Around("@annotation(com.pyramid.usermanagement.core.datasource.ReplicaRead)")
+    public Object routeToReplica(ProceedingJoinPoint joinPoint) throws Throwable {
+
+        // An enclosing transaction already holds a primary connection, and its reads must see its writes
+        if (ReadRouting.isReplicaRead() || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+        ReadRouting.setReplicaRead(true);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ReadRouting.setReplicaRead(false);
+        }
+
+    }
+}
@@ -0,0 +1,170 @@
+package com.pyramid.usermanagement.core.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out replica connections, round robin, to {@link ReplicaRead} work and primary connections to everything
+ * else. Reads use the primary as well while their request is pinned to it (see {@link ReadYourWritesFilter}),
+ * and when no replica is in rotation.
+ * <p>
+ * A replica whose pool fails to hand out a connection leaves the rotation at once; every {@code healthCheckInterval}
+ * a connection of each replica is validated, taking failing replicas out and putting recovered ones back. Reads are
+ * counted as {@code datasource.reads}, tagged with the target and the reason it was chosen, and
+ * {@code datasource.replicas.healthy} gauges the replicas in rotation.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter pinnedReads;
+    private final Counter fallbackReads;
+    private ScheduledExecutorService healthChecks;
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, HikariDataSource> replicas, Duration healthCheckInterval,
+                                    MeterRegistry meterRegistry) {
+        this.primary = primary;
+        replicas.forEach((name, dataSource) -> this.replicas.add(new Replica(name, dataSource, readCounter(meterRegistry, name, "replica"))));
+        this.pinnedReads = readCounter(meterRegistry, "primary", "read_your_writes");
+        this.fallbackReads = readCounter(meterRegistry, "primary", "no_replica");
+        Gauge.builder("datasource.replicas.healthy", this, ReplicaRoutingDataSource::healthyReplicas)
+                .description("Read replicas in rotation")
+                .register(meterRegistry);
+
+        if (!this.replicas.isEmpty()) {
+            healthChecks = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("replica-health").daemon().factory());
+            healthChecks.scheduleWithFixedDelay(this::checkHealth, healthCheckInterval.toMillis(), healthCheckInterval.toMillis(),
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static Counter readCounter(MeterRegistry meterRegistry, String target, String reason) {
+        return Counter.builder("datasource.reads")
+                .description("Connections handed out to replica reads, by the datasource serving them")
+                .tag("target", target)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+
+        if (!ReadRouting.isReplicaRead() || replicas.isEmpty()) {
+            return primary.getConnection();
+        }
+        if (ReadRouting.isPinnedToPrimary()) {
+            pinnedReads.increment();
+            return primary.getConnection();
+        }
+
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (!replica.healthy) {
+                continue;
+            }
+            try {
+                Connection connection = replica.dataSource.getConnection();
+                replica.reads.increment();
+                return connection;
+            } catch (SQLException e) {
+                markDown(replica, e.getMessage());
+            }
+        }
+        fallbackReads.increment();
+        return primary.getConnection();
+
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Credentials are configured per datasource");
+    }
+
+    /**
+     * Validates a connection of every replica and updates the rotation accordingly.
+     */
+    public void checkHealth() {
+
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                if (connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                    markUp(replica);
+                } else {
+                    markDown(replica, "connection failed validation");
+                }
+            } catch (SQLException | RuntimeException e) {
+                markDown(replica, e.getMessage());
+            }
+        }
+
+    }
+
+    public long healthyReplicas() {
+        return replicas.stream().filter(replica -> replica.healthy).count();
+    }
+
+    @Override
+    public void close() {
+        if (healthChecks != null) {
+            healthChecks.shutdownNow();
+        }
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+
+    private static void markDown(Replica replica, String reason) {
+        if (replica.healthy) {
+            replica.healthy = false;
+            // Pooled connections are likely dead too; the health check must test fresh ones
+            HikariPoolMXBean pool = replica.dataSource.getHikariPoolMXBean();
+            if (pool != null) {
+                pool.softEvictConnections();
+            }
+            log.warn("Read replica {} taken out of rotation: {}", replica.name, reason);
+        }
+    }
+
+    private static void markUp(Replica replica) {
+        if (!replica.healthy) {
+            replica.healthy = true;
+            log.info("Read replica {} back in rotation", replica.name);
+        }
+    }
+
+    private static final class Replica {
+
+        final String name;
+        final HikariDataSource dataSource;
+        final Counter reads;
+        volatile boolean healthy = true;
+
+        Replica(String name, HikariDataSource dataSource, Counter reads) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.reads = reads;
+        }
+    }
+}
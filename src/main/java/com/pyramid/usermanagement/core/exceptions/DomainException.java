@@ -0,0 +1,29 @@
+package com.pyramid.usermanagement.core.exceptions;
+
+/**
+ * An expected outcome of a request, such as an unknown id or a taken email, answered with a 4xx status rather than
+ * a failure. These are thrown at request rates and only ever rendered as an error response, so no stack trace is
+ * captured, and a message made of a fixed text and a subject is only concatenated when read.
+ */
+public abstract class DomainException extends RuntimeException {
+
+    private static final Object NO_SUBJECT = new Object();
+
+    private final String text;
+    private final Object subject;
+
+    protected DomainException(String message) {
+        this(message, NO_SUBJECT);
+    }
+
+    protected DomainException(String text, Object subject) {
+        super(null, null, false, false);
+        this.text = text;
+        this.subject = subject;
+    }
+
+    @Override
+    public String getMessage() {
+        return subject == NO_SUBJECT ? text : text + subject;
+    }
+}
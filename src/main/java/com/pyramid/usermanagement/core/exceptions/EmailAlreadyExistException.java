@@ -10,8 +10,12 @@ import org.springframework.web.bind.annotation.ResponseStatus;
  * Project Name: user-management
  */
 @ResponseStatus(HttpStatus.CONFLICT)
-public class EmailAlreadyExistException extends RuntimeException {
+public class EmailAlreadyExistException extends DomainException {
     public EmailAlreadyExistException(String message) {
         super(message);
     }
+
+    public EmailAlreadyExistException(String text, Object email) {
+        super(text, email);
+    }
 }
@@ -1,13 +1,24 @@
 package com.pyramid.usermanagement.core.exceptions;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.Getter;
 import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.support.WebExchangeBindException;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -19,12 +30,42 @@ import java.util.Map;
  * Time: 01:20
  * Project Name: user-management
  */
+@Slf4j
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
+    private final Counter notFoundErrors;
+    private final Counter emailConflictErrors;
+    private final Counter preconditionFailedErrors;
+    private final Counter concurrentUpdateErrors;
+    private final Counter integrityViolationErrors;
+    private final Counter authenticationErrors;
+    private final Counter notImplementedErrors;
+    private final Counter invalidRequestErrors;
+
+    public GlobalExceptionHandler(MeterRegistry meterRegistry) {
+        this.notFoundErrors = errorCounter(meterRegistry, ResourceNotFoundException.class, HttpStatus.NOT_FOUND);
+        this.emailConflictErrors = errorCounter(meterRegistry, EmailAlreadyExistException.class, HttpStatus.CONFLICT);
+        this.preconditionFailedErrors = errorCounter(meterRegistry, PreconditionFailedException.class, HttpStatus.PRECONDITION_FAILED);
+        this.concurrentUpdateErrors = errorCounter(meterRegistry, OptimisticLockingFailureException.class, HttpStatus.CONFLICT);
+        this.integrityViolationErrors = errorCounter(meterRegistry, DataIntegrityViolationException.class, HttpStatus.CONFLICT);
+        this.authenticationErrors = errorCounter(meterRegistry, AuthenticationException.class, HttpStatus.UNAUTHORIZED);
+        this.notImplementedErrors = errorCounter(meterRegistry, NotImplementedException.class, HttpStatus.NOT_IMPLEMENTED);
+        this.invalidRequestErrors = errorCounter(meterRegistry, InvalidRequestException.class, HttpStatus.BAD_REQUEST);
+    }
+
+    private static Counter errorCounter(MeterRegistry meterRegistry, Class<? extends Exception> exception, HttpStatus status) {
+        return Counter.builder("user.errors")
+                .description("Domain errors answered by the global exception handler")
+                .tag("exception", exception.getSimpleName())
+                .tag("status", String.valueOf(status.value()))
+                .register(meterRegistry);
+    }
+
     @ExceptionHandler(ResourceNotFoundException.class)
     public ResponseEntity<ErrorResponse> handleResourceNotFoundException(ResourceNotFoundException ex) {
 
+        notFoundErrors.increment();
         ErrorResponse errorResponse = new ErrorResponse(
 
                 HttpStatus.NOT_FOUND.value(),
@@ -38,6 +79,7 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(EmailAlreadyExistException.class)
     public ResponseEntity<ErrorResponse> handleEmailAlreadyExistException(EmailAlreadyExistException ex) {
 
+        emailConflictErrors.increment();
         ErrorResponse errorResponse = new ErrorResponse(
                 HttpStatus.CONFLICT.value(),
                 ex.getMessage(),
@@ -47,10 +89,92 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
     }
 
-    @ExceptionHandler(MethodArgumentNotValidException.class)
-    public ResponseEntity<ValidationErrorResponse> handleValidationExceptions(MethodArgumentNotValidException ex) {
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ErrorResponse> handlePreconditionFailedException(PreconditionFailedException ex) {
+
+        preconditionFailedErrors.increment();
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.PRECONDITION_FAILED.value(),
+                ex.getMessage(),
+                LocalDateTime.now()
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailureException(OptimisticLockingFailureException ex) {
+
+        // Two unconditional updates raced: the loser is told to re-read rather than silently overwriting
+        concurrentUpdateErrors.increment();
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.CONFLICT.value(),
+                "The user was modified concurrently, please retry",
+                LocalDateTime.now()
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ErrorResponse> handleDataIntegrityViolationException(DataIntegrityViolationException ex) {
+
+        // A constraint the service did not check up front (or checked against stale data) rejected the write
+        integrityViolationErrors.increment();
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.CONFLICT.value(),
+                "The request conflicts with existing data",
+                LocalDateTime.now()
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(AuthenticationException.class)
+    public ResponseEntity<ErrorResponse> handleAuthenticationException(AuthenticationException ex) {
+
+        // Same answer for an unknown user and a wrong password
+        authenticationErrors.increment();
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.UNAUTHORIZED.value(),
+                "Bad credentials",
+                LocalDateTime.now()
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.UNAUTHORIZED);
+    }
+
+    @ExceptionHandler(NotImplementedException.class)
+    public ResponseEntity<ErrorResponse> handleNotImplementedException(NotImplementedException ex) {
+
+        notImplementedErrors.increment();
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.NOT_IMPLEMENTED.value(),
+                ex.getMessage(),
+                LocalDateTime.now()
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.NOT_IMPLEMENTED);
+    }
+
+    @ExceptionHandler(InvalidRequestException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidRequestException(InvalidRequestException ex) {
+
+        invalidRequestErrors.increment();
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.BAD_REQUEST.value(),
+                ex.getMessage(),
+                LocalDateTime.now()
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    // Invalid request bodies, from Spring MVC and from WebFlux (reactive profile) respectively
+    @ExceptionHandler({MethodArgumentNotValidException.class, WebExchangeBindException.class})
+    public ResponseEntity<ValidationErrorResponse> handleValidationExceptions(Exception ex) {
         Map<String, String> errors = new HashMap<>();
-        ex.getBindingResult().getAllErrors().forEach((error) -> {
+        ((BindingResult) ex).getAllErrors().forEach((error) -> {
             String fieldName = ((FieldError) error).getField();
             String errorMessage = error.getDefaultMessage();
             errors.put(fieldName, errorMessage);
@@ -66,11 +190,28 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(validationErrorResponse, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class})
+    public ResponseEntity<ErrorResponse> handleDatabaseUnavailableException(Exception ex) {
+
+        // Typically a connection pool timeout: shed load quickly and let the client retry
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Service temporarily unavailable, please retry",
+                LocalDateTime.now()
+        );
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(errorResponse);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGenericException(Exception ex) {
+        // Logged, not echoed: the message of an unexpected exception may describe internals
+        log.error("Unexpected error", ex);
         ErrorResponse errorResponse = new ErrorResponse(
                 HttpStatus.INTERNAL_SERVER_ERROR.value(),
-                "An unexpected error occured: " + ex.getMessage(),
+                "An unexpected error occured",
                 LocalDateTime.now()
         );
 
@@ -0,0 +1,20 @@
+package com.pyramid.usermanagement.core.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * A request parameter the service rejects, such as an unknown sort property, an undecodable cursor or an
+ * oversized batch. Only these are answered with 400 and their message; an {@link IllegalArgumentException}
+ * from anywhere else is a bug, and its message is not sent to the client.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidRequestException extends DomainException {
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+
+    public InvalidRequestException(String text, Object subject) {
+        super(text, subject);
+    }
+}
@@ -0,0 +1,19 @@
+package com.pyramid.usermanagement.core.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * An endpoint the running web stack does not serve, such as one of the servlet-only endpoints under the
+ * {@code reactive} profile: answered with 501 and the reason, rather than a 404 that hides it.
+ */
+@ResponseStatus(HttpStatus.NOT_IMPLEMENTED)
+public class NotImplementedException extends DomainException {
+    public NotImplementedException(String message) {
+        super(message);
+    }
+
+    public NotImplementedException(String text, Object endpoint) {
+        super(text, endpoint);
+    }
+}
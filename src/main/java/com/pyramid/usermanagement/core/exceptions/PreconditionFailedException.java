@@ -0,0 +1,14 @@
+package com.pyramid.usermanagement.core.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * The resource changed since the version named in the request's {@code If-Match} header.
+ */
+@ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+public class PreconditionFailedException extends DomainException {
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
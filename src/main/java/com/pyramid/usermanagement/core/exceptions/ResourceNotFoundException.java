@@ -6,8 +6,12 @@ package com.pyramid.usermanagement.core.exceptions;
  * Time: 00:59
  * Project Name: user-management
  */
-public class ResourceNotFoundException extends RuntimeException{
+public class ResourceNotFoundException extends DomainException {
     public ResourceNotFoundException(String message) {
         super(message);
     }
+
+    public ResourceNotFoundException(String text, Object key) {
+        super(text, key);
+    }
 }
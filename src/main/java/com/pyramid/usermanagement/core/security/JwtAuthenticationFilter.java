@@ -0,0 +1,118 @@
+package com.pyramid.usermanagement.core.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextHolderStrategy;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Authenticates requests carrying an {@code Authorization: Bearer} token.
+ * <p>
+ * Verifying a token means an HMAC over it and a JSON parse, so tokens that passed once are kept in a bounded
+ * cache, each until its own expiry; a repeat request costs one lookup. Tokens are the cache keys, so only the
+ * exact string that was verified can hit. A request with a missing or invalid token is left unauthenticated
+ * for the authorization rules to turn away.
+ * <p>
+ * Not a bean: registered on the security filter chain only, not as a servlet filter of its own.
+ */
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final JwtTokenService jwtTokenService;
+    private final Cache<String, JwtTokenService.VerifiedToken> tokenCache;
+    private final SecurityContextHolderStrategy securityContextHolderStrategy = SecurityContextHolder.getContextHolderStrategy();
+    private final Counter cachedTokens;
+    private final Counter verifiedTokens;
+    private final Counter rejectedTokens;
+
+    public JwtAuthenticationFilter(JwtTokenService jwtTokenService, long maximumSize, MeterRegistry meterRegistry) {
+        this.jwtTokenService = jwtTokenService;
+        this.tokenCache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<String, JwtTokenService.VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String token, JwtTokenService.VerifiedToken verified, long currentTime) {
+                        return Math.max(0, Duration.between(Instant.now(), verified.expiresAt()).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, JwtTokenService.VerifiedToken verified, long currentTime,
+                                                  long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, JwtTokenService.VerifiedToken verified, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, tokenCache, "auth.tokens");
+        this.cachedTokens = tokenCounter(meterRegistry, "cached");
+        this.verifiedTokens = tokenCounter(meterRegistry, "verified");
+        this.rejectedTokens = tokenCounter(meterRegistry, "rejected");
+    }
+
+    private static Counter tokenCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("auth.tokens")
+                .description("Bearer tokens presented, by how they were resolved")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.startsWith(BEARER_PREFIX)) {
+            JwtTokenService.VerifiedToken verified = resolve(header.substring(BEARER_PREFIX.length()).trim());
+            if (verified != null) {
+                SecurityContext context = securityContextHolderStrategy.createEmptyContext();
+                context.setAuthentication(verified.authentication());
+                securityContextHolderStrategy.setContext(context);
+            }
+        }
+        filterChain.doFilter(request, response);
+
+    }
+
+    private JwtTokenService.VerifiedToken resolve(String token) {
+
+        JwtTokenService.VerifiedToken cached = tokenCache.getIfPresent(token);
+        if (cached != null) {
+            cachedTokens.increment();
+            return cached;
+        }
+
+        try {
+            JwtTokenService.VerifiedToken verified = jwtTokenService.verify(token);
+            tokenCache.put(token, verified);
+            verifiedTokens.increment();
+            return verified;
+        } catch (JwtException | IllegalArgumentException e) {
+            rejectedTokens.increment();
+            return null;
+        }
+
+    }
+}
@@ -0,0 +1,86 @@
+package com.pyramid.usermanagement.core.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Issues and verifies the HMAC-signed bearer tokens of the API. A token carries its subject and
+ * authorities, so verifying one needs neither a session nor a user lookup.
+ */
+@Component
+public class JwtTokenService {
+
+    private static final String AUTHORITIES_CLAIM = "roles";
+
+    private final SecretKey key;
+    private final JwtParser parser;
+    private final long expirationMs;
+
+    /**
+     * A token whose signature and expiry were checked, with the authentication it stands for.
+     */
+    public record VerifiedToken(Authentication authentication, Instant expiresAt) {
+    }
+
+    /**
+     * A newly signed token and when it expires.
+     */
+    public record IssuedToken(String token, Instant expiresAt) {
+    }
+
+    public JwtTokenService(@Value("${app.jwtSecret}") String secret,
+                           @Value("${app.jwtExpirationMs}") long expirationMs) {
+        this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+        this.expirationMs = expirationMs;
+    }
+
+    public IssuedToken issue(String subject, Collection<? extends GrantedAuthority> authorities) {
+
+        Instant issuedAt = Instant.now();
+        Instant expiresAt = issuedAt.plusMillis(expirationMs);
+        String token = Jwts.builder()
+                .setSubject(subject)
+                .claim(AUTHORITIES_CLAIM, authorities.stream().map(GrantedAuthority::getAuthority).toList())
+                .setIssuedAt(Date.from(issuedAt))
+                .setExpiration(Date.from(expiresAt))
+                .signWith(key)
+                .compact();
+        return new IssuedToken(token, expiresAt);
+
+    }
+
+    /**
+     * @throws JwtException if the token is malformed, not signed with our key or expired
+     */
+    public VerifiedToken verify(String token) {
+
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        if (claims.getExpiration() == null) {
+            throw new JwtException("Token has no expiry");
+        }
+        List<?> roles = claims.get(AUTHORITIES_CLAIM, List.class);
+        List<GrantedAuthority> authorities = roles == null ? List.of() : roles.stream()
+                .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(String.valueOf(role)))
+                .toList();
+        Authentication authentication = UsernamePasswordAuthenticationToken.authenticated(claims.getSubject(), null, authorities);
+        return new VerifiedToken(authentication, claims.getExpiration().toInstant());
+
+    }
+}
@@ -0,0 +1,42 @@
+package com.pyramid.usermanagement.domain.auth.controller;
+
+import com.pyramid.usermanagement.domain.auth.dto.LoginRequestDTO;
+import com.pyramid.usermanagement.domain.auth.dto.TokenDTO;
+import com.pyramid.usermanagement.domain.auth.services.AuthService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@CrossOrigin
+@RequestMapping("/api/auth")
+@Tag(name = "Auth Controller", description = "Endpoints for obtaining access tokens")
+public class AuthController {
+
+    private final AuthService authService;
+
+    public AuthController(AuthService authService) {
+        this.authService = authService;
+    }
+
+    @PostMapping("/token")
+    @Operation(summary = "Obtain an access token", description = "Exchanges a username and password for a bearer token")
+    @ApiResponse(responseCode = "200", description = "Token issued")
+    @ApiResponse(responseCode = "400", description = "Invalid input")
+    @ApiResponse(responseCode = "401", description = "Bad credentials")
+    public ResponseEntity<TokenDTO> issueToken(@Valid @RequestBody LoginRequestDTO loginRequestDTO) {
+
+        TokenDTO token = authService.issueToken(loginRequestDTO);
+        return ResponseEntity.ok(token);
+
+    }
+}
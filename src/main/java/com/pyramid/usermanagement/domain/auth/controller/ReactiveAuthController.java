@@ -0,0 +1,39 @@
+package com.pyramid.usermanagement.domain.auth.controller;
+
+import com.pyramid.usermanagement.domain.auth.dto.LoginRequestDTO;
+import com.pyramid.usermanagement.domain.auth.dto.TokenDTO;
+import com.pyramid.usermanagement.domain.auth.services.ReactiveAuthService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@CrossOrigin
+@RequestMapping("/api/auth")
+@Tag(name = "Auth Controller", description = "Endpoints for obtaining access tokens")
+public class ReactiveAuthController {
+
+    private final ReactiveAuthService reactiveAuthService;
+
+    public ReactiveAuthController(ReactiveAuthService reactiveAuthService) {
+        this.reactiveAuthService = reactiveAuthService;
+    }
+
+    @PostMapping("/token")
+    @Operation(summary = "Obtain an access token", description = "Exchanges a username and password for a bearer token")
+    @ApiResponse(responseCode = "200", description = "Token issued")
+    @ApiResponse(responseCode = "400", description = "Invalid input")
+    @ApiResponse(responseCode = "401", description = "Bad credentials")
+    public Mono<TokenDTO> issueToken(@Valid @RequestBody LoginRequestDTO loginRequestDTO) {
+        return reactiveAuthService.issueToken(loginRequestDTO);
+    }
+}
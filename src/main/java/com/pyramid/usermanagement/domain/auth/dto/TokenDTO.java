@@ -0,0 +1,11 @@
+package com.pyramid.usermanagement.domain.auth.dto;
+
+/**
+ * Bearer token to send as {@code Authorization: Bearer <accessToken>}, valid for {@code expiresIn} seconds.
+ */
+public record TokenDTO(
+        String accessToken,
+        String tokenType,
+        long expiresIn
+) {
+}
@@ -0,0 +1,13 @@
+package com.pyramid.usermanagement.domain.auth.services;
+
+import com.pyramid.usermanagement.domain.auth.dto.LoginRequestDTO;
+import com.pyramid.usermanagement.domain.auth.dto.TokenDTO;
+
+public interface AuthService {
+
+    /**
+     * @throws org.springframework.security.core.AuthenticationException if the credentials are not accepted
+     */
+    TokenDTO issueToken(LoginRequestDTO loginRequestDTO);
+
+}
@@ -0,0 +1,14 @@
+package com.pyramid.usermanagement.domain.auth.services;
+
+import com.pyramid.usermanagement.domain.auth.dto.LoginRequestDTO;
+import com.pyramid.usermanagement.domain.auth.dto.TokenDTO;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveAuthService {
+
+    /**
+     * Signals an {@link org.springframework.security.core.AuthenticationException} if the credentials are not accepted.
+     */
+    Mono<TokenDTO> issueToken(LoginRequestDTO loginRequestDTO);
+
+}
@@ -0,0 +1,41 @@
+package com.pyramid.usermanagement.domain.auth.services.implement;
+
+import com.pyramid.usermanagement.core.security.JwtTokenService;
+import com.pyramid.usermanagement.domain.auth.dto.LoginRequestDTO;
+import com.pyramid.usermanagement.domain.auth.dto.TokenDTO;
+import com.pyramid.usermanagement.domain.auth.services.AuthService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class AuthServiceImpl implements AuthService {
+
+    private final AuthenticationManager authenticationManager;
+    private final JwtTokenService jwtTokenService;
+
+    public AuthServiceImpl(AuthenticationConfiguration authenticationConfiguration, JwtTokenService jwtTokenService)
+            throws Exception {
+        this.authenticationManager = authenticationConfiguration.getAuthenticationManager();
+        this.jwtTokenService = jwtTokenService;
+    }
+
+    @Override
+    public TokenDTO issueToken(LoginRequestDTO loginRequestDTO) {
+
+        // The only place a password is checked; requests then carry the token
+        Authentication authentication = authenticationManager.authenticate(
+                UsernamePasswordAuthenticationToken.unauthenticated(loginRequestDTO.username(), loginRequestDTO.password()));
+        JwtTokenService.IssuedToken issued = jwtTokenService.issue(authentication.getName(), authentication.getAuthorities());
+        long expiresIn = Duration.between(Instant.now(), issued.expiresAt()).toSeconds();
+        return new TokenDTO(issued.token(), "Bearer", expiresIn);
+
+    }
+}
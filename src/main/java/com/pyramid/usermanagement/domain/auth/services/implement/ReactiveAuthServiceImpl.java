@@ -0,0 +1,42 @@
+package com.pyramid.usermanagement.domain.auth.services.implement;
+
+import com.pyramid.usermanagement.core.security.JwtTokenService;
+import com.pyramid.usermanagement.domain.auth.dto.LoginRequestDTO;
+import com.pyramid.usermanagement.domain.auth.dto.TokenDTO;
+import com.pyramid.usermanagement.domain.auth.services.ReactiveAuthService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UserDetailsRepositoryReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveAuthServiceImpl implements ReactiveAuthService {
+
+    private final ReactiveAuthenticationManager authenticationManager;
+    private final JwtTokenService jwtTokenService;
+
+    public ReactiveAuthServiceImpl(ReactiveUserDetailsService userDetailsService, JwtTokenService jwtTokenService) {
+        this.authenticationManager = new UserDetailsRepositoryReactiveAuthenticationManager(userDetailsService);
+        this.jwtTokenService = jwtTokenService;
+    }
+
+    @Override
+    public Mono<TokenDTO> issueToken(LoginRequestDTO loginRequestDTO) {
+
+        return authenticationManager.authenticate(
+                        UsernamePasswordAuthenticationToken.unauthenticated(loginRequestDTO.username(), loginRequestDTO.password()))
+                .map(authentication -> {
+                    JwtTokenService.IssuedToken issued = jwtTokenService.issue(authentication.getName(), authentication.getAuthorities());
+                    long expiresIn = Duration.between(Instant.now(), issued.expiresAt()).toSeconds();
+                    return new TokenDTO(issued.token(), "Bearer", expiresIn);
+                });
+
+    }
+}
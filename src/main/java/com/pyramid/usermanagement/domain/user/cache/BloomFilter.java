@@ -0,0 +1,123 @@
+package com.pyramid.usermanagement.domain.user.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size Bloom filter over strings. {@link #mightContain} never misses a key that was {@link #add added};
+ * it answers {@code true} for a key that was not with a probability that grows with the number of keys added.
+ * Keys cannot be removed, which is why owners rebuild it now and then.
+ * <p>
+ * Bits are set with compare-and-set, so adds and lookups need no lock. The {@code k} bit positions of a key
+ * come from one 64-bit hash split in two ({@code h1 + i * h2}), which is as good as {@code k} independent hashes
+ * for this purpose.
+ */
+final class BloomFilter {
+
+    private static final double LN2 = Math.log(2);
+    private static final int MAX_HASHES = 16;
+
+    private final AtomicLongArray words;
+    private final long bits;
+    private final int hashes;
+    private final long capacity;
+    private final AtomicLong added = new AtomicLong();
+
+    private BloomFilter(long bits, int hashes, long capacity) {
+        this.words = new AtomicLongArray(Math.toIntExact(bits >>> 6));
+        this.bits = bits;
+        this.hashes = hashes;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Sized so that {@code expectedKeys} keys give a false positive rate of {@code falsePositiveRate}, unless
+     * that takes more than {@code maxBytes}, in which case the filter is smaller and the rate higher.
+     */
+    static BloomFilter create(long expectedKeys, double falsePositiveRate, long maxBytes) {
+
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False positive rate must be between 0 and 1: " + falsePositiveRate);
+        }
+        long keys = Math.max(1, expectedKeys);
+        double optimalBits = -keys * Math.log(falsePositiveRate) / (LN2 * LN2);
+        long maxBits = Math.min(Math.max(64, maxBytes * 8), (long) Integer.MAX_VALUE << 6);
+        long bits = Math.min((long) Math.ceil(optimalBits), maxBits);
+        bits = Math.max(64, (bits + 63) & ~63L);
+        int hashes = (int) Math.max(1, Math.min(MAX_HASHES, Math.round((double) bits / keys * LN2)));
+        return new BloomFilter(bits, hashes, keys);
+
+    }
+
+    void add(String key) {
+
+        long h1 = hash(key);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bits);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = words.get(word);
+            while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask)) {
+                current = words.get(word);
+            }
+        }
+        added.incrementAndGet();
+
+    }
+
+    boolean mightContain(String key) {
+
+        long h1 = hash(key);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bits);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+
+    }
+
+    /**
+     * Keys added so far, counting a key added twice twice.
+     */
+    long added() {
+        return added.get();
+    }
+
+    long capacity() {
+        return capacity;
+    }
+
+    long estimatedBytes() {
+        return bits >>> 3;
+    }
+
+    int hashCount() {
+        return hashes;
+    }
+
+    /**
+     * False positive rate to expect with the keys added so far: {@code (1 - e^(-k * n / m))^k}.
+     */
+    double expectedFalsePositiveRate() {
+        return Math.pow(1 - Math.exp(-hashes * (double) added.get() / bits), hashes);
+    }
+
+    // 64-bit FNV-1a over the UTF-16 chars, finished with a full avalanche so that every bit depends on every char
+    private static long hash(String key) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h = (h ^ key.charAt(i)) * 0x100000001B3L;
+        }
+        return mix(h);
+    }
+
+    private static long mix(long h) {
+        h = (h ^ (h >>> 33)) * 0xFF51AFD7ED558CCDL;
+        h = (h ^ (h >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return h ^ (h >>> 33);
+    }
+}
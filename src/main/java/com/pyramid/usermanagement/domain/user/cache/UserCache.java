@@ -0,0 +1,222 @@
+package com.pyramid.usermanagement.domain.user.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.pyramid.usermanagement.domain.user.dto.UserDTO;
+import com.pyramid.usermanagement.domain.user.events.UserChangedEvent;
+import com.pyramid.usermanagement.domain.user.model.AppUser;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, W-TinyLFU read-through cache of {@link UserDTO}, addressable by id and by (case-insensitive) email.
+ * <p>
+ * Users are stored once, by id; the email index only points at ids and is cleaned up when the
+ * user it points at is evicted, so both keys always resolve to the same entry. Entries are
+ * invalidated after the writing transaction commits, and a load that raced with an
+ * invalidation is never published. Neither is a load older than a write of the last
+ * {@code readYourWritesWindow}, as a lagging read replica returns.
+ * <p>
+ * Single lookups take the epoch from their loader's {@link Loaded} result, so that a query shared by
+ * concurrent callers is judged by when it started, not by when each caller joined it.
+ */
+@Component
+public class UserCache {
+
+    private final Cache<Long, UserDTO> usersById;
+    private final Cache<String, Long> idsByEmail;
+    // Version of each recent write (Long.MAX_VALUE for a delete), kept as long as replicas may lag behind it
+    private final Cache<Long, Long> recentVersions;
+
+    // Bumped on every invalidation; loads started under an older epoch are discarded
+    private final AtomicLong epoch = new AtomicLong();
+
+    public UserCache(@Value("${app.cache.users.maximumSize:10000}") long maximumSize,
+                     @Value("${app.cache.users.expireAfterWrite:PT10M}") Duration expireAfterWrite,
+                     @Value("${app.datasource.readYourWritesWindow:PT5S}") Duration readYourWritesWindow,
+                     MeterRegistry meterRegistry) {
+
+        this.idsByEmail = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+
+        this.usersById = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .evictionListener((Long id, UserDTO user, RemovalCause cause) -> {
+                    if (user != null) {
+                        idsByEmail.asMap().remove(AppUser.normalizeEmail(user.email()), id);
+                    }
+                })
+                .build();
+
+        this.recentVersions = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(readYourWritesWindow)
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, usersById, "users.byId");
+        CaffeineCacheMetrics.monitor(meterRegistry, idsByEmail, "users.byEmail");
+    }
+
+    /**
+     * The cached user, or null without loading it.
+     */
+    public UserDTO peekById(Long id) {
+        return usersById.getIfPresent(id);
+    }
+
+    /**
+     * Runs {@code query}, stamped with the epoch it started under.
+     */
+    public Loaded load(Supplier<UserDTO> query) {
+        long loadEpoch = epoch.get();
+        return new Loaded(query.get(), loadEpoch);
+    }
+
+    public UserDTO getById(Long id, Function<Long, Loaded> loader) {
+
+        UserDTO cached = usersById.getIfPresent(id);
+        if (cached != null) {
+            return cached;
+        }
+
+        Loaded loaded = loader.apply(id);
+        publish(loaded.user(), loaded.epoch());
+        return loaded.user();
+    }
+
+    public UserDTO getByEmail(String email, Function<String, Loaded> loader) {
+
+        String emailKey = AppUser.normalizeEmail(email);
+        Long id = idsByEmail.getIfPresent(emailKey);
+        if (id != null) {
+            UserDTO cached = usersById.getIfPresent(id);
+            if (cached != null && emailKey.equals(AppUser.normalizeEmail(cached.email()))) {
+                return cached;
+            }
+        }
+
+        Loaded loaded = loader.apply(email);
+        publish(loaded.user(), loaded.epoch());
+        return loaded.user();
+    }
+
+    /**
+     * Resolves many ids at once; {@code loader} is called once with every id that missed the cache
+     * and returns the users it found. Ids missing from the result are not found.
+     */
+    public Map<Long, UserDTO> getAllById(Collection<Long> ids, Function<Set<Long>, Map<Long, UserDTO>> loader) {
+
+        Map<Long, UserDTO> result = new HashMap<>(usersById.getAllPresent(ids));
+        Set<Long> misses = new LinkedHashSet<>(ids);
+        misses.removeAll(result.keySet());
+        if (misses.isEmpty()) {
+            return result;
+        }
+
+        long loadEpoch = epoch.get();
+        Map<Long, UserDTO> loaded = loader.apply(misses);
+        loaded.values().forEach(user -> publish(user, loadEpoch));
+        result.putAll(loaded);
+        return result;
+    }
+
+    /**
+     * Email counterpart of {@link #getAllById(Collection, Function)}, keyed by normalized email.
+     */
+    public Map<String, UserDTO> getAllByEmail(Collection<String> emails, Function<Set<String>, Map<String, UserDTO>> loader) {
+
+        Map<String, UserDTO> result = new HashMap<>();
+        Set<String> misses = new LinkedHashSet<>();
+        for (String email : emails) {
+            String emailKey = AppUser.normalizeEmail(email);
+            Long id = idsByEmail.getIfPresent(emailKey);
+            UserDTO cached = id == null ? null : usersById.getIfPresent(id);
+            if (cached != null && emailKey.equals(AppUser.normalizeEmail(cached.email()))) {
+                result.put(emailKey, cached);
+            } else {
+                misses.add(emailKey);
+            }
+        }
+        if (misses.isEmpty()) {
+            return result;
+        }
+
+        long loadEpoch = epoch.get();
+        Map<String, UserDTO> loaded = loader.apply(misses);
+        loaded.values().forEach(user -> publish(user, loadEpoch));
+        result.putAll(loaded);
+        return result;
+    }
+
+    public void invalidate(UserDTO user) {
+        epoch.incrementAndGet();
+        usersById.invalidate(user.Id());
+        idsByEmail.asMap().remove(AppUser.normalizeEmail(user.email()), user.Id());
+    }
+
+    public void invalidateAll() {
+        epoch.incrementAndGet();
+        usersById.invalidateAll();
+        idsByEmail.invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.after() != null && event.after().version() != null) {
+            recentVersions.asMap().merge(event.after().Id(), event.after().version(), Math::max);
+        } else if (event.after() == null && event.before() != null) {
+            recentVersions.put(event.before().Id(), Long.MAX_VALUE);
+        }
+        if (event.before() != null) {
+            invalidate(event.before());
+        }
+        if (event.after() != null) {
+            invalidate(event.after());
+        }
+    }
+
+    private void publish(UserDTO user, long loadEpoch) {
+
+        if (epoch.get() != loadEpoch) {
+            return;
+        }
+        Long written = recentVersions.getIfPresent(user.Id());
+        if (written != null && (user.version() == null || user.version() < written)) {
+            return;
+        }
+
+        usersById.put(user.Id(), user);
+        idsByEmail.put(AppUser.normalizeEmail(user.email()), user.Id());
+
+        // An invalidation that slipped in between the check and the puts must still win
+        if (epoch.get() != loadEpoch) {
+            usersById.invalidate(user.Id());
+            idsByEmail.asMap().remove(AppUser.normalizeEmail(user.email()), user.Id());
+        }
+    }
+
+    /**
+     * A user read from the database, with the cache epoch its query started under.
+     */
+    public record Loaded(UserDTO user, long epoch) {
+    }
+}
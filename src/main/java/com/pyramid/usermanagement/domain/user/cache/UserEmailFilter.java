@@ -0,0 +1,195 @@
+package com.pyramid.usermanagement.domain.user.cache;
+
+import com.pyramid.usermanagement.domain.user.dto.UserDTO;
+import com.pyramid.usermanagement.domain.user.events.UserChangedEvent;
+import com.pyramid.usermanagement.domain.user.model.AppUser;
+import com.pyramid.usermanagement.domain.user.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filter over every normalized email, so that the uniqueness check of a new email can skip its
+ * query when the email is certainly not taken. The unique constraint on {@code emailKey} stays the final
+ * arbiter: an email the filter has not seen yet (written by another instance, say) fails the insert instead,
+ * answered as a conflict for a single create and as a duplicate row, after a row-by-row retry, for an import.
+ * <p>
+ * The filter is built from the {@code users} table once the application is ready and every committed
+ * email is added to it. Deleted or replaced emails cannot be taken out, so it is rebuilt every
+ * {@code rebuildInterval}, and earlier once more emails were added than it was sized for. While a rebuild
+ * reads the table, committed emails go to both filters. Until the first build completes every email
+ * "might exist" and is checked against the database.
+ */
+@Slf4j
+@Component
+public class UserEmailFilter {
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+    private final long expectedEmails;
+    private final double falsePositiveRate;
+    private final long maxMemoryBytes;
+    private final Duration rebuildInterval;
+    private final Counter skippedChecks;
+    private final Counter databaseChecks;
+    private final Counter falsePositives;
+
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private final AtomicBoolean rebuildRequested = new AtomicBoolean();
+    private volatile BloomFilter filter;
+    private volatile BloomFilter building;
+    private ScheduledExecutorService rebuilds;
+
+    public UserEmailFilter(UserRepository userRepository, PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.users.emailFilter.enabled:true}") boolean enabled,
+                           @Value("${app.users.emailFilter.expectedEmails:1000000}") long expectedEmails,
+                           @Value("${app.users.emailFilter.falsePositiveRate:0.01}") double falsePositiveRate,
+                           @Value("${app.users.emailFilter.maxMemory:32MB}") DataSize maxMemory,
+                           @Value("${app.users.emailFilter.rebuildInterval:PT1H}") Duration rebuildInterval) {
+        this.userRepository = userRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+        this.expectedEmails = expectedEmails;
+        this.falsePositiveRate = falsePositiveRate;
+        this.maxMemoryBytes = maxMemory.toBytes();
+        this.rebuildInterval = rebuildInterval;
+
+        this.skippedChecks = filterCounter(meterRegistry, "skipped");
+        this.databaseChecks = filterCounter(meterRegistry, "checked");
+        this.falsePositives = filterCounter(meterRegistry, "false_positive");
+        Gauge.builder("user.emails.filter.bytes", this, emailFilter -> emailFilter.filter == null ? 0 : emailFilter.filter.estimatedBytes())
+                .description("Heap used by the email Bloom filter")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("user.emails.filter.fpp", this, emailFilter -> emailFilter.filter == null ? 1 : emailFilter.filter.expectedFalsePositiveRate())
+                .description("False positive rate expected from the emails added to the filter")
+                .register(meterRegistry);
+    }
+
+    private static Counter filterCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("user.emails.filter")
+                .description("Email uniqueness checks answered by the Bloom filter (skipped) or the database (checked)")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * False when no user has this normalized email, true when one might.
+     */
+    public boolean mightExist(String emailKey) {
+
+        BloomFilter current = filter;
+        if (current == null || current.mightContain(emailKey)) {
+            databaseChecks.increment();
+            return true;
+        }
+        skippedChecks.increment();
+        return false;
+
+    }
+
+    /**
+     * Reports that an email the filter said might exist did not.
+     */
+    public void recordFalsePositive() {
+        falsePositives.increment();
+    }
+
+    public boolean isReady() {
+        return filter != null;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            rebuilds = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("user-email-filter").daemon().factory());
+            rebuilds.scheduleWithFixedDelay(this::rebuild, 0, rebuildInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (rebuilds != null) {
+            rebuilds.shutdownNow();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+
+        UserDTO user = event.after();
+        if (user == null) {
+            return;
+        }
+        String emailKey = AppUser.normalizeEmail(user.email());
+        if (event.before() != null && AppUser.normalizeEmail(event.before().email()).equals(emailKey)) {
+            return;
+        }
+        BloomFilter next = building;
+        if (next != null) {
+            next.add(emailKey);
+        }
+        BloomFilter current = filter;
+        if (current != null) {
+            current.add(emailKey);
+            if (current.added() > current.capacity() && rebuilds != null && rebuildRequested.compareAndSet(false, true)) {
+                rebuilds.execute(this::rebuild);
+            }
+        }
+
+    }
+
+    /**
+     * Replaces the filter with one freshly read from the database, sized for twice the current user count.
+     */
+    public void rebuild() {
+
+        if (!rebuildLock.tryLock()) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            long users = userRepository.count();
+            BloomFilter next = BloomFilter.create(Math.max(expectedEmails, users * 2), falsePositiveRate, maxMemoryBytes);
+            // Publish before reading, so that an email committed after the read started is added by onUserChanged
+            building = next;
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<String> emailKeys = userRepository.streamAllEmailKeys()) {
+                    emailKeys.forEach(next::add);
+                }
+            });
+            filter = next;
+            log.info("User email filter built: {} emails, {} KB, {} hashes, expected false positive rate {} in {} ms",
+                    next.added(), next.estimatedBytes() >> 10, next.hashCount(),
+                    String.format("%.4f", next.expectedFalsePositiveRate()), (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("Building the user email filter failed, keeping the previous one", e);
+        } finally {
+            building = null;
+            rebuildRequested.set(false);
+            rebuildLock.unlock();
+        }
+
+    }
+}
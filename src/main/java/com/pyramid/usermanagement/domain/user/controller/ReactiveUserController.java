@@ -0,0 +1,234 @@
+package com.pyramid.usermanagement.domain.user.controller;
+
+import com.pyramid.usermanagement.core.exceptions.NotImplementedException;
+import com.pyramid.usermanagement.domain.user.dto.BulkDeleteResultDTO;
+import com.pyramid.usermanagement.domain.user.dto.BulkImportResultDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserChangeEventDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserCreateDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserCursorPageDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserLookupDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserUpdateDTO;
+import com.pyramid.usermanagement.domain.user.services.ReactiveUserService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * The user API of the {@code reactive} profile: same paths, DTOs and status codes as {@link UserController}
+ * for the CRUD, listing, search, cursor and batch endpoints. List endpoints stream, a JSON array or NDJSON being
+ * written as rows arrive from the database.
+ * <p>
+ * Two endpoints are servlet-only and answered with 501: the bulk import ({@code POST /bulk}), which reads its
+ * body as a blocking stream, and the change feed ({@code GET /changes}), which holds a blocking outbox poller
+ * per connection. Either would pin a bounded elastic thread for as long as it runs.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@CrossOrigin
+@RequestMapping("/api/users")
+@Tag(name = "User Controller", description = "Endpoints for managing users")
+public class ReactiveUserController {
+
+    private final ReactiveUserService reactiveUserService;
+
+    public ReactiveUserController(ReactiveUserService reactiveUserService) {
+        this.reactiveUserService = reactiveUserService;
+    }
+
+    @PostMapping
+    @Operation(summary = "Create a new user", description = "Creates a new user with the provided details",
+                security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponse(responseCode = "201", description = "User created successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid input")
+    @ApiResponse(responseCode = "409", description = "Email already exists")
+    public Mono<ResponseEntity<UserDTO>> createUser(@Valid @RequestBody UserCreateDTO userCreateDTO) {
+        return reactiveUserService.createUser(userCreateDTO)
+                .map(createdUser -> new ResponseEntity<>(createdUser, HttpStatus.CREATED));
+    }
+
+    @PostMapping("/bulk")
+    @Operation(summary = "Import users in bulk", description = "Not served by the reactive profile",
+                security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponse(responseCode = "501", description = "Bulk import is only served by the servlet stack")
+    public Mono<BulkImportResultDTO> importUsers() {
+        return Mono.error(new NotImplementedException("Bulk import is not served by the reactive profile: ", "POST /api/users/bulk"));
+    }
+
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "Get all users",
+                description = "Streams every user, as a JSON array or (with Accept: application/x-ndjson) one row per line",
+                security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponse(responseCode = "200", description = "Successful operation")
+    public Flux<UserDTO> getAllUsers() {
+        return reactiveUserService.getAllUsers();
+    }
+
+    @GetMapping("/changes")
+    @Operation(summary = "Stream user changes", description = "Not served by the reactive profile",
+                security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponse(responseCode = "501", description = "The change feed is only served by the servlet stack")
+    public Flux<UserChangeEventDTO> streamChanges() {
+        return Flux.error(new NotImplementedException("The change feed is not served by the reactive profile: ", "GET /api/users/changes"));
+    }
+
+    @GetMapping("/paginated")
+    @Operation(summary = "Get users with pagination", description = "Returns a paginated list of users",
+                security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponse(responseCode = "200", description = "Successful operation")
+    @ApiResponse(responseCode = "304", description = "No user changed since the ETag in If-None-Match")
+    @ApiResponse(responseCode = "400", description = "Unknown sort property")
+    public Mono<ResponseEntity<Object>> getPaginatedUsers(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "asc") String direction,
+            @Parameter(description = "'page' for the slim {content, page} envelope") @RequestParam(required = false) String envelope,
+            ServerWebExchange exchange) {
+
+        Sort.Direction sortDirection = "desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return reactiveUserService.getAllUsersPaginated(PageRequest.of(page, size, Sort.by(sortDirection, sortBy)),
+                        version -> exchange.checkNotModified(UserHttpHeaders.listETag(version)))
+                .map(users -> users.page() == null
+                        ? ResponseEntity.status(HttpStatus.NOT_MODIFIED).varyBy(HttpHeaders.ACCEPT).build()
+                        : ResponseEntity.ok().eTag(UserHttpHeaders.listETag(users.version())).varyBy(HttpHeaders.ACCEPT)
+                                .body(UserPages.body(users.page(), envelope)));
+
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Search users",
+                description = "Matches the query against login, email and name (prefix, or anywhere from three characters on) "
+                        + "and returns the best matches first",
+                security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponse(responseCode = "200", description = "Successful operation")
+    @ApiResponse(responseCode = "400", description = "Blank query or page beyond the result window")
+    public Mono<Object> searchUsers(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "'page' for the slim {content, page} envelope") @RequestParam(required = false) String envelope) {
+        return reactiveUserService.searchUsers(q, PageRequest.of(page, size)).map(users -> UserPages.body(users, envelope));
+    }
+
+    @GetMapping("/cursor")
+    @Operation(summary = "Get users with keyset pagination",
+                description = "Returns the users following the given continuation cursor, without counting the table",
+                security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponse(responseCode = "200", description = "Successful operation")
+    @ApiResponse(responseCode = "400", description = "Invalid cursor, sort property or page size")
+    public Mono<UserCursorPageDTO> getUsersByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "asc") String direction) {
+
+        Sort.Direction sortDirection = "desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return reactiveUserService.getUsersByCursor(cursor, size, new Sort.Order(sortDirection, sortBy));
+
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get user by ID", description = "Returns a user based on the ID",
+                security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponse(responseCode = "200", description = "Successful operation")
+    @ApiResponse(responseCode = "304", description = "User not modified since If-None-Match / If-Modified-Since")
+    @ApiResponse(responseCode = "404", description = "User not found")
+    public Mono<ResponseEntity<UserDTO>> getUserById(@PathVariable Long id, ServerWebExchange exchange) {
+
+        return reactiveUserService.getUserById(id).map(user -> {
+            String eTag = UserHttpHeaders.userETag(user.version());
+            long lastModified = UserHttpHeaders.epochMillis(user.lastModifiedDate());
+            if (exchange.checkNotModified(eTag, lastModified < 0 ? null : Instant.ofEpochMilli(lastModified))) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).varyBy(HttpHeaders.ACCEPT).<UserDTO>build();
+            }
+            return ResponseEntity.ok().eTag(eTag).lastModified(lastModified).varyBy(HttpHeaders.ACCEPT).body(user);
+        });
+
+    }
+
+    @GetMapping("/by-email/{email}")
+    @Operation(summary = "Get user by email", description = "Returns a user based on the email",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponse(responseCode = "200", description = "Successful operation")
+    @ApiResponse(responseCode = "404", description = "User not found")
+    public Mono<UserDTO> getUserByEmail(@PathVariable String email) {
+        return reactiveUserService.getUserByEmail(email);
+    }
+
+    @PostMapping("/batch/by-id")
+    @Operation(summary = "Get users by IDs", description = "Resolves many IDs in one call; results follow the request order",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponse(responseCode = "200", description = "Successful operation, misses are flagged with found=false")
+    @ApiResponse(responseCode = "400", description = "Too many IDs")
+    public Mono<List<UserLookupDTO<Long>>> getUsersByIds(@RequestBody List<Long> ids) {
+        return reactiveUserService.getUsersByIds(ids);
+    }
+
+    @PostMapping("/batch/by-email")
+    @Operation(summary = "Get users by emails", description = "Resolves many emails in one call; results follow the request order",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponse(responseCode = "200", description = "Successful operation, misses are flagged with found=false")
+    @ApiResponse(responseCode = "400", description = "Too many emails")
+    public Mono<List<UserLookupDTO<String>>> getUsersByEmails(@RequestBody List<String> emails) {
+        return reactiveUserService.getUsersByEmails(emails);
+    }
+
+    @PostMapping("/batch/delete")
+    @Operation(summary = "Delete users by IDs",
+            description = "Deletes many users in one call, in chunks committed one after the other; IDs of no user are reported back",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponse(responseCode = "200", description = "Users deleted")
+    @ApiResponse(responseCode = "400", description = "Too many IDs")
+    @ApiResponse(responseCode = "409", description = "A user changed while its chunk was deleted; earlier chunks stay deleted")
+    public Mono<BulkDeleteResultDTO> deleteUsers(@RequestBody List<Long> ids) {
+        return reactiveUserService.deleteUsers(ids);
+    }
+
+    @PutMapping("{id}")
+    @Operation(summary = "Update a user", description = "Updates a user based on the ID",
+                security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponse(responseCode = "200", description = "User updated successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid input")
+    @ApiResponse(responseCode = "404", description = "User not found")
+    @ApiResponse(responseCode = "409", description = "Email already exists")
+    @ApiResponse(responseCode = "412", description = "User changed since the ETag in If-Match")
+    public Mono<ResponseEntity<UserDTO>> updateUser(@PathVariable Long id, @Valid @RequestBody UserUpdateDTO userUpdateDTO,
+                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+
+        Long expectedVersion = UserHttpHeaders.expectedVersion(ifMatch);
+        return reactiveUserService.updateUser(id, userUpdateDTO, expectedVersion)
+                .map(updatedUser -> ResponseEntity.ok()
+                        .eTag(UserHttpHeaders.userETag(updatedUser.version()))
+                        .varyBy(HttpHeaders.ACCEPT)
+                        .lastModified(UserHttpHeaders.epochMillis(updatedUser.lastModifiedDate()))
+                        .body(updatedUser));
+
+    }
+
+    @DeleteMapping("{id}")
+    @Operation(summary = "Delete a user", description = "Deletes a user based on the ID",
+                security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponse(responseCode = "204", description = "User deleted successfully")
+    @ApiResponse(responseCode = "404", description = "User not found")
+    public Mono<ResponseEntity<Void>> deleteUser(@PathVariable Long id) {
+        return reactiveUserService.deleteUser(id).then(Mono.fromSupplier(() -> ResponseEntity.noContent().<Void>build()));
+    }
+}
@@ -1,22 +1,45 @@
 package com.pyramid.usermanagement.domain.user.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.pyramid.usermanagement.domain.user.dto.BulkDeleteResultDTO;
+import com.pyramid.usermanagement.domain.user.dto.BulkImportResultDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserChangeEventDTO;
 import com.pyramid.usermanagement.domain.user.dto.UserCreateDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserCursorPageDTO;
 import com.pyramid.usermanagement.domain.user.dto.UserDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserListPageDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserLookupDTO;
 import com.pyramid.usermanagement.domain.user.dto.UserUpdateDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserVersionDTO;
+import com.pyramid.usermanagement.domain.user.services.UserChangeFeedService;
 import com.pyramid.usermanagement.domain.user.services.UserService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 /**
@@ -26,15 +49,20 @@ import java.util.List;
  * Project Name: user-management
  */
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @CrossOrigin
 @RequestMapping("/api/users")
 @Tag(name = "User Controller", description = "Endpoints for managing users")
 public class UserController {
 
     private final UserService userService;
+    private final UserChangeFeedService userChangeFeedService;
+    private final ObjectMapper objectMapper;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, UserChangeFeedService userChangeFeedService, ObjectMapper objectMapper) {
         this.userService = userService;
+        this.userChangeFeedService = userChangeFeedService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
@@ -50,6 +78,21 @@ public class UserController {
 
     }
 
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "Import users in bulk",
+                description = "Imports a JSON array or newline-delimited JSON stream of users and reports the outcome of every row",
+                security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponse(responseCode = "200", description = "Import processed, see per-row results")
+    public ResponseEntity<BulkImportResultDTO> importUsers(InputStream body) throws IOException {
+
+        // Rows are bound one at a time, whether the payload is a JSON array or NDJSON
+        try (MappingIterator<UserCreateDTO> rows = objectMapper.readerFor(UserCreateDTO.class).readValues(body)) {
+            BulkImportResultDTO result = userService.importUsers(rows);
+            return ResponseEntity.ok(result);
+        }
+
+    }
+
     @GetMapping
     @Operation(summary = "Get all users", description = "Returns a list of all users",
                 security = @SecurityRequirement(name = "bearerAuth"))
@@ -61,19 +104,163 @@ public class UserController {
 
     }
 
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream all users", description = "Streams every user as newline-delimited JSON, one row at a time",
+                security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponse(responseCode = "200", description = "Successful operation")
+    public ResponseEntity<StreamingResponseBody> streamAllUsers() {
+
+        ObjectWriter writer = objectMapper.writerFor(UserDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.setRootValueSeparator(null);
+                userService.streamAllUsers(user -> {
+                    try {
+                        writer.writeValue(generator, user);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+
+    }
+
+    @GetMapping(value = "/changes", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream user changes",
+                description = "Streams the user changes committed after the given sequence number as newline-delimited JSON, "
+                        + "then keeps streaming new ones. Reconnect with the last sequence received to resume.",
+                security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponse(responseCode = "200", description = "Successful operation")
+    public ResponseEntity<StreamingResponseBody> streamChanges(
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "0") long limit) {
+
+        ObjectWriter writer = objectMapper.writerFor(UserChangeEventDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = changeStream(after, limit, (generator, event) -> {
+            writer.writeValue(generator, event);
+            generator.writeRaw('\n');
+        });
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+
+    }
+
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream user changes as server-sent events",
+                description = "Same feed as the NDJSON variant; each event carries its sequence number as id, "
+                        + "so EventSource clients resume through Last-Event-ID",
+                security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponse(responseCode = "200", description = "Successful operation")
+    public ResponseEntity<StreamingResponseBody> streamChangeEvents(
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "0") long limit,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+
+        ObjectWriter writer = objectMapper.writerFor(UserChangeEventDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = changeStream(lastEventId != null ? lastEventId : after, limit, (generator, event) -> {
+            generator.writeRaw("id: " + event.sequence() + "\nevent: " + event.type() + "\ndata: ");
+            writer.writeValue(generator, event);
+            generator.writeRaw("\n\n");
+        });
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .body(body);
+
+    }
+
+    private interface ChangeEventWriter {
+        void write(JsonGenerator generator, UserChangeEventDTO event) throws IOException;
+    }
+
+    // Each batch is flushed as a whole; a blocked socket holds back the next read (backpressure)
+    private StreamingResponseBody changeStream(long after, long limit, ChangeEventWriter eventWriter) {
+        return outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.setRootValueSeparator(null);
+                userChangeFeedService.streamChanges(after, limit, batch -> {
+                    try {
+                        for (UserChangeEventDTO event : batch) {
+                            eventWriter.write(generator, event);
+                        }
+                        generator.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+    }
+
     @GetMapping("/paginated")
     @Operation(summary = "Get users with pagination", description = "Returns a paginated list of users",
                 security = @SecurityRequirement(name = "bearerAuth"))
     @ApiResponse(responseCode = "200", description = "Successful operation")
-    public ResponseEntity<Page<UserDTO>> getPaginatedUsers(
+    @ApiResponse(responseCode = "304", description = "No user changed since the ETag in If-None-Match")
+    public ResponseEntity<Object> getPaginatedUsers(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "id") String sortBy,
-            @RequestParam(defaultValue = "asc") String direction) {
+            @RequestParam(defaultValue = "asc") String direction,
+            @Parameter(description = "'page' for the slim {content, page} envelope") @RequestParam(required = false) String envelope,
+            WebRequest request, HttpServletResponse response) {
 
         Sort.Direction sortDirection = "desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, sortBy));
-        Page<UserDTO> users = userService.getAllUsersPaginated(pageable);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        UserListPageDTO users = userService.getAllUsersPaginated(pageable,
+                version -> request.checkNotModified(UserHttpHeaders.listETag(version)));
+        if (users.page() == null) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(UserHttpHeaders.listETag(users.version())).body(UserPages.body(users.page(), envelope));
+
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Search users",
+                description = "Matches the query against login, email and name (prefix, or anywhere from three characters on) "
+                        + "and returns the best matches first",
+                security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponse(responseCode = "200", description = "Successful operation")
+    @ApiResponse(responseCode = "400", description = "Blank query or page beyond the result window")
+    public ResponseEntity<Object> searchUsers(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "'page' for the slim {content, page} envelope") @RequestParam(required = false) String envelope) {
+
+        Page<UserDTO> users = userService.searchUsers(q, PageRequest.of(page, size));
+        return ResponseEntity.ok(UserPages.body(users, envelope));
+
+    }
+
+    @GetMapping("/cursor")
+    @Operation(summary = "Get users with keyset pagination",
+                description = "Returns the users following the given continuation cursor, without counting the table",
+                security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponse(responseCode = "200", description = "Successful operation")
+    @ApiResponse(responseCode = "400", description = "Invalid cursor, sort property or page size")
+    public ResponseEntity<UserCursorPageDTO> getUsersByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "asc") String direction) {
+
+        Sort.Direction sortDirection = "desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        UserCursorPageDTO users = userService.getUsersByCursor(cursor, size, new Sort.Order(sortDirection, sortBy));
         return ResponseEntity.ok(users);
 
     }
@@ -82,11 +269,26 @@ public class UserController {
     @Operation(summary = "Get user by ID", description = "Returns a user based on the ID",
                 security = @SecurityRequirement(name = "bearerAuth"))
     @ApiResponse(responseCode = "200", description = "Succeful operation")
+    @ApiResponse(responseCode = "304", description = "User not modified since If-None-Match / If-Modified-Since")
     @ApiResponse(responseCode = "404", description = "User not found")
-    public ResponseEntity<UserDTO> getUserById(@PathVariable Long id) {
+    public ResponseEntity<UserDTO> getUserById(@PathVariable Long id, WebRequest request, HttpServletResponse response) {
+
+        // Set before any 304 is written: the ETag names the version, not the format it is sent in
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        // Conditional requests are answered from the version stamp: no row fetch and no serialization when unchanged
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null) {
+            UserVersionDTO version = userService.getUserVersion(id);
+            if (request.checkNotModified(UserHttpHeaders.userETag(version.version()),
+                    UserHttpHeaders.epochMillis(version.lastModifiedDate()))) {
+                return null;
+            }
+        }
 
         UserDTO user = userService.getUserById(id);
-        return ResponseEntity.ok(user);
+        return ResponseEntity.ok()
+                .eTag(UserHttpHeaders.userETag(user.version()))
+                .lastModified(UserHttpHeaders.epochMillis(user.lastModifiedDate()))
+                .body(user);
 
     }
 
@@ -102,6 +304,44 @@ public class UserController {
 
     }
 
+    @PostMapping("/batch/by-id")
+    @Operation(summary = "Get users by IDs", description = "Resolves many IDs in one call; results follow the request order",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponse(responseCode = "200", description = "Successful operation, misses are flagged with found=false")
+    @ApiResponse(responseCode = "400", description = "Too many IDs")
+    public ResponseEntity<List<UserLookupDTO<Long>>> getUsersByIds(@RequestBody List<Long> ids) {
+
+        List<UserLookupDTO<Long>> users = userService.getUsersByIds(ids);
+        return ResponseEntity.ok(users);
+
+    }
+
+    @PostMapping("/batch/by-email")
+    @Operation(summary = "Get users by emails", description = "Resolves many emails in one call; results follow the request order",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponse(responseCode = "200", description = "Successful operation, misses are flagged with found=false")
+    @ApiResponse(responseCode = "400", description = "Too many emails")
+    public ResponseEntity<List<UserLookupDTO<String>>> getUsersByEmails(@RequestBody List<String> emails) {
+
+        List<UserLookupDTO<String>> users = userService.getUsersByEmails(emails);
+        return ResponseEntity.ok(users);
+
+    }
+
+    @PostMapping("/batch/delete")
+    @Operation(summary = "Delete users by IDs",
+            description = "Deletes many users in one call, in chunks committed one after the other; IDs of no user are reported back",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponse(responseCode = "200", description = "Users deleted")
+    @ApiResponse(responseCode = "400", description = "Too many IDs")
+    @ApiResponse(responseCode = "409", description = "A user changed while its chunk was deleted; earlier chunks stay deleted")
+    public ResponseEntity<BulkDeleteResultDTO> deleteUsers(@RequestBody List<Long> ids) {
+
+        BulkDeleteResultDTO result = userService.deleteUsers(ids);
+        return ResponseEntity.ok(result);
+
+    }
+
     @PutMapping("{id}")
     @Operation(summary = "Update a user", description = "Returns a user based on the email",
                 security = @SecurityRequirement(name = "beareAuth"))
@@ -109,9 +349,15 @@ public class UserController {
     @ApiResponse(responseCode = "400", description = "Invalid input")
     @ApiResponse(responseCode = "404", description = "User not found")
     @ApiResponse(responseCode = "409", description = "Email already exists")
-    public ResponseEntity<UserDTO> updateUser(@PathVariable Long id, @Valid @RequestBody UserUpdateDTO userUpdateDTO) {
-        UserDTO updatedUser = userService.updateUser(id, userUpdateDTO);
-        return ResponseEntity.ok(updatedUser);
+    @ApiResponse(responseCode = "412", description = "User changed since the ETag in If-Match")
+    public ResponseEntity<UserDTO> updateUser(@PathVariable Long id, @Valid @RequestBody UserUpdateDTO userUpdateDTO,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        UserDTO updatedUser = userService.updateUser(id, userUpdateDTO, UserHttpHeaders.expectedVersion(ifMatch));
+        return ResponseEntity.ok()
+                .eTag(UserHttpHeaders.userETag(updatedUser.version()))
+                .varyBy(HttpHeaders.ACCEPT)
+                .lastModified(UserHttpHeaders.epochMillis(updatedUser.lastModifiedDate()))
+                .body(updatedUser);
     }
 
     @DeleteMapping("{id}")
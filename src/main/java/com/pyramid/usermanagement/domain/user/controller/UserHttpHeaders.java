@@ -0,0 +1,48 @@
+package com.pyramid.usermanagement.domain.user.controller;
+
+import com.pyramid.usermanagement.core.exceptions.PreconditionFailedException;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Validator headers of the user resource, shared by the servlet and reactive controllers: the ETag is the
+ * optimistic-lock version, and that of a listing the last outbox sequence number. JSON, Smile and CBOR bodies of
+ * one version carry the same tag, so every response with one also sends {@code Vary: Accept}.
+ */
+final class UserHttpHeaders {
+
+    private UserHttpHeaders() {
+    }
+
+    static String userETag(Long version) {
+        return version == null ? null : "\"" + version + "\"";
+    }
+
+    // Weak: the page is the same whatever its format or content coding, and Tomcat only compresses weakly tagged responses
+    static String listETag(long version) {
+        return "W/\"" + version + "\"";
+    }
+
+    static long epochMillis(LocalDateTime dateTime) {
+        return dateTime == null ? -1 : dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    // If-Match uses strong comparison, so weak or malformed tags can never match
+    static Long expectedVersion(String ifMatch) {
+
+        if (ifMatch == null || ifMatch.isBlank() || "*".equals(ifMatch.trim())) {
+            return null;
+        }
+        String eTag = ifMatch.trim();
+        if (eTag.length() < 3 || !eTag.startsWith("\"") || !eTag.endsWith("\"")) {
+            throw new PreconditionFailedException("If-Match must be a single strong ETag of the user: " + ifMatch);
+        }
+        try {
+            return Long.valueOf(eTag.substring(1, eTag.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException("If-Match must be a single strong ETag of the user: " + ifMatch);
+        }
+
+    }
+}
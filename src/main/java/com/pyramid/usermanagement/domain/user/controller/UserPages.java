@@ -0,0 +1,21 @@
+package com.pyramid.usermanagement.domain.user.controller;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.web.PagedModel;
+
+/**
+ * Page bodies, shared by the servlet and reactive controllers. A page keeps the shape it has always had, Spring
+ * Data's {@code PageImpl} with its {@code pageable} and {@code sort}, unless the client asks for the slim envelope
+ * with {@code envelope=page}: {@code {content, page: {size, number, totalElements, totalPages}}}.
+ */
+final class UserPages {
+
+    static final String SLIM_ENVELOPE = "page";
+
+    private UserPages() {
+    }
+
+    static Object body(Page<?> page, String envelope) {
+        return SLIM_ENVELOPE.equals(envelope) ? new PagedModel<>(page) : page;
+    }
+}
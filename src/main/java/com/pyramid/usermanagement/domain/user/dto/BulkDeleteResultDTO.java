@@ -0,0 +1,10 @@
+package com.pyramid.usermanagement.domain.user.dto;
+
+import java.util.List;
+
+public record BulkDeleteResultDTO(
+        int requested,
+        int deleted,
+        List<Long> notFound
+) {
+}
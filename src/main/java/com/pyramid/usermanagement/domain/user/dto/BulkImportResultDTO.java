@@ -0,0 +1,12 @@
+package com.pyramid.usermanagement.domain.user.dto;
+
+import java.util.List;
+
+public record BulkImportResultDTO(
+        int total,
+        int created,
+        int duplicates,
+        int invalid,
+        List<BulkImportRowDTO> rows
+) {
+}
@@ -0,0 +1,15 @@
+package com.pyramid.usermanagement.domain.user.dto;
+
+public record BulkImportRowDTO(
+        int index,
+        Status status,
+        Long id,
+        String message
+) {
+
+    public enum Status {
+        CREATED,
+        DUPLICATE,
+        INVALID
+    }
+}
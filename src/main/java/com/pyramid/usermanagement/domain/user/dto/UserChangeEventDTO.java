@@ -0,0 +1,19 @@
+package com.pyramid.usermanagement.domain.user.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.pyramid.usermanagement.domain.user.events.UserChangedEvent;
+
+import java.time.LocalDateTime;
+
+/**
+ * One entry of the user change feed; {@code user} is the stored JSON, written through without re-parsing.
+ */
+public record UserChangeEventDTO(
+        Long sequence,
+        UserChangedEvent.ChangeType type,
+        Long userId,
+        LocalDateTime occurredAt,
+        @JsonRawValue
+        String user
+) {
+}
@@ -0,0 +1,11 @@
+package com.pyramid.usermanagement.domain.user.dto;
+
+import java.util.List;
+
+public record UserCursorPageDTO(
+        List<UserDTO> content,
+        int size,
+        boolean hasNext,
+        String nextCursor
+) {
+}
@@ -1,5 +1,6 @@
 package com.pyramid.usermanagement.domain.user.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 
@@ -14,6 +15,11 @@ public record UserDTO(
         @NotBlank(message = "Email is required")
         @Email(message = "Email should be valid")
         String email,
-        LocalDateTime createdDate
+        LocalDateTime createdDate,
+        // Validators for conditional requests, sent as ETag / Last-Modified headers rather than in the body
+        @JsonIgnore
+        LocalDateTime lastModifiedDate,
+        @JsonIgnore
+        Long version
 ) {
 }
@@ -0,0 +1,13 @@
+package com.pyramid.usermanagement.domain.user.dto;
+
+import org.springframework.data.domain.Page;
+
+/**
+ * A page of the user listing with the listing version it was read at; {@code page} is null when the caller
+ * already holds that version.
+ */
+public record UserListPageDTO(
+        long version,
+        Page<UserDTO> page
+) {
+}
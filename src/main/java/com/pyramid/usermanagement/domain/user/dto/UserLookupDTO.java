@@ -0,0 +1,11 @@
+package com.pyramid.usermanagement.domain.user.dto;
+
+/**
+ * Outcome of one key of a batch lookup; {@code user} is null when {@code found} is false.
+ */
+public record UserLookupDTO<K>(
+        K key,
+        boolean found,
+        UserDTO user
+) {
+}
@@ -0,0 +1,13 @@
+package com.pyramid.usermanagement.domain.user.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Version stamp of a single user, enough to answer a conditional request without loading the user.
+ */
+public record UserVersionDTO(
+        Long id,
+        Long version,
+        LocalDateTime lastModifiedDate
+) {
+}
@@ -0,0 +1,33 @@
+package com.pyramid.usermanagement.domain.user.events;
+
+import com.pyramid.usermanagement.domain.user.dto.UserDTO;
+
+/**
+ * Published by the user service inside the writing transaction.
+ * {@code before} is null for creations and {@code after} is null for deletions.
+ */
+public record UserChangedEvent(
+        ChangeType type,
+        Long userId,
+        UserDTO before,
+        UserDTO after
+) {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    public static UserChangedEvent created(UserDTO user) {
+        return new UserChangedEvent(ChangeType.CREATED, user.Id(), null, user);
+    }
+
+    public static UserChangedEvent updated(UserDTO before, UserDTO after) {
+        return new UserChangedEvent(ChangeType.UPDATED, after.Id(), before, after);
+    }
+
+    public static UserChangedEvent deleted(UserDTO user) {
+        return new UserChangedEvent(ChangeType.DELETED, user.Id(), user, null);
+    }
+}
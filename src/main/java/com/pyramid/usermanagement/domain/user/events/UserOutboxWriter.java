@@ -0,0 +1,126 @@
+package com.pyramid.usermanagement.domain.user.events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.pyramid.usermanagement.domain.user.dto.UserDTO;
+import com.pyramid.usermanagement.domain.user.model.UserOutboxCounter;
+import com.pyramid.usermanagement.domain.user.model.UserOutboxEvent;
+import com.pyramid.usermanagement.domain.user.repository.UserOutboxCounterRepository;
+import com.pyramid.usermanagement.domain.user.repository.UserOutboxRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Appends every {@link UserChangedEvent} to the outbox inside the writing transaction, so that an event
+ * exists if and only if its change was committed.
+ * <p>
+ * Events are held until the transaction commits and only then numbered, from the {@link UserOutboxCounter} row,
+ * which stays locked until the commit completes. Sequence numbers therefore become visible in the order they
+ * were assigned, across instances too, and a rolled-back transaction takes none: the change feed never sees a
+ * gap that may still fill. The price is that writing transactions commit one at a time, for as long as it takes
+ * to insert their events and commit.
+ */
+@Component
+public class UserOutboxWriter implements SmartInitializingSingleton {
+
+    private final UserOutboxRepository outboxRepository;
+    private final UserOutboxCounterRepository counterRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectWriter userWriter;
+
+    public UserOutboxWriter(UserOutboxRepository outboxRepository, UserOutboxCounterRepository counterRepository,
+                            EntityManager entityManager, PlatformTransactionManager transactionManager, ObjectMapper objectMapper) {
+        this.outboxRepository = outboxRepository;
+        this.counterRepository = counterRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.userWriter = objectMapper.writerFor(UserDTO.class);
+    }
+
+    // Before any request can write: the counter starts after the events already in the outbox
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!counterRepository.existsById(UserOutboxCounter.ID)) {
+                    counterRepository.save(new UserOutboxCounter(outboxRepository.findLastSequenceNumber()));
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Another instance created it first
+        }
+    }
+
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onUserChanged(UserChangedEvent event) {
+
+        UserOutboxEvent outboxEvent = new UserOutboxEvent();
+        outboxEvent.setType(event.type());
+        outboxEvent.setUserId(event.userId());
+        outboxEvent.setPayload(toJson(event.after() != null ? event.after() : event.before()));
+        outboxEvent.setOccurredAt(LocalDateTime.now());
+        pendingEvents().add(outboxEvent);
+
+    }
+
+    private List<UserOutboxEvent> pendingEvents() {
+
+        @SuppressWarnings("unchecked")
+        List<UserOutboxEvent> pending = (List<UserOutboxEvent>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<UserOutboxEvent> events = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, events);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    append(events);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(UserOutboxWriter.this);
+                }
+            });
+            pending = events;
+        }
+        return pending;
+
+    }
+
+    private void append(List<UserOutboxEvent> events) {
+
+        UserOutboxCounter counter = counterRepository.findForUpdate(UserOutboxCounter.ID)
+                .orElseThrow(() -> new IllegalStateException("The user outbox counter is missing"));
+        long sequence = counter.getLastSequence();
+        for (UserOutboxEvent event : events) {
+            event.setSequenceNumber(++sequence);
+            entityManager.persist(event);
+        }
+        counter.setLastSequence(sequence);
+
+    }
+
+    private String toJson(UserDTO user) {
+        try {
+            return userWriter.writeValueAsString(user);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize user " + user.Id(), e);
+        }
+    }
+}
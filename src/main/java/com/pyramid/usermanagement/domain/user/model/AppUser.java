@@ -7,6 +7,7 @@ import lombok.*;
 import org.hibernate.proxy.HibernateProxy;
 
 import java.time.LocalDateTime;
+import java.util.Locale;
 import java.util.Objects;
 
 
@@ -18,15 +19,23 @@ import java.util.Objects;
  */
 @Entity
 @Table(name = "users", uniqueConstraints= {
-        @UniqueConstraint(columnNames = "email")
+        @UniqueConstraint(name = "uk_users_email_key", columnNames = "emailKey")
+}, indexes = {
+        @Index(name = "idx_users_email_id", columnList = "email, id"),
+        @Index(name = "idx_users_login_id", columnList = "login, id"),
+        @Index(name = "idx_users_name_id", columnList = "name, id"),
+        @Index(name = "idx_users_created_date_id", columnList = "createdDate, id"),
+        @Index(name = "idx_users_last_modified_date", columnList = "lastModifiedDate")
 })
 @Getter
 @Setter
 @NoArgsConstructor
 public class AppUser {
 
+    // A pooled sequence (rather than IDENTITY) lets Hibernate batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Login is required")
@@ -39,11 +48,41 @@ public class AppUser {
 
     @NotBlank(message = "Email is required")
     @Email(message = "Email should be valid")
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String email;
 
+    // Case-normalized email: the uniqueness constraint and every lookup by email use this column (rows from before
+    // it are keyed at startup, ahead of the schema update)
+    @Setter(AccessLevel.NONE)
+    @Column(nullable = false)
+    private String emailKey;
+
+    // Never null: it is a keyset pagination key (rows from before the constraint are backfilled at startup)
+    @Column(nullable = false)
     private LocalDateTime createdDate;
 
+    private LocalDateTime lastModifiedDate;
+
+    // Optimistic-lock version, also the ETag of the user resource
+    @Version
+    private Long version;
+
+    @PrePersist
+    void defaultCreatedDate() {
+        if (createdDate == null) {
+            createdDate = LocalDateTime.now();
+        }
+    }
+
+    public static String normalizeEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+        this.emailKey = normalizeEmail(email);
+    }
+
     @Override
     public final boolean equals(Object o) {
         if (this == o) return true;
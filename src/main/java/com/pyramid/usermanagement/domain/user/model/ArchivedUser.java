@@ -0,0 +1,62 @@
+package com.pyramid.usermanagement.domain.user.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * A user moved out of {@code users} by the lifecycle job, as it was when archived. It keeps its id; its email is
+ * free to be taken by a new user, so {@code emailKey} is indexed but not unique. Rows are written and expired in
+ * {@code archivedAt} order.
+ */
+@Entity
+@Table(name = "users_archive", indexes = {
+        @Index(name = "idx_users_archive_archived_at", columnList = "archivedAt"),
+        @Index(name = "idx_users_archive_email_key", columnList = "emailKey")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class ArchivedUser {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private String login;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(nullable = false)
+    private String email;
+
+    @Column(nullable = false)
+    private String emailKey;
+
+    private LocalDateTime createdDate;
+
+    private LocalDateTime lastModifiedDate;
+
+    private Long version;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+
+    public static ArchivedUser of(AppUser user, LocalDateTime archivedAt) {
+        ArchivedUser archived = new ArchivedUser();
+        archived.setId(user.getId());
+        archived.setLogin(user.getLogin());
+        archived.setName(user.getName());
+        archived.setEmail(user.getEmail());
+        archived.setEmailKey(user.getEmailKey());
+        archived.setCreatedDate(user.getCreatedDate());
+        archived.setLastModifiedDate(user.getLastModifiedDate());
+        archived.setVersion(user.getVersion());
+        archived.setArchivedAt(archivedAt);
+        return archived;
+    }
+}
@@ -0,0 +1,32 @@
+package com.pyramid.usermanagement.domain.user.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * The last sequence number handed to an outbox event: a single row, locked by each writing transaction from
+ * the moment it numbers its events until it commits.
+ */
+@Entity
+@Table(name = "user_outbox_counter")
+@Getter
+@Setter
+@NoArgsConstructor
+public class UserOutboxCounter {
+
+    public static final long ID = 1;
+
+    @Id
+    private Long id;
+
+    private long lastSequence;
+
+    public UserOutboxCounter(long lastSequence) {
+        this.id = ID;
+        this.lastSequence = lastSequence;
+    }
+}
@@ -0,0 +1,38 @@
+package com.pyramid.usermanagement.domain.user.model;
+
+import com.pyramid.usermanagement.domain.user.events.UserChangedEvent;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * A user change, appended in the transaction that made it and read back by the change feed in
+ * {@code sequenceNumber} order. {@code payload} is the user as JSON: its new state, or its last state
+ * for a deletion. Sequence numbers are assigned as the transaction commits, from {@link UserOutboxCounter}.
+ */
+@Entity
+@Table(name = "user_outbox")
+@Getter
+@Setter
+@NoArgsConstructor
+public class UserOutboxEvent {
+
+    @Id
+    private Long sequenceNumber;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private UserChangedEvent.ChangeType type;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false, length = 4000)
+    private String payload;
+
+    @Column(nullable = false)
+    private LocalDateTime occurredAt;
+}
@@ -0,0 +1,11 @@
+package com.pyramid.usermanagement.domain.user.repository;
+
+import com.pyramid.usermanagement.domain.user.model.ArchivedUser;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+@Transactional(readOnly = true)
+public interface ArchivedUserRepository extends JpaRepository<ArchivedUser, Long> {
+}
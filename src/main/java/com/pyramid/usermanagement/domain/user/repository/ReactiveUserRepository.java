@@ -0,0 +1,117 @@
+package com.pyramid.usermanagement.domain.user.repository;
+
+import com.pyramid.usermanagement.core.exceptions.InvalidRequestException;
+import com.pyramid.usermanagement.domain.user.dto.UserDTO;
+import io.r2dbc.spi.Readable;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Non-blocking reads of the {@code users} table over R2DBC, mapped straight to {@link UserDTO}. The table
+ * itself is owned by the JPA mapping of {@code AppUser}; this class only reads it.
+ */
+@Repository
+public class ReactiveUserRepository {
+
+    private static final String SELECT_DTO =
+            "select id, login, name, email, created_date, last_modified_date, version from users";
+
+    // Sort properties of UserDTO that may be ordered on, and their columns
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "id", "id",
+            "login", "login",
+            "name", "name",
+            "email", "email",
+            "createdDate", "created_date",
+            "lastModifiedDate", "last_modified_date");
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveUserRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Mono<UserDTO> findDtoById(Long id) {
+        return databaseClient.sql(SELECT_DTO + " where id = :id")
+                .bind("id", id)
+                .map(ReactiveUserRepository::toDto)
+                .one();
+    }
+
+    // Takes keys normalized with AppUser.normalizeEmail
+    public Mono<UserDTO> findDtoByEmailKey(String emailKey) {
+        return databaseClient.sql(SELECT_DTO + " where email_key = :emailKey")
+                .bind("emailKey", emailKey)
+                .map(ReactiveUserRepository::toDto)
+                .one();
+    }
+
+    /**
+     * Every user in id order, fetched as the subscriber requests them.
+     */
+    public Flux<UserDTO> findAllDtos() {
+        return databaseClient.sql(SELECT_DTO + " order by id")
+                .map(ReactiveUserRepository::toDto)
+                .all();
+    }
+
+    /**
+     * @throws InvalidRequestException if the page is sorted on anything but a {@link UserDTO} property
+     */
+    public Flux<UserDTO> findDtoPage(Pageable pageable) {
+        // Deferred so that a bad sort is signalled as is, not translated like a data access failure of this @Repository
+        return Flux.defer(() -> databaseClient.sql(SELECT_DTO + orderBy(pageable.getSort()) + " limit :limit offset :offset")
+                .bind("limit", pageable.getPageSize())
+                .bind("offset", pageable.getOffset())
+                .map(ReactiveUserRepository::toDto)
+                .all());
+    }
+
+    public Mono<Long> count() {
+        return databaseClient.sql("select count(*) from users")
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    /**
+     * The last outbox sequence number, which every committed change to the users raises: the listing's version.
+     */
+    public Mono<Long> findLastOutboxSequence() {
+        return databaseClient.sql("select last_sequence from user_outbox_counter where id = 1")
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .defaultIfEmpty(0L);
+    }
+
+    private static String orderBy(Sort sort) {
+
+        if (sort.isUnsorted()) {
+            return " order by id";
+        }
+        // Columns come from the whitelist, never from the request, and id breaks ties for stable pages
+        return sort.stream()
+                .map(order -> {
+                    String column = SORT_COLUMNS.get(order.getProperty());
+                    if (column == null) {
+                        throw new InvalidRequestException("Cannot sort users by ", order.getProperty());
+                    }
+                    return column + (order.isAscending() ? " asc" : " desc");
+                })
+                .collect(Collectors.joining(", ", " order by ", ", id"));
+
+    }
+
+    private static UserDTO toDto(Readable row) {
+        return new UserDTO(row.get("id", Long.class), row.get("login", String.class), row.get("name", String.class),
+                row.get("email", String.class), row.get("created_date", LocalDateTime.class),
+                row.get("last_modified_date", LocalDateTime.class), row.get("version", Long.class));
+    }
+}
@@ -0,0 +1,28 @@
+package com.pyramid.usermanagement.domain.user.repository;
+
+import com.pyramid.usermanagement.domain.user.model.UserOutboxCounter;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface UserOutboxCounterRepository extends JpaRepository<UserOutboxCounter, Long> {
+
+    /**
+     * The counter, locked until the calling transaction ends.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from UserOutboxCounter c where c.id = :id")
+    Optional<UserOutboxCounter> findForUpdate(long id);
+
+    /**
+     * The last sequence number handed out, without waiting for a writer holding the lock: it grows with every
+     * committed change to the users, so it versions the whole listing.
+     */
+    @Query("select c.lastSequence from UserOutboxCounter c where c.id = :id")
+    Optional<Long> findLastSequence(long id);
+}
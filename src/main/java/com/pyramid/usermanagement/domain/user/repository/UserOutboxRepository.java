@@ -0,0 +1,26 @@
+package com.pyramid.usermanagement.domain.user.repository;
+
+import com.pyramid.usermanagement.domain.user.dto.UserChangeEventDTO;
+import com.pyramid.usermanagement.domain.user.model.UserOutboxEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+@Transactional(readOnly = true)
+public interface UserOutboxRepository extends JpaRepository<UserOutboxEvent, Long> {
+
+    /**
+     * The next events after {@code sequenceNumber}, in order, projected without loading entities.
+     */
+    @Query("select new com.pyramid.usermanagement.domain.user.dto.UserChangeEventDTO(e.sequenceNumber, e.type, e.userId, e.occurredAt, e.payload)"
+            + " from UserOutboxEvent e where e.sequenceNumber > :sequenceNumber order by e.sequenceNumber")
+    List<UserChangeEventDTO> findEventsAfter(long sequenceNumber, Limit limit);
+
+    @Query("select coalesce(max(e.sequenceNumber), 0) from UserOutboxEvent e")
+    long findLastSequenceNumber();
+}
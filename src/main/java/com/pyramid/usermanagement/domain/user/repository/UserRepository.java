@@ -1,14 +1,142 @@
 package com.pyramid.usermanagement.domain.user.repository;
 
+import com.pyramid.usermanagement.domain.user.dto.UserDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserVersionDTO;
 import com.pyramid.usermanagement.domain.user.model.AppUser;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
+@Transactional(readOnly = true)
 public interface UserRepository extends JpaRepository<AppUser, Long> {
 
-    Optional<AppUser> findByEmail(String email);
-    boolean existsByEmail(String email);
+    /**
+     * Builds {@link UserDTO} straight from the result set: no managed entity, snapshot or dirty check.
+     */
+    String SELECT_DTO = "select new com.pyramid.usermanagement.domain.user.dto.UserDTO(u.id, u.login, u.name, u.email, u.createdDate, u.lastModifiedDate, u.version) from AppUser u";
+
+    // Email lookups take keys normalized with AppUser.normalizeEmail
+    boolean existsByEmailKey(String emailKey);
+
+    @Query("select u.emailKey from AppUser u where u.emailKey in :emailKeys")
+    Set<String> findExistingEmailKeys(Collection<String> emailKeys);
+
+    @Query(SELECT_DTO)
+    List<UserDTO> findAllDtos();
+
+    @Query(value = SELECT_DTO, countQuery = "select count(u) from AppUser u")
+    Page<UserDTO> findAllDtos(Pageable pageable);
+
+    @Query(SELECT_DTO + " where u.id = :id")
+    Optional<UserDTO> findDtoById(Long id);
+
+    @Query(SELECT_DTO + " where u.emailKey = :emailKey")
+    Optional<UserDTO> findDtoByEmailKey(String emailKey);
+
+    @Query("select new com.pyramid.usermanagement.domain.user.dto.UserVersionDTO(u.id, u.version, u.lastModifiedDate) from AppUser u where u.id = :id")
+    Optional<UserVersionDTO> findVersionById(Long id);
+
+    /**
+     * Unranked search, used while the in-memory search index is unavailable. {@code pattern} is a lowercased
+     * infix or prefix pattern, with {@code !} escaping literal {@code %}, {@code _} and {@code !}.
+     */
+    @Query(value = SELECT_DTO + " where lower(u.login) like :pattern escape '!' or u.emailKey like :pattern escape '!'"
+            + " or lower(u.name) like :pattern escape '!' order by u.id",
+            countQuery = "select count(u) from AppUser u where lower(u.login) like :pattern escape '!'"
+                    + " or u.emailKey like :pattern escape '!' or lower(u.name) like :pattern escape '!'")
+    Page<UserDTO> searchDtos(String pattern, Pageable pageable);
+
+    @Query(SELECT_DTO + " where u.id in :ids")
+    List<UserDTO> findDtosByIdIn(Collection<Long> ids);
+
+    @Query(SELECT_DTO + " where u.emailKey in :emailKeys")
+    List<UserDTO> findDtosByEmailKeyIn(Collection<String> emailKeys);
+
+    /**
+     * Keyset (seek) scrolling: continues strictly after the given position without OFFSET or count query.
+     * Only the columns of {@link KeysetRow} are selected.
+     */
+    Window<KeysetRow> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+    /**
+     * Keyset scrolling over the users created and last modified before {@code cutoff}: the candidates of the
+     * lifecycle job, walked along the {@code (createdDate, id)} index.
+     */
+    Window<AppUser> findByCreatedDateBeforeAndLastModifiedDateBefore(LocalDateTime createdBefore, LocalDateTime lastModifiedBefore,
+                                                                     ScrollPosition position, Sort sort, Limit limit);
+
+    /**
+     * Gives users stored without a creation date their last modification date, else {@code fallback}.
+     */
+    @Modifying
+    @Transactional
+    @Query("update AppUser u set u.createdDate = coalesce(u.lastModifiedDate, :fallback) where u.createdDate is null")
+    int backfillCreatedDates(LocalDateTime fallback);
+
+    /**
+     * Forward-only cursor over every user, fetched from the driver in bounded chunks.
+     * Must be consumed inside a transaction and closed by the caller.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_CACHEABLE, value = "false")
+    })
+    @Query(SELECT_DTO + " order by u.id")
+    Stream<UserDTO> streamAllDtos();
+
+    /**
+     * Forward-only cursor over every normalized email, with the same contract as {@link #streamAllDtos()}.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_CACHEABLE, value = "false")
+    })
+    @Query("select u.emailKey from AppUser u")
+    Stream<String> streamAllEmailKeys();
+
+    /**
+     * The columns of {@link UserDTO}, named after the entity properties: keyset scrolling selects the sort keys
+     * by property name, which {@code UserDTO.Id} does not match.
+     */
+    interface KeysetRow {
+
+        Long getId();
+
+        String getLogin();
+
+        String getName();
+
+        String getEmail();
+
+        LocalDateTime getCreatedDate();
+
+        LocalDateTime getLastModifiedDate();
+
+        Long getVersion();
+
+        default UserDTO toDto() {
+            return new UserDTO(getId(), getLogin(), getName(), getEmail(), getCreatedDate(), getLastModifiedDate(), getVersion());
+        }
+    }
 }
@@ -0,0 +1,579 @@
+package com.pyramid.usermanagement.domain.user.search;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram index over the lowercased login, email and name of every user.
+ * <p>
+ * Each user occupies a slot holding its three fields joined into one string, so verifying a candidate
+ * touches a single object. The posting list of a trigram holds, in ascending order, the slots whose fields
+ * contain it; queries of three characters or more intersect the lists of all their trigrams and verify the
+ * candidates. Shorter queries only match prefixes, which are indexed per field with leading pad characters
+ * and need no verification: one list per field is all there is to merge.
+ * <p>
+ * Slots are append-only so that posting lists stay sorted without being rewritten: an update takes a new
+ * slot and leaves the old one dead, and the index compacts itself once a fifth of its slots are dead.
+ * Reads share a lock; writes are exclusive.
+ */
+public final class UserSearchIndex {
+
+    public static final int MIN_INFIX_LENGTH = 3;
+
+    private static final char PAD = '\u0001';
+    private static final String PADDING = "" + PAD + PAD;
+    private static final char SEPARATOR = '\u0000';
+
+    // Field order is the tie-breaker between equally good matches
+    private static final int LOGIN = 0;
+    private static final int EMAIL = 1;
+    private static final int NAME = 2;
+    private static final int FIELDS = 3;
+
+    private static final int MATCH_EXACT = 0;
+    private static final int MATCH_PREFIX = 1;
+    private static final int MATCH_WORD_PREFIX = 2;
+    private static final int MATCH_INFIX = 3;
+    private static final int NO_MATCH = Integer.MAX_VALUE;
+
+    // Sort key of a match (smaller is better): match quality and field, value length, slot
+    private static final int SLOT_BITS = 38;
+    private static final long SLOT_MASK = (1L << SLOT_BITS) - 1;
+    private static final int LENGTH_BITS = 20;
+
+    // Prefix grams carry their field above the three characters, which take 48 bits
+    private static final int FIELD_SHIFT = 48;
+
+    // Rough JVM object sizes (compressed oops) used for the memory estimate
+    private static final long STRING_OVERHEAD = 40;
+    private static final long SLOT_BYTES = 8 + 4 + FIELDS * 4;
+    private static final long POSTINGS_OVERHEAD = 88;
+
+    private static final Postings EMPTY = new Postings();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private final SlotsById slotsById = new SlotsById();
+    private final BitSet dead = new BitSet();
+    private long[] ids = new long[1024];
+    private String[] docs = new String[1024];
+    private int[][] lengths = new int[FIELDS][1024];
+    private int slotCount;
+    private int liveCount;
+    private long stringBytes;
+    private long postingBytes;
+
+    /**
+     * Page of ranked matches: user ids best first, and how many users matched in total.
+     */
+    public record Hits(List<Long> ids, long total) {
+    }
+
+    public static String normalize(String value) {
+        return value == null ? "" : value.strip().toLowerCase(Locale.ROOT);
+    }
+
+    public void upsert(long id, String login, String name, String email) {
+
+        String[] values = new String[FIELDS];
+        values[LOGIN] = normalize(login);
+        values[EMAIL] = normalize(email);
+        values[NAME] = normalize(name);
+        String doc = values[LOGIN] + SEPARATOR + values[EMAIL] + SEPARATOR + values[NAME];
+
+        lock.writeLock().lock();
+        try {
+            int existing = slotsById.get(id);
+            if (existing >= 0) {
+                if (docs[existing].equals(doc)) {
+                    return;
+                }
+                kill(existing);
+            }
+            append(id, doc, values);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+    }
+
+    public void remove(long id) {
+
+        lock.writeLock().lock();
+        try {
+            int slot = slotsById.remove(id);
+            if (slot >= 0) {
+                kill(slot);
+                compactIfNeeded();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+    }
+
+    /**
+     * The {@code limit} best matches after skipping {@code offset}. Ranking: exact field match, then field
+     * prefix, then prefix of a word inside the field, then any infix (queries shorter than
+     * {@value #MIN_INFIX_LENGTH} characters only match prefixes); ties go to login, then email, then name,
+     * then to the shorter value and finally to the earlier indexed user.
+     */
+    public Hits search(String query, int offset, int limit) {
+
+        String q = normalize(query);
+        if (q.isEmpty() || limit <= 0) {
+            return new Hits(List.of(), 0);
+        }
+
+        lock.readLock().lock();
+        try {
+            TopK top = new TopK(offset + limit);
+            long total = q.length() < MIN_INFIX_LENGTH ? collectPrefixes(q, top) : collectInfixes(q, top);
+
+            long[] ranked = top.sorted();
+            Long[] page = new Long[Math.max(0, ranked.length - offset)];
+            for (int i = offset; i < ranked.length; i++) {
+                page[i - offset] = ids[(int) (ranked[i] & SLOT_MASK)];
+            }
+            return new Hits(List.of(page), total);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Approximate heap footprint of the index in bytes.
+     */
+    public long estimatedBytes() {
+        lock.readLock().lock();
+        try {
+            return stringBytes + postingBytes + (long) ids.length * SLOT_BYTES + slotsById.estimatedBytes()
+                    + dead.size() / 8;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Merges the per-field prefix lists; which lists hold a slot and the field lengths are enough to rank it
+    private long collectPrefixes(String q, TopK top) {
+
+        long prefixGram = gram(PADDING.substring(q.length() - 1) + q, 0);
+        Postings[] lists = new Postings[FIELDS];
+        int[] cursors = new int[FIELDS];
+        for (int field = 0; field < FIELDS; field++) {
+            lists[field] = postings.getOrDefault(prefixGram(field, prefixGram), EMPTY);
+        }
+
+        long total = 0;
+        while (true) {
+            int slot = Integer.MAX_VALUE;
+            for (int field = 0; field < FIELDS; field++) {
+                if (cursors[field] < lists[field].size) {
+                    slot = Math.min(slot, lists[field].slots[cursors[field]]);
+                }
+            }
+            if (slot == Integer.MAX_VALUE) {
+                return total;
+            }
+
+            int best = NO_MATCH;
+            int bestLength = 0;
+            for (int field = 0; field < FIELDS; field++) {
+                if (cursors[field] < lists[field].size && lists[field].slots[cursors[field]] == slot) {
+                    cursors[field]++;
+                    int length = lengths[field][slot];
+                    int score = (length == q.length() ? MATCH_EXACT : MATCH_PREFIX) * FIELDS + field;
+                    if (score < best) {
+                        best = score;
+                        bestLength = length;
+                    }
+                }
+            }
+            if (!dead.get(slot)) {
+                total++;
+                top.offer(rankKey(best, bestLength, slot));
+            }
+        }
+
+    }
+
+    // Intersects the trigram lists, shortest first, and verifies every candidate against its fields
+    private long collectInfixes(String q, TopK top) {
+
+        Postings[] lists = new Postings[q.length() - 2];
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = postings.get(gram(q, i));
+            if (lists[i] == null) {
+                return 0;
+            }
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+
+        long total = 0;
+        int[] cursors = new int[lists.length];
+        Postings shortest = lists[0];
+        candidates:
+        for (int i = 0; i < shortest.size; i++) {
+            int slot = shortest.slots[i];
+            if (dead.get(slot)) {
+                continue;
+            }
+            for (int l = 1; l < lists.length; l++) {
+                int found = lists[l].seek(cursors[l], slot);
+                if (found < 0) {
+                    cursors[l] = -found - 1;
+                    continue candidates;
+                }
+                cursors[l] = found + 1;
+            }
+            long rank = rank(slot, q);
+            if (rank >= 0) {
+                total++;
+                top.offer(rank);
+            }
+        }
+        return total;
+
+    }
+
+    private long rank(int slot, String q) {
+
+        String doc = docs[slot];
+        int best = NO_MATCH;
+        int bestLength = 0;
+        int start = 0;
+        for (int field = 0; field < FIELDS; field++) {
+            int length = lengths[field][slot];
+            int match = match(doc, start, length, q);
+            if (match != NO_MATCH && match * FIELDS + field < best) {
+                best = match * FIELDS + field;
+                bestLength = length;
+            }
+            start += length + 1;
+        }
+        return best == NO_MATCH ? -1 : rankKey(best, bestLength, slot);
+
+    }
+
+    // Best match of q within the field of doc spanning [start, start + length)
+    private static int match(String doc, int start, int length, String q) {
+
+        if (q.length() > length) {
+            return NO_MATCH;
+        }
+        if (doc.startsWith(q, start)) {
+            return q.length() == length ? MATCH_EXACT : MATCH_PREFIX;
+        }
+        int best = NO_MATCH;
+        int last = start + length - q.length();
+        for (int at = doc.indexOf(q, start + 1); at >= 0 && at <= last; at = doc.indexOf(q, at + 1)) {
+            if (!Character.isLetterOrDigit(doc.charAt(at - 1))) {
+                return MATCH_WORD_PREFIX;
+            }
+            best = MATCH_INFIX;
+        }
+        return best;
+
+    }
+
+    private static long rankKey(int score, int length, int slot) {
+        long cappedLength = Math.min(length, (1 << LENGTH_BITS) - 1);
+        return ((long) score << (SLOT_BITS + LENGTH_BITS)) | (cappedLength << SLOT_BITS) | slot;
+    }
+
+    private void append(long id, String doc, String[] values) {
+
+        int slot = slotCount++;
+        ensureCapacity(slotCount);
+        ids[slot] = id;
+        docs[slot] = doc;
+        stringBytes += STRING_OVERHEAD + doc.length();
+        for (int field = 0; field < FIELDS; field++) {
+            lengths[field][slot] = values[field].length();
+        }
+        for (long gram : gramsOf(values)) {
+            Postings list = postings.computeIfAbsent(gram, key -> {
+                postingBytes += POSTINGS_OVERHEAD;
+                return new Postings();
+            });
+            postingBytes += list.add(slot);
+        }
+        slotsById.put(id, slot);
+        liveCount++;
+
+    }
+
+    // Field-tagged prefix grams of every field, plus the plain trigrams inside them
+    private static Set<Long> gramsOf(String[] values) {
+        Set<Long> grams = new HashSet<>();
+        for (int field = 0; field < FIELDS; field++) {
+            String padded = PADDING + values[field];
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                grams.add(i < 2 ? prefixGram(field, gram(padded, i)) : gram(padded, i));
+            }
+        }
+        return grams;
+    }
+
+    private static long gram(String s, int at) {
+        return ((long) s.charAt(at) << 32) | ((long) s.charAt(at + 1) << 16) | s.charAt(at + 2);
+    }
+
+    private static long prefixGram(int field, long gram) {
+        return ((long) (field + 1) << FIELD_SHIFT) | gram;
+    }
+
+    private void kill(int slot) {
+        dead.set(slot);
+        liveCount--;
+        stringBytes -= STRING_OVERHEAD + docs[slot].length();
+        docs[slot] = null;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > ids.length) {
+            int newLength = Math.max(capacity, ids.length + (ids.length >> 1));
+            ids = Arrays.copyOf(ids, newLength);
+            docs = Arrays.copyOf(docs, newLength);
+            for (int field = 0; field < FIELDS; field++) {
+                lengths[field] = Arrays.copyOf(lengths[field], newLength);
+            }
+        }
+    }
+
+    // Rebuilds slots and posting lists from the live users once dead slots make up a fifth of the index
+    private void compactIfNeeded() {
+
+        int deadCount = slotCount - liveCount;
+        if (deadCount < 1024 || deadCount * 5 < slotCount) {
+            return;
+        }
+
+        long[] liveIds = new long[liveCount];
+        String[] liveDocs = new String[liveCount];
+        int next = 0;
+        for (int slot = dead.nextClearBit(0); slot < slotCount; slot = dead.nextClearBit(slot + 1)) {
+            liveIds[next] = ids[slot];
+            liveDocs[next] = docs[slot];
+            next++;
+        }
+
+        postings.clear();
+        slotsById.clear();
+        dead.clear();
+        ids = new long[1024];
+        docs = new String[1024];
+        lengths = new int[FIELDS][1024];
+        slotCount = 0;
+        liveCount = 0;
+        stringBytes = 0;
+        postingBytes = 0;
+
+        for (int i = 0; i < liveIds.length; i++) {
+            append(liveIds[i], liveDocs[i], liveDocs[i].split(String.valueOf(SEPARATOR), -1));
+        }
+
+    }
+
+    /**
+     * Growable, ascending list of slots.
+     */
+    private static final class Postings {
+
+        private int[] slots = new int[2];
+        private int size;
+
+        // Returns the bytes newly allocated
+        long add(int slot) {
+            long grown = 0;
+            if (size == slots.length) {
+                int newLength = slots.length + (slots.length >> 1) + 1;
+                grown = (long) (newLength - slots.length) * Integer.BYTES;
+                slots = Arrays.copyOf(slots, newLength);
+            }
+            slots[size++] = slot;
+            return grown;
+        }
+
+        // Index of slot at or after from, or -(insertion point) - 1; gallops since matches are usually near
+        int seek(int from, int slot) {
+            int bound = 1;
+            while (from + bound < size && slots[from + bound] < slot) {
+                bound <<= 1;
+            }
+            return Arrays.binarySearch(slots, from + (bound >> 1), Math.min(from + bound + 1, size), slot);
+        }
+    }
+
+    /**
+     * Bounded max-heap keeping the {@code capacity} smallest keys offered.
+     */
+    private static final class TopK {
+
+        private final long[] heap;
+        private int size;
+
+        TopK(int capacity) {
+            this.heap = new long[capacity];
+        }
+
+        void offer(long key) {
+            if (size < heap.length) {
+                heap[size] = key;
+                siftUp(size++);
+            } else if (key < heap[0]) {
+                heap[0] = key;
+                siftDown(0);
+            }
+        }
+
+        long[] sorted() {
+            long[] keys = Arrays.copyOf(heap, size);
+            Arrays.sort(keys);
+            return keys;
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (heap[parent] >= heap[i]) {
+                    return;
+                }
+                swap(parent, i);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int largest = i;
+                int left = 2 * i + 1;
+                int right = left + 1;
+                if (left < size && heap[left] > heap[largest]) {
+                    largest = left;
+                }
+                if (right < size && heap[right] > heap[largest]) {
+                    largest = right;
+                }
+                if (largest == i) {
+                    return;
+                }
+                swap(largest, i);
+                i = largest;
+            }
+        }
+
+        private void swap(int a, int b) {
+            long tmp = heap[a];
+            heap[a] = heap[b];
+            heap[b] = tmp;
+        }
+    }
+
+    /**
+     * Open-addressing map from user id to slot, without boxing.
+     */
+    private static final class SlotsById {
+
+        private long[] keys = new long[1024];
+        private int[] values = new int[1024];
+        private int size;
+
+        int get(long id) {
+            int mask = keys.length - 1;
+            for (int i = hash(id) & mask; values[i] != 0; i = (i + 1) & mask) {
+                if (keys[i] == id) {
+                    return values[i] - 1;
+                }
+            }
+            return -1;
+        }
+
+        void put(long id, int slot) {
+            if ((size + 1) * 2 > keys.length) {
+                resize();
+            }
+            int mask = keys.length - 1;
+            int i = hash(id) & mask;
+            while (values[i] != 0 && keys[i] != id) {
+                i = (i + 1) & mask;
+            }
+            if (values[i] == 0) {
+                size++;
+            }
+            keys[i] = id;
+            values[i] = slot + 1;
+        }
+
+        int remove(long id) {
+            int mask = keys.length - 1;
+            int i = hash(id) & mask;
+            while (values[i] != 0 && keys[i] != id) {
+                i = (i + 1) & mask;
+            }
+            if (values[i] == 0) {
+                return -1;
+            }
+            int slot = values[i] - 1;
+            size--;
+            // Backward-shift deletion keeps every probe sequence unbroken
+            int hole = i;
+            for (int j = (i + 1) & mask; values[j] != 0; j = (j + 1) & mask) {
+                int home = hash(keys[j]) & mask;
+                if (((j - home) & mask) >= ((j - hole) & mask)) {
+                    keys[hole] = keys[j];
+                    values[hole] = values[j];
+                    hole = j;
+                }
+            }
+            values[hole] = 0;
+            return slot;
+        }
+
+        void clear() {
+            keys = new long[1024];
+            values = new int[1024];
+            size = 0;
+        }
+
+        long estimatedBytes() {
+            return (long) keys.length * (Long.BYTES + Integer.BYTES);
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new int[oldValues.length * 2];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldValues[i] != 0) {
+                    put(oldKeys[i], oldValues[i] - 1);
+                }
+            }
+        }
+
+        private static int hash(long id) {
+            long h = id * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.pyramid.usermanagement.domain.user.search;
+
+import com.pyramid.usermanagement.domain.user.dto.UserDTO;
+import com.pyramid.usermanagement.domain.user.events.UserChangedEvent;
+import com.pyramid.usermanagement.domain.user.repository.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Owns the {@link UserSearchIndex}: builds it from the {@code users} table once the application is ready,
+ * then applies every committed user change to it.
+ * <p>
+ * Changes committed while the table is being read are queued and replayed afterwards; they carry the full
+ * new state, so replaying one the scan already saw is harmless. If the index grows past its memory budget
+ * it is dropped for good (until restart) and {@link #search} reports it as unavailable.
+ */
+@Slf4j
+@Component
+public class UserSearchIndexer {
+
+    private enum State {
+        BUILDING,
+        READY,
+        DISABLED
+    }
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+    private final long maxMemoryBytes;
+
+    private final ReentrantLock stateLock = new ReentrantLock();
+    private final List<UserChangedEvent> pendingChanges = new ArrayList<>();
+    private volatile State state;
+    private volatile UserSearchIndex index = new UserSearchIndex();
+
+    public UserSearchIndexer(UserRepository userRepository, PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.users.search.enabled:true}") boolean enabled,
+                             @Value("${app.users.search.maxMemory:512MB}") DataSize maxMemory) {
+        this.userRepository = userRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+        this.maxMemoryBytes = maxMemory.toBytes();
+        this.state = enabled ? State.BUILDING : State.DISABLED;
+
+        Gauge.builder("user.search.index.users", this, indexer -> indexer.currentIndex().map(UserSearchIndex::size).orElse(0))
+                .description("Users held by the in-memory search index")
+                .register(meterRegistry);
+        Gauge.builder("user.search.index.bytes", this, indexer -> indexer.currentIndex().map(UserSearchIndex::estimatedBytes).orElse(0L))
+                .description("Estimated heap used by the in-memory search index")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Ranked matches, or empty while the index is being built or once it has been disabled.
+     */
+    public Optional<UserSearchIndex.Hits> search(String query, int offset, int limit) {
+        return state == State.READY ? currentIndex().map(index -> index.search(query, offset, limit)) : Optional.empty();
+    }
+
+    public boolean isReady() {
+        return state == State.READY;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            Thread.ofPlatform().name("user-search-index").daemon().start(this::build);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        stateLock.lock();
+        try {
+            switch (state) {
+                case BUILDING -> pendingChanges.add(event);
+                case READY -> apply(event);
+                case DISABLED -> {
+                }
+            }
+        } finally {
+            stateLock.unlock();
+        }
+    }
+
+    private void build() {
+
+        long start = System.nanoTime();
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<UserDTO> users = userRepository.streamAllDtos()) {
+                    long indexed = 0;
+                    for (UserDTO user : (Iterable<UserDTO>) users::iterator) {
+                        index.upsert(user.Id(), user.login(), user.name(), user.email());
+                        // Checking the estimate locks the index, so only do it now and then
+                        if (++indexed % 10_000 == 0 && overBudget()) {
+                            return;
+                        }
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            log.error("Building the user search index failed, searches will use the database", e);
+            disable();
+            return;
+        }
+
+        UserSearchIndex built = index;
+        stateLock.lock();
+        try {
+            if (state != State.BUILDING || overBudget()) {
+                return;
+            }
+            List<UserChangedEvent> queued = List.copyOf(pendingChanges);
+            pendingChanges.clear();
+            queued.forEach(this::apply);
+            if (state == State.BUILDING) {
+                state = State.READY;
+            }
+        } finally {
+            stateLock.unlock();
+        }
+        log.info("User search index built: {} users, ~{} MB in {} ms", built.size(), built.estimatedBytes() >> 20,
+                (System.nanoTime() - start) / 1_000_000);
+
+    }
+
+    private void apply(UserChangedEvent event) {
+        UserSearchIndex current = index;
+        if (current == null) {
+            return;
+        }
+        if (event.before() != null && event.after() == null) {
+            current.remove(event.userId());
+        } else if (event.after() != null) {
+            UserDTO user = event.after();
+            current.upsert(user.Id(), user.login(), user.name(), user.email());
+        }
+        overBudget();
+    }
+
+    private boolean overBudget() {
+        UserSearchIndex current = index;
+        if (current == null || current.estimatedBytes() <= maxMemoryBytes) {
+            return false;
+        }
+        log.warn("User search index exceeds its {} MB budget and is dropped, searches will use the database",
+                maxMemoryBytes >> 20);
+        disable();
+        return true;
+    }
+
+    private void disable() {
+        stateLock.lock();
+        try {
+            state = State.DISABLED;
+            index = null;
+            pendingChanges.clear();
+        } finally {
+            stateLock.unlock();
+        }
+    }
+
+    private Optional<UserSearchIndex> currentIndex() {
+        return Optional.ofNullable(index);
+    }
+}
@@ -0,0 +1,38 @@
+package com.pyramid.usermanagement.domain.user.services;
+
+import com.pyramid.usermanagement.domain.user.dto.BulkDeleteResultDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserCreateDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserCursorPageDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserListPageDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserLookupDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserUpdateDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.function.LongPredicate;
+
+/**
+ * Non-blocking counterpart of {@link UserService}: same DTOs and errors, signalled instead of thrown.
+ */
+public interface ReactiveUserService {
+
+    Mono<UserDTO> createUser(UserCreateDTO userCreateDTO);
+    Flux<UserDTO> getAllUsers();
+    Mono<Page<UserDTO>> getAllUsersPaginated(Pageable pageable);
+    Mono<UserListPageDTO> getAllUsersPaginated(Pageable pageable, LongPredicate unchanged);
+    Mono<Page<UserDTO>> searchUsers(String query, Pageable pageable);
+    Mono<UserDTO> getUserById(Long id);
+    Mono<UserCursorPageDTO> getUsersByCursor(String cursor, int size, Sort.Order order);
+    Mono<UserDTO> getUserByEmail(String email);
+    Mono<List<UserLookupDTO<Long>>> getUsersByIds(List<Long> ids);
+    Mono<List<UserLookupDTO<String>>> getUsersByEmails(List<String> emails);
+    Mono<UserDTO> updateUser(Long id, UserUpdateDTO userUpdateDTO, Long expectedVersion);
+    Mono<Void> deleteUser(Long id);
+    Mono<BulkDeleteResultDTO> deleteUsers(List<Long> ids);
+
+}
@@ -0,0 +1,18 @@
+package com.pyramid.usermanagement.domain.user.services;
+
+import com.pyramid.usermanagement.domain.user.dto.UserChangeEventDTO;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface UserChangeFeedService {
+
+    /**
+     * Hands the changes committed after {@code after} to {@code sink} in sequence order, one batch at a time,
+     * waiting for new ones until {@code limit} events were delivered (0 for no limit), the stream's maximum
+     * duration elapsed, or the sink throws. The next batch is only read once the sink has returned.
+     */
+    void streamChanges(long after, long limit, Consumer<List<UserChangeEventDTO>> sink);
+    long getLastSequence();
+
+}
@@ -1,21 +1,41 @@
 package com.pyramid.usermanagement.domain.user.services;
 
+import com.pyramid.usermanagement.domain.user.dto.BulkDeleteResultDTO;
+import com.pyramid.usermanagement.domain.user.dto.BulkImportResultDTO;
 import com.pyramid.usermanagement.domain.user.dto.UserCreateDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserCursorPageDTO;
 import com.pyramid.usermanagement.domain.user.dto.UserDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserListPageDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserLookupDTO;
 import com.pyramid.usermanagement.domain.user.dto.UserUpdateDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserVersionDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.LongPredicate;
 
 public interface UserService {
 
     UserDTO createUser(UserCreateDTO userCreateDTO);
+    BulkImportResultDTO importUsers(Iterator<UserCreateDTO> rows);
     List<UserDTO> getAllUsers();
+    void streamAllUsers(Consumer<UserDTO> consumer);
     Page<UserDTO> getAllUsersPaginated(Pageable pageable);
+    UserListPageDTO getAllUsersPaginated(Pageable pageable, LongPredicate unchanged);
+    Page<UserDTO> searchUsers(String query, Pageable pageable);
+    UserCursorPageDTO getUsersByCursor(String cursor, int size, Sort.Order order);
     UserDTO getUserById(Long id);
+    UserVersionDTO getUserVersion(Long id);
     UserDTO getUserByEmail(String email);
+    List<UserLookupDTO<Long>> getUsersByIds(List<Long> ids);
+    List<UserLookupDTO<String>> getUsersByEmails(List<String> emails);
     UserDTO updateUser(Long id, UserUpdateDTO userUpdateDTO);
+    UserDTO updateUser(Long id, UserUpdateDTO userUpdateDTO, Long expectedVersion);
     void deleteUser(Long id);
+    BulkDeleteResultDTO deleteUsers(List<Long> ids);
 
 }
@@ -0,0 +1,136 @@
+package com.pyramid.usermanagement.domain.user.services.implement;
+
+import com.pyramid.usermanagement.core.exceptions.ResourceNotFoundException;
+import com.pyramid.usermanagement.domain.user.cache.UserCache;
+import com.pyramid.usermanagement.domain.user.dto.BulkDeleteResultDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserCreateDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserCursorPageDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserListPageDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserLookupDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserUpdateDTO;
+import com.pyramid.usermanagement.domain.user.model.AppUser;
+import com.pyramid.usermanagement.domain.user.repository.ReactiveUserRepository;
+import com.pyramid.usermanagement.domain.user.services.ReactiveUserService;
+import com.pyramid.usermanagement.domain.user.services.UserService;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.function.LongPredicate;
+
+/**
+ * Reads go to R2DBC and never block a thread. Writes and searches run the blocking {@link UserService} on the
+ * bounded elastic scheduler instead of being reimplemented: its transactions also write the outbox and feed
+ * the caches, the search index and the email filter, which a second, R2DBC write path would bypass. So do
+ * batch lookups and cursor pages, which go through the user cache and the keyset queries of the JPA side.
+ */
+@Service
+public class ReactiveUserServiceImpl implements ReactiveUserService {
+
+    private final ReactiveUserRepository reactiveUserRepository;
+    private final UserService userService;
+    private final UserCache userCache;
+
+    public ReactiveUserServiceImpl(ReactiveUserRepository reactiveUserRepository, UserService userService, UserCache userCache) {
+        this.reactiveUserRepository = reactiveUserRepository;
+        this.userService = userService;
+        this.userCache = userCache;
+    }
+
+    @Override
+    public Mono<UserDTO> createUser(UserCreateDTO userCreateDTO) {
+        return blocking(() -> userService.createUser(userCreateDTO));
+    }
+
+    @Override
+    public Flux<UserDTO> getAllUsers() {
+        return reactiveUserRepository.findAllDtos();
+    }
+
+    @Override
+    public Mono<Page<UserDTO>> getAllUsersPaginated(Pageable pageable) {
+
+        return reactiveUserRepository.findDtoPage(pageable).collectList()
+                .zipWith(reactiveUserRepository.count())
+                .map(pageAndTotal -> new PageImpl<>(pageAndTotal.getT1(), pageable, pageAndTotal.getT2()));
+
+    }
+
+    @Override
+    public Mono<UserListPageDTO> getAllUsersPaginated(Pageable pageable, LongPredicate unchanged) {
+
+        // Version first: the page read after it can only be newer
+        return reactiveUserRepository.findLastOutboxSequence().flatMap(version -> unchanged.test(version)
+                ? Mono.just(new UserListPageDTO(version, null))
+                : getAllUsersPaginated(pageable).map(page -> new UserListPageDTO(version, page)));
+
+    }
+
+    @Override
+    public Mono<Page<UserDTO>> searchUsers(String query, Pageable pageable) {
+        return blocking(() -> userService.searchUsers(query, pageable));
+    }
+
+    @Override
+    public Mono<UserDTO> getUserById(Long id) {
+
+        // Only a cached user is used; misses are not loaded into the cache, which is filled by the blocking reads
+        return Mono.justOrEmpty(userCache.peekById(id))
+                .switchIfEmpty(Mono.defer(() -> reactiveUserRepository.findDtoById(id)))
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("User not found with id: ", id)));
+
+    }
+
+    @Override
+    public Mono<UserCursorPageDTO> getUsersByCursor(String cursor, int size, Sort.Order order) {
+        return blocking(() -> userService.getUsersByCursor(cursor, size, order));
+    }
+
+    @Override
+    public Mono<UserDTO> getUserByEmail(String email) {
+
+        return reactiveUserRepository.findDtoByEmailKey(AppUser.normalizeEmail(email))
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("User not found with email: ", email)));
+
+    }
+
+    @Override
+    public Mono<List<UserLookupDTO<Long>>> getUsersByIds(List<Long> ids) {
+        return blocking(() -> userService.getUsersByIds(ids));
+    }
+
+    @Override
+    public Mono<List<UserLookupDTO<String>>> getUsersByEmails(List<String> emails) {
+        return blocking(() -> userService.getUsersByEmails(emails));
+    }
+
+    @Override
+    public Mono<UserDTO> updateUser(Long id, UserUpdateDTO userUpdateDTO, Long expectedVersion) {
+        return blocking(() -> userService.updateUser(id, userUpdateDTO, expectedVersion));
+    }
+
+    @Override
+    public Mono<Void> deleteUser(Long id) {
+        return blocking(() -> {
+            userService.deleteUser(id);
+            return null;
+        }).then();
+    }
+
+    @Override
+    public Mono<BulkDeleteResultDTO> deleteUsers(List<Long> ids) {
+        return blocking(() -> userService.deleteUsers(ids));
+    }
+
+    private static <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(Schedulers.boundedElastic());
+    }
+}
@@ -0,0 +1,133 @@
+package com.pyramid.usermanagement.domain.user.services.implement;
+
+import com.pyramid.usermanagement.domain.user.cache.UserEmailFilter;
+import com.pyramid.usermanagement.domain.user.dto.UserCreateDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserDTO;
+import com.pyramid.usermanagement.domain.user.events.UserChangedEvent;
+import com.pyramid.usermanagement.domain.user.model.AppUser;
+import com.pyramid.usermanagement.domain.user.model.ArchivedUser;
+import com.pyramid.usermanagement.domain.user.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Inserts a chunk of already validated users in a single transaction: one set-based uniqueness
+ * query for the emails of the chunk the {@link UserEmailFilter} cannot rule out, then batched inserts. An email
+ * taken meanwhile, or behind the filter's back, fails the chunk with a {@code DataIntegrityViolationException}.
+ * Deletes chunks the same way, for bulk deletion and the lifecycle job.
+ */
+@Component
+class UserBatchWriter {
+
+    private final UserRepository userRepository;
+    private final UserEmailFilter userEmailFilter;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+
+    UserBatchWriter(UserRepository userRepository, UserEmailFilter userEmailFilter, EntityManager entityManager,
+                    ApplicationEventPublisher eventPublisher) {
+        this.userRepository = userRepository;
+        this.userEmailFilter = userEmailFilter;
+        this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
+    }
+
+    record Row(int index, UserCreateDTO user) {
+    }
+
+    /**
+     * Outcome of one row: the created user, or null when its email was already taken.
+     */
+    record Written(Row row, UserDTO created) {
+    }
+
+    /**
+     * One {@link Written} per row, in row order.
+     */
+    @Transactional
+    public List<Written> insertChunk(List<Row> rows) {
+
+        Set<String> emailKeys = new HashSet<>();
+        for (Row row : rows) {
+            String emailKey = AppUser.normalizeEmail(row.user().email());
+            if (userEmailFilter.mightExist(emailKey)) {
+                emailKeys.add(emailKey);
+            }
+        }
+        Set<String> existingEmailKeys = emailKeys.isEmpty() ? Set.of() : userRepository.findExistingEmailKeys(emailKeys);
+
+        List<Written> results = new ArrayList<>(rows.size());
+        List<AppUser> users = new ArrayList<>(rows.size());
+        List<Row> insertedRows = new ArrayList<>(rows.size());
+        Set<String> seenEmailKeys = new HashSet<>();
+        LocalDateTime now = LocalDateTime.now();
+
+        for (Row row : rows) {
+            String email = row.user().email();
+            String emailKey = AppUser.normalizeEmail(email);
+            if (existingEmailKeys.contains(emailKey) || !seenEmailKeys.add(emailKey)) {
+                results.add(new Written(row, null));
+                continue;
+            }
+
+            AppUser user = new AppUser();
+            user.setCreatedDate(now);
+            user.setLastModifiedDate(now);
+            user.setLogin(row.user().login());
+            user.setName(row.user().name());
+            user.setEmail(email);
+            users.add(user);
+            insertedRows.add(row);
+        }
+
+        // Ids are assigned on save, so events (and their outbox rows) go out before the single flush
+        userRepository.saveAll(users);
+        for (int i = 0; i < users.size(); i++) {
+            UserDTO created = UserServiceImpl.convertEntityToDTO(users.get(i));
+            results.add(new Written(insertedRows.get(i), created));
+            eventPublisher.publishEvent(UserChangedEvent.created(created));
+        }
+        // Through the repository, so that an email taken since the query surfaces as a DataIntegrityViolationException
+        userRepository.flush();
+        results.sort(Comparator.comparingInt(written -> written.row().index()));
+
+        // Keep the persistence context from growing across chunks
+        entityManager.clear();
+        return results;
+    }
+
+    /**
+     * Deletes a chunk of users loaded in the caller's transaction, copying each to the archive first when
+     * {@code archive} is set, and returns them as they were. Deletes carry the version that was read: a user
+     * changed in the meantime fails the chunk with an optimistic locking failure instead of being removed unseen.
+     */
+    @Transactional
+    public List<UserDTO> deleteChunk(List<AppUser> users, boolean archive) {
+
+        List<UserDTO> deleted = new ArrayList<>(users.size());
+        LocalDateTime now = LocalDateTime.now();
+        for (AppUser user : users) {
+            if (archive) {
+                entityManager.persist(ArchivedUser.of(user, now));
+            }
+            entityManager.remove(user);
+            UserDTO deletedUser = UserServiceImpl.convertEntityToDTO(user);
+            deleted.add(deletedUser);
+            eventPublisher.publishEvent(UserChangedEvent.deleted(deletedUser));
+        }
+        // Through the repository, so that a version conflict surfaces as an OptimisticLockingFailureException
+        userRepository.flush();
+        entityManager.clear();
+        return deleted;
+
+    }
+}
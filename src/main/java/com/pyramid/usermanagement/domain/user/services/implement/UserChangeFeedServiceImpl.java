@@ -0,0 +1,201 @@
+package com.pyramid.usermanagement.domain.user.services.implement;
+
+import com.pyramid.usermanagement.domain.user.dto.UserChangeEventDTO;
+import com.pyramid.usermanagement.domain.user.events.UserChangedEvent;
+import com.pyramid.usermanagement.domain.user.repository.UserOutboxRepository;
+import com.pyramid.usermanagement.domain.user.services.UserChangeFeedService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Tails the user outbox. Each stream reads at most {@code batchSize} events per query and only reads the
+ * next batch once the previous one was written out, so a slow consumer slows its own reads instead of
+ * buffering. Idle streams sleep until a change commits (or {@code pollInterval} passes, for writers in other
+ * instances) rather than polling the table.
+ * <p>
+ * Sequence numbers are assigned as changes commit, one transaction at a time (see {@code UserOutboxWriter}),
+ * so they become visible in order and without gaps. A gap can only come from outbox rows written before that
+ * numbering, or removed by hand: it holds later events back until {@code gapTimeout} has passed and is then
+ * skipped, logged and counted as {@code user.changes.gaps.skipped}.
+ */
+@Slf4j
+@Service
+public class UserChangeFeedServiceImpl implements UserChangeFeedService {
+
+    private final UserOutboxRepository outboxRepository;
+    private final int batchSize;
+    private final long pollIntervalNanos;
+    private final long gapTimeoutNanos;
+    private final long maxStreamDurationNanos;
+    private final Counter dispatchedEvents;
+    private final Counter skippedGaps;
+    private final AtomicInteger activeStreams;
+
+    private final AtomicLong commits = new AtomicLong();
+    private final ReentrantLock commitLock = new ReentrantLock();
+    private final Condition committed = commitLock.newCondition();
+
+    public UserChangeFeedServiceImpl(UserOutboxRepository outboxRepository, MeterRegistry meterRegistry,
+                                     @Value("${app.users.changes.batchSize:500}") int batchSize,
+                                     @Value("${app.users.changes.pollInterval:PT1S}") Duration pollInterval,
+                                     @Value("${app.users.changes.gapTimeout:PT2S}") Duration gapTimeout,
+                                     @Value("${app.users.changes.maxStreamDuration:PT5M}") Duration maxStreamDuration) {
+        this.outboxRepository = outboxRepository;
+        this.batchSize = batchSize;
+        this.pollIntervalNanos = pollInterval.toNanos();
+        this.gapTimeoutNanos = gapTimeout.toNanos();
+        this.maxStreamDurationNanos = maxStreamDuration.toNanos();
+        this.dispatchedEvents = Counter.builder("user.changes.dispatched")
+                .description("Change events written to change feed consumers")
+                .register(meterRegistry);
+        this.skippedGaps = Counter.builder("user.changes.gaps.skipped")
+                .description("Missing change feed sequence numbers given up on after the gap timeout")
+                .register(meterRegistry);
+        this.activeStreams = meterRegistry.gauge("user.changes.streams", new AtomicInteger());
+    }
+
+    @Override
+    public void streamChanges(long after, long limit, Consumer<List<UserChangeEventDTO>> sink) {
+
+        long deadline = System.nanoTime() + maxStreamDurationNanos;
+        long remaining = limit > 0 ? limit : Long.MAX_VALUE;
+        Position position = new Position(after);
+
+        activeStreams.incrementAndGet();
+        try {
+            while (remaining > 0 && System.nanoTime() - deadline < 0) {
+                // Read the commit count first: a commit landing during the query then cuts the wait short
+                long seenCommits = commits.get();
+                int requested = (int) Math.min(batchSize, remaining);
+                List<UserChangeEventDTO> batch = outboxRepository.findEventsAfter(position.sequence, Limit.of(requested));
+                long from = position.sequence;
+                List<UserChangeEventDTO> ready = position.advance(batch, System.nanoTime(), gapTimeoutNanos);
+                countSkippedGaps(from, ready);
+
+                if (!ready.isEmpty()) {
+                    sink.accept(ready);
+                    dispatchedEvents.increment(ready.size());
+                    remaining -= ready.size();
+                }
+                if (ready.size() == requested) {
+                    continue;
+                }
+
+                long wait = Math.min(pollIntervalNanos, deadline - System.nanoTime());
+                if (ready.size() < batch.size()) {
+                    wait = Math.min(wait, position.gapDeadline(gapTimeoutNanos) - System.nanoTime());
+                }
+                if (!awaitCommit(seenCommits, wait)) {
+                    return;
+                }
+            }
+        } finally {
+            activeStreams.decrementAndGet();
+        }
+
+    }
+
+    private void countSkippedGaps(long previous, List<UserChangeEventDTO> ready) {
+
+        for (UserChangeEventDTO event : ready) {
+            // Nothing is missing before the first event of a stream read from the beginning
+            if (previous != 0 && event.sequence() != previous + 1) {
+                skippedGaps.increment();
+                log.warn("Change feed skipped missing sequence numbers {} to {}", previous + 1, event.sequence() - 1);
+            }
+            previous = event.sequence();
+        }
+
+    }
+
+    @Override
+    public long getLastSequence() {
+        return outboxRepository.findLastSequenceNumber();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        commits.incrementAndGet();
+        commitLock.lock();
+        try {
+            committed.signalAll();
+        } finally {
+            commitLock.unlock();
+        }
+    }
+
+    // False when interrupted, which ends the stream
+    private boolean awaitCommit(long seenCommits, long nanos) {
+        commitLock.lock();
+        try {
+            while (commits.get() == seenCommits && nanos > 0) {
+                nanos = committed.awaitNanos(nanos);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            commitLock.unlock();
+        }
+    }
+
+    /**
+     * Last delivered sequence number of one stream, and since when it has been waiting on a gap after it.
+     */
+    static final class Position {
+
+        long sequence;
+        private boolean waitingOnGap;
+        private long gapSince;
+
+        Position(long sequence) {
+            this.sequence = sequence;
+        }
+
+        /**
+         * The events of {@code batch} that can be delivered now: the contiguous run after {@link #sequence},
+         * extended over gaps older than {@code gapTimeoutNanos}.
+         */
+        List<UserChangeEventDTO> advance(List<UserChangeEventDTO> batch, long now, long gapTimeoutNanos) {
+
+            List<UserChangeEventDTO> ready = new ArrayList<>(batch.size());
+            for (UserChangeEventDTO event : batch) {
+                // Nothing can be missing before the first event of a stream read from the beginning
+                boolean contiguous = sequence == 0 || event.sequence() == sequence + 1;
+                if (!contiguous) {
+                    if (!waitingOnGap) {
+                        waitingOnGap = true;
+                        gapSince = now;
+                    }
+                    if (now - gapSince < gapTimeoutNanos) {
+                        break;
+                    }
+                }
+                waitingOnGap = false;
+                ready.add(event);
+                sequence = event.sequence();
+            }
+            return ready;
+
+        }
+
+        long gapDeadline(long gapTimeoutNanos) {
+            return gapSince + gapTimeoutNanos;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.pyramid.usermanagement.domain.user.services.implement;
+
+import com.pyramid.usermanagement.domain.user.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Gives a creation date to the users stored before {@code createdDate} became mandatory, before any request is
+ * served: cursor pagination seeks on it and a {@code NULL} key would be encoded as no position and skipped by
+ * the comparison. Schema updates do not tighten existing columns, so the column itself may still accept
+ * {@code NULL}; every new user gets a date from {@code AppUser}.
+ */
+@Slf4j
+@Component
+class UserCreatedDateBackfill implements SmartInitializingSingleton {
+
+    private final UserRepository userRepository;
+
+    UserCreatedDateBackfill(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        int backfilled = userRepository.backfillCreatedDates(LocalDateTime.now());
+        if (backfilled > 0) {
+            log.info("Backfilled the creation date of {} users", backfilled);
+        }
+    }
+}
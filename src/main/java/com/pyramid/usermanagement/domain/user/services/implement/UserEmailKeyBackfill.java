@@ -0,0 +1,109 @@
+package com.pyramid.usermanagement.domain.user.services.implement;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Gives an email key to the users stored before {@code emailKey} existed, before Hibernate's schema update adds
+ * the column as {@code NOT NULL} with the {@code uk_users_email_key} constraint: a table of legacy rows would
+ * reject both. Runs on plain JDBC, ahead of the entity manager factory, and does nothing on a new database.
+ * <p>
+ * The key is {@code lower(trim(email))}. Emails that differ only in case were allowed then and are not now: the
+ * oldest user of each such group gets the key, and the others {@code <key>#<id>}, which no email can equal. They
+ * stay readable by id and are logged, to be merged or given a new email by hand.
+ */
+@Slf4j
+@Component
+class UserEmailKeyBackfill implements InitializingBean {
+
+    private static final String KEY_UNIQUE_EMAILS = """
+            update users u set email_key = lower(trim(u.email))
+            where u.email_key is null and not exists (
+                select 1 from users o where o.id <> u.id and (o.email_key = lower(trim(u.email))
+                    or (o.email_key is null and lower(trim(o.email)) = lower(trim(u.email)) and o.id < u.id)))
+            """;
+    private static final String KEY_DUPLICATES = "update users set email_key = concat(lower(trim(email)), '#', id) where email_key is null";
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+
+    UserEmailKeyBackfill(DataSource dataSource) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+
+        EmailKeyColumn column = JdbcUtils.extractDatabaseMetaData(dataSource, UserEmailKeyBackfill::emailKeyColumn);
+        if (column == EmailKeyColumn.NO_TABLE || column == EmailKeyColumn.NOT_NULL) {
+            return;
+        }
+        if (column == EmailKeyColumn.MISSING) {
+            jdbcTemplate.execute("alter table users add column email_key varchar(255)");
+        }
+
+        int keyed = jdbcTemplate.update(KEY_UNIQUE_EMAILS);
+        List<Long> duplicates = jdbcTemplate.queryForList("select id from users where email_key is null order by id", Long.class);
+        jdbcTemplate.update(KEY_DUPLICATES);
+        jdbcTemplate.execute("alter table users alter column email_key set not null");
+
+        if (keyed > 0) {
+            log.info("Backfilled the email key of {} users", keyed);
+        }
+        if (!duplicates.isEmpty()) {
+            log.warn("Users {} share their email with an older user up to case; they can only be found by id until merged", duplicates);
+        }
+
+    }
+
+    private static EmailKeyColumn emailKeyColumn(DatabaseMetaData metaData) throws SQLException {
+
+        // In the connection's schema only: H2 has a USERS table of its own in INFORMATION_SCHEMA
+        String schema = metaData.getConnection().getSchema();
+        String table = identifier(metaData, "users");
+        try (ResultSet tables = metaData.getTables(null, schema, table, new String[]{"TABLE"})) {
+            if (!tables.next()) {
+                return EmailKeyColumn.NO_TABLE;
+            }
+        }
+        try (ResultSet columns = metaData.getColumns(null, schema, table, identifier(metaData, "email_key"))) {
+            if (!columns.next()) {
+                return EmailKeyColumn.MISSING;
+            }
+            return columns.getInt("NULLABLE") == DatabaseMetaData.columnNoNulls ? EmailKeyColumn.NOT_NULL : EmailKeyColumn.NULLABLE;
+        }
+
+    }
+
+    private static String identifier(DatabaseMetaData metaData, String name) throws SQLException {
+        return metaData.storesUpperCaseIdentifiers() ? name.toUpperCase(Locale.ROOT) : name;
+    }
+
+    private enum EmailKeyColumn {
+        NO_TABLE, MISSING, NULLABLE, NOT_NULL
+    }
+
+    // Hibernate's schema update runs as the entity manager factory starts
+    @Configuration(proxyBeanMethods = false)
+    static class BeforeSchemaUpdate {
+
+        @Bean
+        static EntityManagerFactoryDependsOnPostProcessor userEmailKeyBackfillFirst() {
+            return new EntityManagerFactoryDependsOnPostProcessor(UserEmailKeyBackfill.class);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.pyramid.usermanagement.domain.user.services.implement;
+
+import com.pyramid.usermanagement.core.exceptions.InvalidRequestException;
+import com.pyramid.usermanagement.domain.user.dto.UserDTO;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Opaque continuation token for keyset pagination: the sort key and id of the last row of a window,
+ * bound to the ordering it was produced with.
+ */
+record UserKeysetCursor(String sortBy, Sort.Direction direction, Long id, Object sortValue) {
+
+    static final Set<String> SORTABLE_PROPERTIES = Set.of("id", "login", "name", "email", "createdDate");
+
+    private static final String VERSION = "v1";
+    private static final String SEPARATOR = "|";
+
+    static UserKeysetCursor after(UserDTO user, Sort.Order order) {
+        Object sortValue = switch (order.getProperty()) {
+            case "login" -> user.login();
+            case "name" -> user.name();
+            case "email" -> user.email();
+            case "createdDate" -> user.createdDate();
+            default -> user.Id();
+        };
+        return new UserKeysetCursor(order.getProperty(), order.getDirection(), user.Id(), sortValue);
+    }
+
+    static UserKeysetCursor decode(String token) {
+
+        String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Invalid cursor");
+        }
+
+        // The sort value comes last so that it may itself contain the separator
+        String[] parts = decoded.split(Pattern.quote(SEPARATOR), 5);
+        if (parts.length != 5 || !VERSION.equals(parts[0]) || !SORTABLE_PROPERTIES.contains(parts[1])) {
+            throw new InvalidRequestException("Invalid cursor");
+        }
+
+        try {
+            Long id = Long.valueOf(parts[3]);
+            Object sortValue = switch (parts[1]) {
+                case "id" -> id;
+                case "createdDate" -> LocalDateTime.parse(parts[4]);
+                default -> parts[4];
+            };
+            return new UserKeysetCursor(parts[1], Sort.Direction.fromString(parts[2]), id, sortValue);
+        } catch (RuntimeException e) {
+            throw new InvalidRequestException("Invalid cursor");
+        }
+    }
+
+    String encode() {
+        String raw = String.join(SEPARATOR, VERSION, sortBy, direction.name(), String.valueOf(id), String.valueOf(sortValue));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    boolean matches(Sort.Order order) {
+        return sortBy.equals(order.getProperty()) && direction == order.getDirection();
+    }
+
+    ScrollPosition toScrollPosition() {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put(sortBy, sortValue);
+        keys.put("id", id);
+        return ScrollPosition.forward(keys);
+    }
+}
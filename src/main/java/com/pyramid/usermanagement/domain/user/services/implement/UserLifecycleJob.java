@@ -0,0 +1,237 @@
+package com.pyramid.usermanagement.domain.user.services.implement;
+
+import com.pyramid.usermanagement.domain.user.dto.UserDTO;
+import com.pyramid.usermanagement.domain.user.model.AppUser;
+import com.pyramid.usermanagement.domain.user.repository.UserRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Retires inactive users: every {@code runInterval}, the users created and last modified more than
+ * {@code inactiveAfter} ago are moved to {@code users_archive} ({@code ARCHIVE}) or deleted ({@code PURGE}),
+ * oldest first. They are walked by keyset along the {@code (createdDate, id)} index, so no run rescans the
+ * rows it already removed, and retired in chunks of {@code chunkSize}, one short transaction each: row locks
+ * last a chunk at most. Deletions take the same path as through the API, with change feed events and cache and
+ * search index updates.
+ * <p>
+ * The job yields to online traffic: it pauses {@code chunkPause} between chunks, and for as long as requests
+ * are waiting for a primary connection. A chunk in which a user changed meanwhile is rolled back and read again,
+ * without that user, who is no longer inactive. Progress is published as {@code user.lifecycle.users} by action,
+ * {@code user.lifecycle.chunks} by outcome, {@code user.lifecycle.backoffs}, the {@code user.lifecycle.chunk}
+ * timer and {@code user.lifecycle.run.users}, the users retired by the current or last run.
+ */
+@Slf4j
+@Component
+public class UserLifecycleJob {
+
+    public enum Action {
+        ARCHIVE,
+        PURGE
+    }
+
+    private static final Sort OLDEST_FIRST = Sort.by("createdDate", "id");
+    private static final int MAX_CONSECUTIVE_CONFLICTS = 3;
+    private static final long MIN_BACKOFF_MILLIS = 10;
+
+    private final UserRepository userRepository;
+    private final UserBatchWriter userBatchWriter;
+    private final HikariDataSource primaryDataSource;
+    private final TransactionTemplate chunkTransaction;
+    private final boolean enabled;
+    private final Action action;
+    private final String outcome;
+    private final Duration inactiveAfter;
+    private final Duration runInterval;
+    private final int chunkSize;
+    private final Duration chunkPause;
+    private final Counter retiredUsers;
+    private final Counter committedChunks;
+    private final Counter conflictedChunks;
+    private final Counter failedChunks;
+    private final Counter backoffs;
+    private final Timer chunkTimer;
+
+    private final ReentrantLock runLock = new ReentrantLock();
+    private final AtomicLong runUsers = new AtomicLong();
+    private ScheduledExecutorService runs;
+
+    public UserLifecycleJob(UserRepository userRepository, UserBatchWriter userBatchWriter, HikariDataSource primaryDataSource,
+                            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                            @Value("${app.users.lifecycle.enabled:false}") boolean enabled,
+                            @Value("${app.users.lifecycle.action:ARCHIVE}") Action action,
+                            @Value("${app.users.lifecycle.inactiveAfter:P730D}") Duration inactiveAfter,
+                            @Value("${app.users.lifecycle.runInterval:PT1H}") Duration runInterval,
+                            @Value("${app.users.lifecycle.chunkSize:500}") int chunkSize,
+                            @Value("${app.users.lifecycle.chunkPause:PT0.1S}") Duration chunkPause) {
+        this.userRepository = userRepository;
+        this.userBatchWriter = userBatchWriter;
+        this.primaryDataSource = primaryDataSource;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.action = action;
+        this.outcome = action == Action.ARCHIVE ? "archived" : "purged";
+        this.inactiveAfter = inactiveAfter;
+        this.runInterval = runInterval;
+        this.chunkSize = chunkSize;
+        this.chunkPause = chunkPause;
+
+        this.retiredUsers = Counter.builder("user.lifecycle.users")
+                .description("Inactive users retired by the lifecycle job")
+                .tag("action", outcome)
+                .register(meterRegistry);
+        this.committedChunks = chunkCounter(meterRegistry, "committed");
+        this.conflictedChunks = chunkCounter(meterRegistry, "conflict");
+        this.failedChunks = chunkCounter(meterRegistry, "failed");
+        this.backoffs = Counter.builder("user.lifecycle.backoffs")
+                .description("Pauses of the lifecycle job while requests were waiting for a database connection")
+                .register(meterRegistry);
+        this.chunkTimer = Timer.builder("user.lifecycle.chunk")
+                .description("Duration of a lifecycle job chunk, that is of its transaction")
+                .register(meterRegistry);
+        Gauge.builder("user.lifecycle.run.users", runUsers, AtomicLong::get)
+                .description("Users retired by the current or last lifecycle run")
+                .register(meterRegistry);
+    }
+
+    private static Counter chunkCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("user.lifecycle.chunks")
+                .description("Lifecycle job chunks, by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            runs = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("user-lifecycle").daemon().factory());
+            runs.scheduleWithFixedDelay(this::scheduledRun, runInterval.toMillis(), runInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (runs != null) {
+            runs.shutdownNow();
+        }
+    }
+
+    // An exception escaping a scheduled task would cancel every later run
+    private void scheduledRun() {
+        try {
+            runOnce();
+        } catch (RuntimeException e) {
+            log.warn("User lifecycle run failed, retrying in {}", runInterval, e);
+        }
+    }
+
+    /**
+     * Retires the users inactive as of now and returns how many were retired; 0 when a run is already in progress.
+     */
+    public long runOnce() {
+
+        if (!runLock.tryLock()) {
+            return 0;
+        }
+        try {
+            LocalDateTime cutoff = LocalDateTime.now().minus(inactiveAfter);
+            long started = System.nanoTime();
+            runUsers.set(0);
+            ScrollPosition position = ScrollPosition.keyset();
+            int conflicts = 0;
+
+            while (true) {
+                awaitIdlePool();
+                ScrollPosition from = position;
+                Chunk chunk;
+                try {
+                    chunk = chunkTimer.record(() -> retireChunk(cutoff, from));
+                } catch (OptimisticLockingFailureException e) {
+                    conflictedChunks.increment();
+                    if (++conflicts == MAX_CONSECUTIVE_CONFLICTS) {
+                        log.info("User lifecycle run stopped after {} conflicting chunks in a row", conflicts);
+                        break;
+                    }
+                    continue;
+                } catch (RuntimeException e) {
+                    failedChunks.increment();
+                    throw e;
+                }
+                conflicts = 0;
+                committedChunks.increment();
+                retiredUsers.increment(chunk.retired());
+                runUsers.addAndGet(chunk.retired());
+                if (chunk.next() == null) {
+                    break;
+                }
+                position = chunk.next();
+                Thread.sleep(chunkPause.toMillis());
+            }
+
+            if (runUsers.get() > 0) {
+                log.info("User lifecycle run: {} users inactive since {} {} in {} ms", runUsers.get(), cutoff, outcome,
+                        (System.nanoTime() - started) / 1_000_000);
+            }
+            return runUsers.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return runUsers.get();
+        } finally {
+            runLock.unlock();
+        }
+
+    }
+
+    /**
+     * Users retired by a chunk, and the position after it, null after the last one.
+     */
+    private record Chunk(int retired, ScrollPosition next) {
+    }
+
+    private Chunk retireChunk(LocalDateTime cutoff, ScrollPosition position) {
+        return chunkTransaction.execute(status -> {
+            Window<AppUser> window = userRepository.findByCreatedDateBeforeAndLastModifiedDateBefore(cutoff, cutoff, position,
+                    OLDEST_FIRST, Limit.of(chunkSize));
+            if (window.isEmpty()) {
+                return new Chunk(0, null);
+            }
+            ScrollPosition next = window.hasNext() ? window.positionAt(window.size() - 1) : null;
+            List<UserDTO> retired = userBatchWriter.deleteChunk(window.getContent(), action == Action.ARCHIVE);
+            return new Chunk(retired.size(), next);
+        });
+    }
+
+    // Online requests waiting for a connection come first
+    private void awaitIdlePool() throws InterruptedException {
+        HikariPoolMXBean pool = primaryDataSource.getHikariPoolMXBean();
+        while (pool != null && pool.getThreadsAwaitingConnection() > 0) {
+            backoffs.increment();
+            Thread.sleep(Math.max(chunkPause.toMillis(), MIN_BACKOFF_MILLIS));
+        }
+    }
+}
@@ -1,21 +1,72 @@
 package com.pyramid.usermanagement.domain.user.services.implement;
 
+import com.pyramid.usermanagement.core.concurrent.GroupCommit;
+import com.pyramid.usermanagement.core.concurrent.SingleFlight;
+import com.pyramid.usermanagement.core.datasource.ReadRouting;
+import com.pyramid.usermanagement.core.datasource.ReplicaRead;
 import com.pyramid.usermanagement.core.exceptions.EmailAlreadyExistException;
+import com.pyramid.usermanagement.core.exceptions.InvalidRequestException;
+import com.pyramid.usermanagement.core.exceptions.PreconditionFailedException;
 import com.pyramid.usermanagement.core.exceptions.ResourceNotFoundException;
+import com.pyramid.usermanagement.domain.user.cache.UserCache;
+import com.pyramid.usermanagement.domain.user.cache.UserEmailFilter;
+import com.pyramid.usermanagement.domain.user.dto.BulkDeleteResultDTO;
+import com.pyramid.usermanagement.domain.user.dto.BulkImportResultDTO;
+import com.pyramid.usermanagement.domain.user.dto.BulkImportRowDTO;
 import com.pyramid.usermanagement.domain.user.dto.UserCreateDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserCursorPageDTO;
 import com.pyramid.usermanagement.domain.user.dto.UserDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserListPageDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserLookupDTO;
 import com.pyramid.usermanagement.domain.user.dto.UserUpdateDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserVersionDTO;
+import com.pyramid.usermanagement.domain.user.events.UserChangedEvent;
 import com.pyramid.usermanagement.domain.user.model.AppUser;
+import com.pyramid.usermanagement.domain.user.model.UserOutboxCounter;
+import com.pyramid.usermanagement.domain.user.repository.UserOutboxCounterRepository;
 import com.pyramid.usermanagement.domain.user.repository.UserRepository;
+import com.pyramid.usermanagement.domain.user.search.UserSearchIndex;
+import com.pyramid.usermanagement.domain.user.search.UserSearchIndexer;
 import com.pyramid.usermanagement.domain.user.services.UserService;
-import jakarta.transaction.Transactional;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Consumer;
+import java.util.function.LongPredicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Created by Suvorov Vassilievitch
@@ -24,83 +75,471 @@ import java.util.stream.Collectors;
  * Project Name: user-management
  */
 @Service
+@Timed(value = "user.service", description = "User service method calls")
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final UserCache userCache;
+    private final UserEmailFilter userEmailFilter;
+    private final UserOutboxCounterRepository outboxCounterRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UserBatchWriter userBatchWriter;
+    private final UserSearchIndexer userSearchIndexer;
+    private final Validator validator;
+    private final TransactionTemplate writeTransaction;
+    private final int importChunkSize;
+    private final int batchLookupMaxSize;
+    private final int batchLookupChunkSize;
+    private final int searchMaxResults;
+    private final int cursorMaxSize;
+    private final SingleFlight<Lookup<Long>, UserCache.Loaded> loadsById;
+    private final SingleFlight<Lookup<String>, UserCache.Loaded> loadsByEmail;
+    private final GroupCommit<UserCreateDTO, UserBatchWriter.Written> createGroups;
 
-    public UserServiceImpl(UserRepository userRepository) {
+    public UserServiceImpl(UserRepository userRepository, UserCache userCache, UserEmailFilter userEmailFilter,
+                           UserOutboxCounterRepository outboxCounterRepository, ApplicationEventPublisher eventPublisher, UserBatchWriter userBatchWriter,
+                           UserSearchIndexer userSearchIndexer, Validator validator, MeterRegistry meterRegistry,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${app.users.import.chunkSize:1000}") int importChunkSize,
+                           @Value("${app.users.batchLookup.maxSize:5000}") int batchLookupMaxSize,
+                           @Value("${app.users.batchLookup.chunkSize:500}") int batchLookupChunkSize,
+                           @Value("${app.users.search.maxResults:1000}") int searchMaxResults,
+                           @Value("${app.users.cursor.maxSize:1000}") int cursorMaxSize,
+                           @Value("${app.users.singleFlight.maxWait:PT2S}") Duration singleFlightMaxWait,
+                           @Value("${app.users.groupCommit.enabled:false}") boolean groupCommitEnabled,
+                           @Value("${app.users.groupCommit.maxBatchSize:100}") int groupCommitMaxBatchSize,
+                           @Value("${app.users.groupCommit.maxDelay:PT0.002S}") Duration groupCommitMaxDelay) {
         this.userRepository = userRepository;
+        this.userCache = userCache;
+        this.userEmailFilter = userEmailFilter;
+        this.outboxCounterRepository = outboxCounterRepository;
+        this.eventPublisher = eventPublisher;
+        this.userBatchWriter = userBatchWriter;
+        this.userSearchIndexer = userSearchIndexer;
+        this.validator = validator;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.importChunkSize = importChunkSize;
+        this.batchLookupMaxSize = batchLookupMaxSize;
+        this.batchLookupChunkSize = batchLookupChunkSize;
+        this.searchMaxResults = searchMaxResults;
+        this.cursorMaxSize = cursorMaxSize;
+        this.loadsById = new SingleFlight<>("users.byId", singleFlightMaxWait, meterRegistry);
+        this.loadsByEmail = new SingleFlight<>("users.byEmail", singleFlightMaxWait, meterRegistry);
+        this.createGroups = groupCommitEnabled
+                ? new GroupCommit<>("users.create", groupCommitMaxBatchSize, groupCommitMaxDelay, meterRegistry, this::writeGroup)
+                : null;
     }
 
-    private UserDTO convertEntityToDTO(AppUser user) {
-        return new UserDTO(user.getId(), user.getLogin(), user.getName(), user.getEmail(), user.getCreatedDate());
+    static UserDTO convertEntityToDTO(AppUser user) {
+        return new UserDTO(user.getId(), user.getLogin(), user.getName(), user.getEmail(), user.getCreatedDate(),
+                user.getLastModifiedDate(), user.getVersion());
     }
     @Override
-    @Transactional
     public UserDTO createUser(UserCreateDTO userCreateDTO) {
 
-        if (userRepository.existsByEmail(userCreateDTO.email())) {
-            throw new EmailAlreadyExistException("Email already exists: " + userCreateDTO.email());
+        // A user created inside a caller's transaction must commit or roll back with it, so it cannot join a group
+        if (createGroups == null || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return writeTransaction.execute(status -> insertUser(userCreateDTO));
+        }
+        UserDTO createdUser = createGroups.submit(userCreateDTO).created();
+        if (createdUser == null) {
+            throw new EmailAlreadyExistException("Email already exists: ", userCreateDTO.email());
         }
+        return createdUser;
+
+    }
+
+    private UserDTO insertUser(UserCreateDTO userCreateDTO) {
 
+        if (isEmailTaken(AppUser.normalizeEmail(userCreateDTO.email()))) {
+            throw new EmailAlreadyExistException("Email already exists: ", userCreateDTO.email());
+        }
+
+        LocalDateTime now = LocalDateTime.now();
         AppUser user = new AppUser();
-        user.setCreatedDate(LocalDateTime.now());
+        user.setCreatedDate(now);
+        user.setLastModifiedDate(now);
         user.setLogin(userCreateDTO.login());
         user.setName(userCreateDTO.name());
         user.setEmail(userCreateDTO.email());
 
-        AppUser savedUser = userRepository.save(user);
-        return convertEntityToDTO(savedUser);
+        // Flush so that an email taken since the check above fails here, as a conflict
+        AppUser savedUser;
+        try {
+            savedUser = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            throw new EmailAlreadyExistException("Email already exists: ", userCreateDTO.email());
+        }
+        UserDTO createdUser = convertEntityToDTO(savedUser);
+        eventPublisher.publishEvent(UserChangedEvent.created(createdUser));
+        return createdUser;
+
+    }
+
+    // The filter rules out most new emails without a query; the unique constraint catches what it let through
+    private boolean isEmailTaken(String emailKey) {
+
+        if (!userEmailFilter.mightExist(emailKey)) {
+            return false;
+        }
+        boolean taken = userRepository.existsByEmailKey(emailKey);
+        if (!taken) {
+            userEmailFilter.recordFalsePositive();
+        }
+        return taken;
+
+    }
+
+    @Override
+    public BulkImportResultDTO importUsers(Iterator<UserCreateDTO> rows) {
+
+        List<BulkImportRowDTO> results = new ArrayList<>();
+        List<UserBatchWriter.Row> chunk = new ArrayList<>(importChunkSize);
+        int index = 0;
+
+        while (true) {
+            UserCreateDTO row;
+            try {
+                if (!rows.hasNext()) {
+                    break;
+                }
+                row = rows.next();
+            } catch (RuntimeException e) {
+                // The payload cannot be read past a malformed row; everything before it is still imported
+                results.add(new BulkImportRowDTO(index, BulkImportRowDTO.Status.INVALID, null, "Malformed row: " + e.getMessage()));
+                break;
+            }
+
+            String violations = validate(row);
+            if (violations != null) {
+                results.add(new BulkImportRowDTO(index, BulkImportRowDTO.Status.INVALID, null, violations));
+            } else {
+                chunk.add(new UserBatchWriter.Row(index, row));
+                if (chunk.size() == importChunkSize) {
+                    writeChunk(chunk).forEach(written -> results.add(toImportRow(written)));
+                    chunk.clear();
+                }
+            }
+            index++;
+        }
+        if (!chunk.isEmpty()) {
+            writeChunk(chunk).forEach(written -> results.add(toImportRow(written)));
+        }
+
+        results.sort(Comparator.comparingInt(BulkImportRowDTO::index));
+        int created = 0;
+        int duplicates = 0;
+        int invalid = 0;
+        for (BulkImportRowDTO result : results) {
+            switch (result.status()) {
+                case CREATED -> created++;
+                case DUPLICATE -> duplicates++;
+                case INVALID -> invalid++;
+            }
+        }
+        return new BulkImportResultDTO(results.size(), created, duplicates, invalid, results);
+
+    }
+
+    private String validate(UserCreateDTO row) {
+
+        if (row == null) {
+            return "Row is empty";
+        }
+
+        Set<ConstraintViolation<UserCreateDTO>> violations = validator.validate(row);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+
+    }
+
+    private List<UserBatchWriter.Written> writeChunk(List<UserBatchWriter.Row> chunk) {
+
+        try {
+            return userBatchWriter.insertChunk(chunk);
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent writer took one of the emails: retry row by row so that only the conflicting rows fail
+            List<UserBatchWriter.Written> results = new ArrayList<>(chunk.size());
+            for (UserBatchWriter.Row row : chunk) {
+                try {
+                    results.addAll(userBatchWriter.insertChunk(List.of(row)));
+                } catch (DataIntegrityViolationException ex) {
+                    results.add(new UserBatchWriter.Written(row, null));
+                }
+            }
+            return results;
+        }
+
+    }
+
+    // One transaction for a group of concurrent creates; a taken email only fails its own caller
+    private List<UserBatchWriter.Written> writeGroup(List<UserCreateDTO> users) {
+
+        List<UserBatchWriter.Row> rows = new ArrayList<>(users.size());
+        for (int i = 0; i < users.size(); i++) {
+            rows.add(new UserBatchWriter.Row(i, users.get(i)));
+        }
+        return writeChunk(rows);
 
     }
 
+    private static BulkImportRowDTO toImportRow(UserBatchWriter.Written written) {
+        UserBatchWriter.Row row = written.row();
+        return written.created() == null
+                ? new BulkImportRowDTO(row.index(), BulkImportRowDTO.Status.DUPLICATE, null, "Email already exists: " + row.user().email())
+                : new BulkImportRowDTO(row.index(), BulkImportRowDTO.Status.CREATED, written.created().Id(), null);
+    }
+
+    // Reads project straight into UserDTO; read-only transactions also switch Hibernate flushing off.
+    // @ReplicaRead ones may lag other clients' writes; the versions behind conditional requests are read from the primary
+
     @Override
+    @ReplicaRead
+    @Transactional(readOnly = true)
     public List<UserDTO> getAllUsers() {
+        return userRepository.findAllDtos();
+    }
 
-        return userRepository.findAll()
-                .stream()
-                .map(this::convertEntityToDTO)
-                .collect(Collectors.toList());
+    @Override
+    @ReplicaRead
+    @Transactional(readOnly = true)
+    public void streamAllUsers(Consumer<UserDTO> consumer) {
+
+        // Projected rows are never attached to the persistence context, so nothing accumulates while streaming
+        try (Stream<UserDTO> users = userRepository.streamAllDtos()) {
+            users.forEach(consumer);
+        }
 
     }
 
     @Override
+    @ReplicaRead
+    @Transactional(readOnly = true)
     public Page<UserDTO> getAllUsersPaginated(Pageable pageable) {
-        return userRepository.findAll(pageable)
-                .map(this::convertEntityToDTO);
+        return userRepository.findAllDtos(pageable);
+    }
+
+    @Override
+    @ReplicaRead
+    @Transactional(readOnly = true)
+    public UserListPageDTO getAllUsersPaginated(Pageable pageable, LongPredicate unchanged) {
+
+        // Version first, on the connection the page is read from: a replica applies commits in order, so the
+        // page can be newer than the version but never older
+        long version = outboxCounterRepository.findLastSequence(UserOutboxCounter.ID).orElse(0L);
+        if (unchanged.test(version)) {
+            return new UserListPageDTO(version, null);
+        }
+        return new UserListPageDTO(version, userRepository.findAllDtos(pageable));
+
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<UserDTO> searchUsers(String query, Pageable pageable) {
+
+        String normalized = UserSearchIndex.normalize(query);
+        if (normalized.isEmpty()) {
+            throw new InvalidRequestException("Search query must not be blank");
+        }
+        if (pageable.getOffset() + pageable.getPageSize() > searchMaxResults) {
+            throw new InvalidRequestException("Only the first " + searchMaxResults + " search results can be paged through");
+        }
+
+        Optional<UserSearchIndex.Hits> hits = userSearchIndexer.search(normalized, (int) pageable.getOffset(), pageable.getPageSize());
+        if (hits.isEmpty()) {
+            // Index still building or over its memory budget; short queries only match prefixes, as in the index
+            String escaped = normalized.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+            String pattern = (normalized.length() < UserSearchIndex.MIN_INFIX_LENGTH ? "" : "%") + escaped + "%";
+            return userRepository.searchDtos(pattern, pageable);
+        }
+
+        // Users are served from the cache where possible, in rank order; one deleted since the search is skipped
+        List<Long> ids = hits.get().ids();
+        Map<Long, UserDTO> users = userCache.getAllById(ids, misses -> loadInChunks(misses, userRepository::findDtosByIdIn, UserDTO::Id));
+        List<UserDTO> content = ids.stream()
+                .map(users::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        return new PageImpl<>(content, pageable, hits.get().total());
+
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public UserCursorPageDTO getUsersByCursor(String cursor, int size, Sort.Order order) {
+
+        if (!UserKeysetCursor.SORTABLE_PROPERTIES.contains(order.getProperty())) {
+            throw new InvalidRequestException("Unsupported sort property: ", order.getProperty());
+        }
+        if (size < 1) {
+            throw new InvalidRequestException("Page size must be greater than zero");
+        }
+        if (size > cursorMaxSize) {
+            throw new InvalidRequestException("At most " + cursorMaxSize + " users can be fetched per page");
+        }
+
+        ScrollPosition position = ScrollPosition.keyset();
+        if (cursor != null && !cursor.isBlank()) {
+            UserKeysetCursor after = UserKeysetCursor.decode(cursor);
+            if (!after.matches(order)) {
+                throw new InvalidRequestException("Cursor does not match the requested sort order");
+            }
+            position = after.toScrollPosition();
+        }
+
+        // The id tie-breaker makes (sortKey, id) unique, which keyset seeking requires
+        Sort sort = Sort.by(order);
+        if (!"id".equals(order.getProperty())) {
+            sort = sort.and(Sort.by(order.getDirection(), "id"));
+        }
+
+        Window<UserRepository.KeysetRow> window = userRepository.findAllBy(position, sort, Limit.of(size));
+        List<UserDTO> content = window.stream()
+                .map(UserRepository.KeysetRow::toDto)
+                .collect(Collectors.toList());
+
+        String nextCursor = window.hasNext() && !window.isEmpty()
+                ? UserKeysetCursor.after(content.get(content.size() - 1), order).encode()
+                : null;
+        return new UserCursorPageDTO(content, size, window.hasNext(), nextCursor);
+    }
+
+    @Override
+    @ReplicaRead
     public UserDTO getUserById(Long id) {
-        AppUser user = userRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
-        return convertEntityToDTO(user);
+        return userCache.getById(id, key -> loadsById.load(Lookup.of(key),
+                lookup -> userCache.load(() -> loadUserById(lookup.key()))));
     }
 
     @Override
+    public UserVersionDTO getUserVersion(Long id) {
+
+        UserDTO cached = userCache.peekById(id);
+        if (cached != null) {
+            return new UserVersionDTO(cached.Id(), cached.version(), cached.lastModifiedDate());
+        }
+        return userRepository.findVersionById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: ", id));
+
+    }
+
+    @Override
+    @ReplicaRead
     public UserDTO getUserByEmail(String email) {
-        AppUser user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + email));
-        return convertEntityToDTO(user);
+        return userCache.getByEmail(email, key -> loadsByEmail.load(Lookup.of(key),
+                lookup -> userCache.load(() -> loadUserByEmail(lookup.key()))));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserLookupDTO<Long>> getUsersByIds(List<Long> ids) {
+
+        checkBatchSize(ids);
+        Map<Long, UserDTO> users = userCache.getAllById(ids, misses -> loadInChunks(misses, userRepository::findDtosByIdIn, UserDTO::Id));
+        return ids.stream()
+                .map(id -> new UserLookupDTO<>(id, users.containsKey(id), users.get(id)))
+                .collect(Collectors.toList());
+
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserLookupDTO<String>> getUsersByEmails(List<String> emails) {
+
+        checkBatchSize(emails);
+        Map<String, UserDTO> users = userCache.getAllByEmail(emails,
+                misses -> loadInChunks(misses, userRepository::findDtosByEmailKeyIn, user -> AppUser.normalizeEmail(user.email())));
+        return emails.stream()
+                .map(email -> {
+                    UserDTO user = users.get(AppUser.normalizeEmail(email));
+                    return new UserLookupDTO<>(email, user != null, user);
+                })
+                .collect(Collectors.toList());
+
+    }
+
+    private void checkBatchSize(List<?> keys) {
+        if (keys.size() > batchLookupMaxSize) {
+            throw new InvalidRequestException("At most " + batchLookupMaxSize + " keys can be looked up at once");
+        }
+        if (keys.contains(null)) {
+            throw new InvalidRequestException("Lookup keys must not be null");
+        }
+    }
+
+    // Bounded IN lists keep statements cacheable and within database parameter limits
+    private <K> Map<K, UserDTO> loadInChunks(Collection<K> keys, Function<List<K>, List<UserDTO>> query, Function<UserDTO, K> keyOf) {
+
+        Map<K, UserDTO> users = new HashMap<>(keys.size());
+        List<K> remaining = List.copyOf(keys);
+        for (int from = 0; from < remaining.size(); from += batchLookupChunkSize) {
+            List<K> chunk = remaining.subList(from, Math.min(from + batchLookupChunkSize, remaining.size()));
+            for (UserDTO user : query.apply(chunk)) {
+                users.put(keyOf.apply(user), user);
+            }
+        }
+        return users;
+
+    }
+
+    private UserDTO loadUserById(Long id) {
+        return userRepository.findDtoById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: ", id));
+    }
+
+    private UserDTO loadUserByEmail(String email) {
+        return userRepository.findDtoByEmailKey(AppUser.normalizeEmail(email))
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with email: ", email));
     }
 
     @Override
     @Transactional
     public UserDTO updateUser(Long id, UserUpdateDTO userUpdateDTO) {
+        return updateUser(id, userUpdateDTO, null);
+    }
+
+    @Override
+    @Transactional
+    public UserDTO updateUser(Long id, UserUpdateDTO userUpdateDTO, Long expectedVersion) {
 
         AppUser user = userRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: ", id));
+        if (expectedVersion != null && !expectedVersion.equals(user.getVersion())) {
+            throw new PreconditionFailedException("User " + id + " was modified, current version is " + user.getVersion());
+        }
 
-        if (user.getEmail().equals(userUpdateDTO.email()) && userRepository.existsByEmail(userUpdateDTO.email())) {
-            throw new EmailAlreadyExistException("Email already exists: " + userUpdateDTO.email());
+        String emailKey = AppUser.normalizeEmail(userUpdateDTO.email());
+        if (!user.getEmailKey().equals(emailKey) && isEmailTaken(emailKey)) {
+            throw new EmailAlreadyExistException("Email already exists: ", userUpdateDTO.email());
         }
 
+        UserDTO previousUser = convertEntityToDTO(user);
         user.setLogin(userUpdateDTO.login());
         user.setName(userUpdateDTO.name());
         user.setEmail(userUpdateDTO.email());
+        user.setLastModifiedDate(LocalDateTime.now());
 
-        AppUser updatedUser = userRepository.save(user);
-        return convertEntityToDTO(updatedUser);
+        // Flush so that the returned DTO carries the incremented version
+        AppUser updatedUser;
+        try {
+            updatedUser = userRepository.saveAndFlush(user);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            if (expectedVersion != null) {
+                throw new PreconditionFailedException("User " + id + " was modified concurrently");
+            }
+            throw e;
+        } catch (DataIntegrityViolationException e) {
+            throw new EmailAlreadyExistException("Email already exists: ", userUpdateDTO.email());
+        }
+        UserDTO result = convertEntityToDTO(updatedUser);
+        eventPublisher.publishEvent(UserChangedEvent.updated(previousUser, result));
+        return result;
 
     }
 
@@ -108,10 +547,39 @@ public class UserServiceImpl implements UserService {
     @Transactional
     public void deleteUser(Long id) {
 
-        if (!userRepository.existsById(id)){
-            throw new ResourceNotFoundException("User not found with id: " + id);
+        AppUser user = userRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: ", id));
+        userRepository.delete(user);
+        eventPublisher.publishEvent(UserChangedEvent.deleted(convertEntityToDTO(user)));
+
+    }
+
+    @Override
+    public BulkDeleteResultDTO deleteUsers(List<Long> ids) {
+
+        checkBatchSize(ids);
+        List<Long> distinctIds = ids.stream().distinct().toList();
+        Set<Long> deletedIds = new HashSet<>(distinctIds.size());
+
+        // A transaction per chunk keeps row locks short; chunks already deleted stay deleted if a later one fails
+        for (int from = 0; from < distinctIds.size(); from += batchLookupChunkSize) {
+            List<Long> chunk = distinctIds.subList(from, Math.min(from + batchLookupChunkSize, distinctIds.size()));
+            List<UserDTO> deleted = writeTransaction.execute(status -> userBatchWriter.deleteChunk(userRepository.findAllById(chunk), false));
+            deleted.forEach(user -> deletedIds.add(user.Id()));
         }
-        userRepository.deleteById(id);
 
+        List<Long> notFound = distinctIds.stream()
+                .filter(id -> !deletedIds.contains(id))
+                .collect(Collectors.toList());
+        return new BulkDeleteResultDTO(distinctIds.size(), deletedIds.size(), notFound);
+
+    }
+
+    // A lookup pinned to the primary must not join one answered by a replica, which may not have its client's writes yet
+    private record Lookup<K>(K key, boolean primary) {
+
+        static <K> Lookup<K> of(K key) {
+            return new Lookup<>(key, ReadRouting.readsFromPrimary());
+        }
     }
 }
@@ -0,0 +1,94 @@
+package com.pyramid.usermanagement.core.admission;
+
+import com.pyramid.usermanagement.domain.user.cache.UserCache;
+import com.pyramid.usermanagement.domain.user.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "app.admission.endpoints.search.requestsPerSecond=0.1",
+        "app.admission.endpoints.search.burst=2",
+        "app.admission.endpoints.export.requestsPerSecond=0",
+        "app.admission.endpoints.export.maxConcurrent=1"
+})
+@AutoConfigureMockMvc
+class AdmissionControlTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserCache userCache;
+
+    @AfterEach
+    void cleanUp() {
+        userRepository.deleteAllInBatch();
+        userCache.invalidateAll();
+    }
+
+    @Test
+    void clientOverItsRateGetsTooManyRequestsWithRetryAfter() throws Exception {
+        double rejected = admissions("search", "rate_limited");
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/api/users/search").param("q", "alice").with(user("greedy")))
+                    .andExpect(status().isOk());
+        }
+        mockMvc.perform(get("/api/users/search").param("q", "alice").with(user("greedy")))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "10"))
+                .andExpect(jsonPath("$.status").value(429));
+
+        // Other clients and other endpoints keep their own buckets
+        mockMvc.perform(get("/api/users/search").param("q", "alice").with(user("polite")))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/users/paginated").with(user("greedy")))
+                .andExpect(status().isOk());
+        assertThat(admissions("search", "rate_limited") - rejected).isEqualTo(1);
+    }
+
+    @Test
+    void concurrencyCapHoldsUntilStreamedResponseCompletes() throws Exception {
+        MvcResult streaming = mockMvc.perform(get("/api/users").accept(MediaType.APPLICATION_NDJSON).with(user("first")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(get("/api/users").accept(MediaType.APPLICATION_NDJSON).with(user("second")))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+
+        mockMvc.perform(asyncDispatch(streaming)).andExpect(status().isOk());
+        // A container completes the async request once the body is written; MockMvc leaves that to the test
+        streaming.getRequest().getAsyncContext().complete();
+
+        mockMvc.perform(get("/api/users").accept(MediaType.APPLICATION_NDJSON).with(user("second")))
+                .andExpect(request().asyncStarted());
+    }
+
+    private double admissions(String endpoint, String outcome) {
+        return meterRegistry.get("api.admission").tag("endpoint", endpoint).tag("outcome", outcome).counter().count();
+    }
+}
@@ -0,0 +1,51 @@
+package com.pyramid.usermanagement.core.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitTests {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private final RateLimit rateLimit = new RateLimit(2, 3);
+
+    @Test
+    void fullBucketAdmitsABurstThenRefillsAtTheRate() {
+        AtomicLong bucket = rateLimit.newState(0);
+
+        assertThat(rateLimit.tryAcquire(bucket, 0)).isZero();
+        assertThat(rateLimit.tryAcquire(bucket, 0)).isZero();
+        assertThat(rateLimit.tryAcquire(bucket, 0)).isZero();
+        assertThat(rateLimit.tryAcquire(bucket, 0)).isEqualTo(SECOND / 2);
+
+        assertThat(rateLimit.tryAcquire(bucket, SECOND / 2)).isZero();
+        assertThat(rateLimit.tryAcquire(bucket, SECOND / 2)).isEqualTo(SECOND / 2);
+    }
+
+    @Test
+    void idleTimeDoesNotGrowTheBucketBeyondItsBurst() {
+        AtomicLong bucket = rateLimit.newState(0);
+
+        long later = 60 * SECOND;
+        for (int i = 0; i < 3; i++) {
+            assertThat(rateLimit.tryAcquire(bucket, later)).isZero();
+        }
+        assertThat(rateLimit.tryAcquire(bucket, later)).isPositive();
+    }
+
+    @Test
+    void rejectedRequestsDoNotConsumeTokens() {
+        AtomicLong bucket = rateLimit.newState(0);
+        for (int i = 0; i < 3; i++) {
+            rateLimit.tryAcquire(bucket, 0);
+        }
+        for (int i = 0; i < 100; i++) {
+            rateLimit.tryAcquire(bucket, 0);
+        }
+
+        assertThat(rateLimit.tryAcquire(bucket, SECOND / 2)).isZero();
+    }
+}
@@ -0,0 +1,87 @@
+package com.pyramid.usermanagement.core.concurrent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GroupCommitTests {
+
+    private static final int CALLERS = 64;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<List<Integer>> writes = new CopyOnWriteArrayList<>();
+
+    @Test
+    void concurrentCallersShareBatchesAndGetTheirOwnResult() throws Exception {
+        GroupCommit<Integer, String> group = groupCommit(16, Duration.ofSeconds(10), items -> {
+            writes.add(List.copyOf(items));
+            return items.stream().map(item -> "written-" + item).toList();
+        });
+
+        List<Future<String>> results = submitConcurrently(group);
+
+        for (int i = 0; i < CALLERS; i++) {
+            assertThat(results.get(i).get(10, TimeUnit.SECONDS)).isEqualTo("written-" + i);
+        }
+        // Full batches close at once, long before the delay
+        assertThat(writes).hasSize(CALLERS / 16).allSatisfy(batch -> assertThat(batch).hasSize(16));
+        assertThat(meterRegistry.get("groupcommit.batches").tag("name", "test").counter().count()).isEqualTo(CALLERS / 16);
+    }
+
+    @Test
+    void loneCallerIsWrittenAfterTheDelay() {
+        GroupCommit<Integer, String> group = groupCommit(100, Duration.ofMillis(20), items -> {
+            writes.add(List.copyOf(items));
+            return items.stream().map(String::valueOf).toList();
+        });
+
+        long start = System.nanoTime();
+        assertThat(group.submit(7)).isEqualTo("7");
+
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(20));
+        assertThat(writes).containsExactly(List.of(7));
+    }
+
+    @Test
+    void writerFailureReachesEveryCallerOfTheBatch() throws Exception {
+        IllegalStateException failure = new IllegalStateException("database down");
+        GroupCommit<Integer, String> group = groupCommit(CALLERS, Duration.ofSeconds(10), items -> {
+            throw failure;
+        });
+
+        for (Future<String> result : submitConcurrently(group)) {
+            assertThatThrownBy(() -> result.get(10, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCause(failure);
+        }
+    }
+
+    private GroupCommit<Integer, String> groupCommit(int maxBatchSize, Duration maxDelay, Function<List<Integer>, List<String>> writer) {
+        return new GroupCommit<>("test", maxBatchSize, maxDelay, meterRegistry, writer);
+    }
+
+    private List<Future<String>> submitConcurrently(GroupCommit<Integer, String> group) {
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        List<Future<String>> results = new ArrayList<>(CALLERS);
+        for (int i = 0; i < CALLERS; i++) {
+            int item = i;
+            results.add(executor.submit(() -> group.submit(item)));
+        }
+        executor.shutdown();
+        return results;
+    }
+}
@@ -0,0 +1,131 @@
+package com.pyramid.usermanagement.core.concurrent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTests {
+
+    private static final int CALLERS = 64;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlight<String, String> flight = new SingleFlight<>("test", Duration.ofSeconds(10), meterRegistry);
+
+    @Test
+    void concurrentCallersShareOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = callConcurrently(() -> flight.load("popular", key -> {
+            loads.incrementAndGet();
+            await(release);
+            return "value-of-" + key;
+        }));
+        awaitCoalesced(CALLERS - 1);
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertThat(result.get(10, TimeUnit.SECONDS)).isEqualTo("value-of-popular");
+        }
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(count("leader")).isEqualTo(1);
+        assertThat(count("coalesced")).isEqualTo(CALLERS - 1);
+    }
+
+    @Test
+    void concurrentCallersShareTheLoadException() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("not found");
+
+        List<Future<String>> results = callConcurrently(() -> flight.load("missing", key -> {
+            loads.incrementAndGet();
+            await(release);
+            throw failure;
+        }));
+        awaitCoalesced(CALLERS - 1);
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertThatThrownBy(() -> result.get(10, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCause(failure);
+        }
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    void followerStopsWaitingAfterMaxWait() throws Exception {
+        SingleFlight<String, String> impatient = new SingleFlight<>("impatient", Duration.ofMillis(50), meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> leader = executor.submit(() -> impatient.load("slow", key -> {
+                await(release);
+                return "leader";
+            }));
+            while (meterRegistry.get("singleflight.calls").tag("name", "impatient").tag("outcome", "leader").counter().count() < 1) {
+                Thread.onSpinWait();
+            }
+
+            assertThat(impatient.load("slow", key -> "follower")).isEqualTo("follower");
+            release.countDown();
+            assertThat(leader.get(10, TimeUnit.SECONDS)).isEqualTo("leader");
+        }
+        assertThat(meterRegistry.get("singleflight.calls").tag("name", "impatient").tag("outcome", "timeout").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void completedLoadIsNotReused() {
+        AtomicInteger loads = new AtomicInteger();
+
+        flight.load("key", key -> "first-" + loads.incrementAndGet());
+
+        assertThat(flight.load("key", key -> "second-" + loads.incrementAndGet())).isEqualTo("second-2");
+    }
+
+    private List<Future<String>> callConcurrently(Callable<String> call) {
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        List<Future<String>> results = new ArrayList<>(CALLERS);
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(call));
+        }
+        executor.shutdown();
+        return results;
+    }
+
+    private void awaitCoalesced(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (count("coalesced") < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.get("singleflight.calls").tag("name", "test").tag("outcome", outcome).counter().count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.pyramid.usermanagement.core.configs;
+
+import com.pyramid.usermanagement.domain.user.cache.UserCache;
+import com.pyramid.usermanagement.domain.user.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Test contexts only export to the simple registry unless observability is switched back on
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@WithMockUser
+class PrometheusMetricsTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserCache userCache;
+
+    @AfterEach
+    void cleanUp() {
+        userRepository.deleteAllInBatch();
+        userCache.invalidateAll();
+    }
+
+    @Test
+    void serviceRepositoryAndRequestTimingsAreScrapedAsHistograms() throws Exception {
+        mockMvc.perform(post("/api/users").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"login\":\"alice\",\"name\":\"Alice\",\"email\":\"alice@example.com\"}"))
+                .andExpect(status().isCreated());
+        mockMvc.perform(get("/api/users/paginated"))
+                .andExpect(status().isOk());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus").with(httpBasic("admin", "admin")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(scrape.lines().filter(line -> line.startsWith("user_service_seconds_bucket{")))
+                .anyMatch(line -> line.contains("method=\"createUser\""))
+                .anyMatch(line -> line.contains("method=\"getAllUsersPaginated\""));
+        assertThat(scrape.lines().filter(line -> line.startsWith("spring_data_repository_invocations_seconds_bucket{")))
+                .anyMatch(line -> line.contains("repository=\"UserRepository\""));
+        assertThat(scrape.lines().filter(line -> line.startsWith("http_server_requests_seconds_bucket{")))
+                .anyMatch(line -> line.contains("uri=\"/api/users/paginated\""));
+    }
+}
@@ -0,0 +1,308 @@
+package com.pyramid.usermanagement.core.datasource;
+
+import com.pyramid.usermanagement.core.exceptions.ResourceNotFoundException;
+import com.pyramid.usermanagement.domain.user.cache.UserCache;
+import com.pyramid.usermanagement.domain.user.dto.UserCreateDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserUpdateDTO;
+import com.pyramid.usermanagement.domain.user.model.UserOutboxCounter;
+import com.pyramid.usermanagement.domain.user.repository.UserOutboxCounterRepository;
+import com.pyramid.usermanagement.domain.user.repository.UserRepository;
+import com.pyramid.usermanagement.domain.user.services.UserService;
+import jakarta.servlet.ServletException;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Two H2 databases stand in for the primary and a replica. Nothing replicates between them, so where a read
+ * was served shows in what it finds.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        // IFEXISTS: once shut down, the replica stays unreachable instead of coming back empty
+        "app.datasource.replicas.replica1.url=" + ReadReplicaRoutingTests.REPLICA_URL + ";IFEXISTS=TRUE",
+        "app.datasource.replicas.replica1.username=sa",
+        "app.datasource.replicas.replica1.connectionTimeout=PT0.5S",
+        "app.datasource.healthCheckInterval=PT1H",
+        "app.cache.users.maximumSize=0",
+        // Long enough that a lookup stuck behind a held one fails its test instead of loading on its own
+        "app.users.singleFlight.maxWait=PT30S"
+})
+@AutoConfigureMockMvc
+class ReadReplicaRoutingTests {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+
+    // When set, the next lookup by id waits for it, after counting down heldLookupStarted
+    private static final AtomicReference<CountDownLatch> holdNextLookup = new AtomicReference<>();
+    private static final CountDownLatch heldLookupStarted = new CountDownLatch(1);
+
+    @TestConfiguration
+    static class HeldLookups {
+
+        @Bean
+        static BeanPostProcessor holdUserLookups() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!(bean instanceof UserRepository)) {
+                        return bean;
+                    }
+                    ProxyFactory proxyFactory = new ProxyFactory();
+                    proxyFactory.setTarget(bean);
+                    proxyFactory.addInterface(UserRepository.class);
+                    proxyFactory.addAdvice((MethodInterceptor) invocation -> {
+                        CountDownLatch hold = "findDtoById".equals(invocation.getMethod().getName()) ? holdNextLookup.getAndSet(null) : null;
+                        if (hold != null) {
+                            heldLookupStarted.countDown();
+                            hold.await(10, TimeUnit.SECONDS);
+                        }
+                        return invocation.proceed();
+                    });
+                    return proxyFactory.getProxy();
+                }
+            };
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserOutboxCounterRepository outboxCounterRepository;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    // Before the context starts, so that the replica pool connects on the first try
+    @BeforeAll
+    static void createReplicaDatabase() throws SQLException {
+        createReplica();
+    }
+
+    @BeforeEach
+    void replicaIsInRotation() {
+        replicaRoutingDataSource.checkHealth();
+    }
+
+    private static void createReplica() throws SQLException {
+        try (Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = replica.createStatement()) {
+            statement.execute("""
+                    create table if not exists users (
+                        id bigint primary key, login varchar(255) not null, name varchar(255) not null,
+                        email varchar(255) not null, email_key varchar(255) not null unique,
+                        created_date timestamp(6), last_modified_date timestamp(6), version bigint)
+                    """);
+            statement.execute("create table if not exists user_outbox_counter (id bigint primary key, last_sequence bigint not null)");
+            statement.execute("delete from users");
+            statement.execute("delete from user_outbox_counter");
+            statement.execute("insert into user_outbox_counter values (1, 0)");
+        }
+    }
+
+    @AfterEach
+    void cleanUp() throws SQLException {
+        createReplica();
+        userRepository.deleteAllInBatch();
+        userCache.invalidateAll();
+    }
+
+    @Test
+    void lookupsAndListingsReadTheReplica() throws SQLException {
+        UserDTO alice = userService.createUser(new UserCreateDTO("alice", "Alice", "alice@example.com"));
+
+        assertThat(userRepository.findById(alice.Id())).isPresent();
+        assertThatThrownBy(() -> userService.getUserById(alice.Id())).isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> userService.getUserByEmail("alice@example.com")).isInstanceOf(ResourceNotFoundException.class);
+        assertThat(userService.getAllUsers()).isEmpty();
+
+        replicate(alice);
+
+        assertThat(userService.getUserById(alice.Id()).email()).isEqualTo("alice@example.com");
+        assertThat(userService.getUserByEmail("ALICE@example.com").Id()).isEqualTo(alice.Id());
+        assertThat(userService.getAllUsers()).extracting(UserDTO::Id).containsExactly(alice.Id());
+    }
+
+    @Test
+    void pageAndItsETagComeFromTheSameReplica() throws Exception {
+        UserDTO alice = userService.createUser(new UserCreateDTO("alice", "Alice", "alice@example.com"));
+        long sequence = outboxCounterRepository.findLastSequence(UserOutboxCounter.ID).orElseThrow();
+
+        // The primary is ahead; tagging the replica's page with its version would make it valid forever
+        mockMvc.perform(get("/api/users/paginated").with(user("bob")))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"0\""))
+                .andExpect(jsonPath("$.content.length()").value(0));
+
+        replicate(alice);
+        replicateOutboxSequence(sequence);
+
+        mockMvc.perform(get("/api/users/paginated").with(user("bob")).header(HttpHeaders.IF_NONE_MATCH, "W/\"0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"" + sequence + "\""))
+                .andExpect(jsonPath("$.content[0].login").value("alice"));
+    }
+
+    @Test
+    void clientReadsItsOwnWritesFromThePrimary() throws Exception {
+        String id = mockMvc.perform(post("/api/users").with(user("alice"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"login": "alice", "name": "Alice", "email": "alice@example.com"}
+                                """))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString().replaceAll(".*\"Id\":(\\d+).*", "$1");
+
+        mockMvc.perform(get("/api/users/{id}", id).with(user("alice")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value("alice@example.com"));
+        mockMvc.perform(get("/api/users/{id}", id).with(user("bob")))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void pinnedLookupDoesNotJoinOneServedByALaggingReplica() throws Exception {
+        UserDTO alice = userService.createUser(new UserCreateDTO("alice", "Alice", "alice@example.com"));
+        replicate(alice);
+        userService.updateUser(alice.Id(), new UserUpdateDTO("alice", "Alice Smith", "alice@example.com"));
+
+        CountDownLatch release = new CountDownLatch(1);
+        holdNextLookup.set(release);
+        CompletableFuture<UserDTO> fromReplica = CompletableFuture.supplyAsync(() -> userService.getUserById(alice.Id()));
+        assertThat(heldLookupStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Same id, while the replica's lookup is in flight: the client that wrote must still see its write
+        CompletableFuture<UserDTO> pinned = CompletableFuture.supplyAsync(() -> {
+            ReadRouting.setPinnedToPrimary(true);
+            try {
+                return userService.getUserById(alice.Id());
+            } finally {
+                ReadRouting.setPinnedToPrimary(false);
+            }
+        });
+        try {
+            assertThat(pinned.get(5, TimeUnit.SECONDS).name()).isEqualTo("Alice Smith");
+        } finally {
+            release.countDown();
+        }
+        assertThat(fromReplica.get(5, TimeUnit.SECONDS).name()).isEqualTo("Alice");
+    }
+
+    @Test
+    void readsSentWhileAWriteIsInProgressArePinned() throws Exception {
+        ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofMinutes(1), 100);
+        AtomicBoolean pinnedDuringTheWrite = new AtomicBoolean();
+
+        // The write's response is committed before the chain returns; the client reads right away
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/users"), new MockHttpServletResponse(), (request, response) -> {
+            response.flushBuffer();
+            CompletableFuture.runAsync(() -> pinnedDuringTheWrite.set(pinnedRead(filter))).join();
+        });
+
+        assertThat(pinnedDuringTheWrite).isTrue();
+        assertThat(pinnedRead(filter)).isTrue();
+    }
+
+    private static boolean pinnedRead(ReadYourWritesFilter filter) {
+        AtomicBoolean pinned = new AtomicBoolean();
+        try {
+            filter.doFilter(new MockHttpServletRequest("GET", "/api/users/1"), new MockHttpServletResponse(),
+                    (request, response) -> pinned.set(ReadRouting.isPinnedToPrimary()));
+        } catch (IOException | ServletException e) {
+            throw new IllegalStateException(e);
+        }
+        return pinned.get();
+    }
+
+    @Test
+    void readsFailOverToThePrimaryWhileTheReplicaIsDown() throws SQLException {
+        UserDTO alice = userService.createUser(new UserCreateDTO("alice", "Alice", "alice@example.com"));
+
+        try (Connection replica = DriverManager.getConnection(REPLICA_URL + ";IFEXISTS=TRUE", "sa", "");
+             Statement statement = replica.createStatement()) {
+            statement.execute("shutdown");
+        }
+        replicaRoutingDataSource.checkHealth();
+        assertThat(replicaRoutingDataSource.healthyReplicas()).isZero();
+        assertThat(userService.getUserById(alice.Id()).email()).isEqualTo("alice@example.com");
+
+        // Back, empty: a health check returns it to rotation once its pool has reconnected
+        createReplica();
+        for (int check = 0; check < 10 && replicaRoutingDataSource.healthyReplicas() == 0; check++) {
+            replicaRoutingDataSource.checkHealth();
+        }
+        assertThat(replicaRoutingDataSource.healthyReplicas()).isOne();
+        assertThatThrownBy(() -> userService.getUserById(alice.Id())).isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    private static void replicateOutboxSequence(long sequence) throws SQLException {
+        try (Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             PreparedStatement update = replica.prepareStatement("update user_outbox_counter set last_sequence = ?")) {
+            update.setLong(1, sequence);
+            update.execute();
+        }
+    }
+
+    private static void replicate(UserDTO user) throws SQLException {
+        try (Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             PreparedStatement insert = replica.prepareStatement("insert into users values (?, ?, ?, ?, ?, ?, ?, ?)")) {
+            insert.setLong(1, user.Id());
+            insert.setString(2, user.login());
+            insert.setString(3, user.name());
+            insert.setString(4, user.email());
+            insert.setString(5, user.email().toLowerCase());
+            insert.setTimestamp(6, Timestamp.valueOf(user.createdDate()));
+            insert.setTimestamp(7, Timestamp.valueOf(user.lastModifiedDate()));
+            insert.setLong(8, user.version());
+            insert.execute();
+        }
+    }
+}
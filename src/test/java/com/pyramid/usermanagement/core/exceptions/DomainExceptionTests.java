@@ -0,0 +1,75 @@
+package com.pyramid.usermanagement.core.exceptions;
+
+import com.pyramid.usermanagement.domain.user.cache.UserCache;
+import com.pyramid.usermanagement.domain.user.dto.UserCreateDTO;
+import com.pyramid.usermanagement.domain.user.repository.UserRepository;
+import com.pyramid.usermanagement.domain.user.services.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser
+class DomainExceptionTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserCache userCache;
+
+    @AfterEach
+    void cleanUp() {
+        userRepository.deleteAllInBatch();
+        userCache.invalidateAll();
+    }
+
+    @Test
+    void domainExceptionsCarryTheirMessageButNoStackTrace() {
+        ResourceNotFoundException notFound = new ResourceNotFoundException("User not found with id: ", 42L);
+        EmailAlreadyExistException conflict = new EmailAlreadyExistException("Email already exists: ", "a@example.com");
+        notFound.addSuppressed(new IllegalStateException());
+
+        assertThat(notFound.getMessage()).isEqualTo("User not found with id: 42");
+        assertThat(conflict.getMessage()).isEqualTo("Email already exists: a@example.com");
+        assertThat(new PreconditionFailedException("User 1 was modified").getMessage()).isEqualTo("User 1 was modified");
+        assertThat(notFound.getStackTrace()).isEmpty();
+        assertThat(conflict.getStackTrace()).isEmpty();
+        assertThat(notFound.getSuppressed()).isEmpty();
+    }
+
+    @Test
+    void errorResponsesAreUnchanged() throws Exception {
+        userService.createUser(new UserCreateDTO("taken", "Taken", "taken@example.com"));
+
+        mockMvc.perform(get("/api/users/{id}", Long.MAX_VALUE))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.status").value(404))
+                .andExpect(jsonPath("$.message").value("User not found with id: " + Long.MAX_VALUE))
+                .andExpect(jsonPath("$.timestamp").exists());
+        mockMvc.perform(post("/api/users").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"login\":\"other\",\"name\":\"Other\",\"email\":\"taken@example.com\"}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.status").value(409))
+                .andExpect(jsonPath("$.message").value("Email already exists: taken@example.com"))
+                .andExpect(jsonPath("$.timestamp").exists());
+    }
+}
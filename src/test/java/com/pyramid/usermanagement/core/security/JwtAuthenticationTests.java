@@ -0,0 +1,173 @@
+package com.pyramid.usermanagement.core.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pyramid.usermanagement.UserManagementApplication;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"spring.security.user.name=tester", "spring.security.user.password=secret"})
+@AutoConfigureMockMvc
+class JwtAuthenticationTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JwtTokenService jwtTokenService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.jwtSecret}")
+    private String jwtSecret;
+
+    @Test
+    void issuedTokenAuthenticatesUserRequests() throws Exception {
+        String body = mockMvc.perform(post("/api/auth/token")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"username": "tester", "password": "secret"}
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tokenType").value("Bearer"))
+                .andReturn().getResponse().getContentAsString();
+        JsonNode token = objectMapper.readTree(body);
+        assertThat(token.get("expiresIn").asLong()).isPositive();
+
+        mockMvc.perform(get("/api/users/paginated").header(HttpHeaders.AUTHORIZATION, "Bearer " + token.get("accessToken").asText()))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void wrongPasswordIsRejected() throws Exception {
+        mockMvc.perform(post("/api/auth/token")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"username": "tester", "password": "guess"}
+                                """))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.message").value("Bad credentials"));
+    }
+
+    @Test
+    void requestsWithoutValidTokenAreUnauthorized() throws Exception {
+        String forged = Jwts.builder()
+                .setSubject("tester")
+                .setExpiration(Date.from(Instant.now().plusSeconds(60)))
+                .signWith(Keys.hmacShaKeyFor("another-secret-another-secret-another-secret".getBytes(StandardCharsets.UTF_8)))
+                .compact();
+        String expired = Jwts.builder()
+                .setSubject("tester")
+                .setExpiration(Date.from(Instant.now().minusSeconds(60)))
+                .signWith(Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+
+        mockMvc.perform(get("/api/users/paginated"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().string(HttpHeaders.WWW_AUTHENTICATE, "Bearer"));
+        mockMvc.perform(get("/api/users/paginated").header(HttpHeaders.AUTHORIZATION, "Bearer " + forged))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/users/paginated").header(HttpHeaders.AUTHORIZATION, "Bearer " + expired))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void repeatedTokenIsServedFromTheCacheUntilItExpires() throws Exception {
+        String token = Jwts.builder()
+                .setSubject("tester")
+                .claim("roles", List.of("ROLE_ADMIN"))
+                .setExpiration(Date.from(Instant.now().plusMillis(1500)))
+                .signWith(Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+        assertThat(jwtTokenService.verify(token).authentication().getAuthorities())
+                .extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_ADMIN");
+        double verified = tokens("verified");
+        double cached = tokens("cached");
+
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/api/users/paginated").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                    .andExpect(status().isOk());
+        }
+        assertThat(tokens("verified") - verified).isEqualTo(1);
+        assertThat(tokens("cached") - cached).isEqualTo(2);
+
+        Thread.sleep(1600);
+        mockMvc.perform(get("/api/users/paginated").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void operationalEndpointsOtherThanHealthRequireAnAdminAccount() throws Exception {
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk());
+
+        for (String path : List.of("/actuator/metrics", "/actuator/prometheus", "/h2-console/")) {
+            mockMvc.perform(get(path))
+                    .andExpect(status().isUnauthorized());
+            mockMvc.perform(get(path).with(httpBasic("tester", "guess")))
+                    .andExpect(status().isUnauthorized());
+        }
+        mockMvc.perform(get("/actuator/metrics").with(user("tester").roles("USER")))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/metrics").with(httpBasic("tester", "secret")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void onlyRequestValidationErrorsAreEchoedToTheClient() throws Exception {
+        String token = jwtTokenService.issue("tester", List.of()).token();
+
+        mockMvc.perform(get("/api/users/cursor").param("cursor", "not a cursor").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid cursor"));
+        // Spring Data rejects a negative page index with an IllegalArgumentException of its own
+        mockMvc.perform(get("/api/users/paginated").param("page", "-1").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.message").value("An unexpected error occured"));
+    }
+
+    private double tokens(String result) {
+        return meterRegistry.get("auth.tokens").tag("result", result).counter().count();
+    }
+
+    @Test
+    void startupFailsWithoutAnAccountPassword() {
+        SpringApplication application = new SpringApplicationBuilder(UserManagementApplication.class).build();
+
+        assertThatThrownBy(() -> application.run("--server.port=0", "--spring.security.user.password=",
+                "--spring.datasource.url=jdbc:h2:mem:no-account;DB_CLOSE_DELAY=-1"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("spring.security.user.password");
+    }
+}
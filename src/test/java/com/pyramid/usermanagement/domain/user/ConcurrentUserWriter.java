@@ -0,0 +1,53 @@
+package com.pyramid.usermanagement.domain.user;
+
+import com.pyramid.usermanagement.domain.user.events.UserChangedEvent;
+import org.springframework.boot.test.context.TestComponent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Plays another writer: inserts users straight into the table, in their own committed transaction and unseen by
+ * the email filter. Once {@link #arm armed}, it does so while a write is in progress, after its uniqueness checks
+ * and before its flush, on the first change event that write publishes.
+ */
+@TestComponent
+class ConcurrentUserWriter {
+
+    private final AtomicReference<String> armedEmail = new AtomicReference<>();
+    private final AtomicLong ids = new AtomicLong(-1);
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate separateTransaction;
+
+    ConcurrentUserWriter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.separateTransaction = new TransactionTemplate(transactionManager);
+        this.separateTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    void arm(String email) {
+        armedEmail.set(email);
+    }
+
+    void insert(String email) {
+        LocalDateTime now = LocalDateTime.now();
+        separateTransaction.executeWithoutResult(status -> jdbcTemplate.update(
+                "insert into users (id, login, name, email, email_key, created_date, last_modified_date, version) values (?, ?, ?, ?, ?, ?, ?, 0)",
+                ids.getAndDecrement(), "other", "Other Writer", email, email.toLowerCase(), Timestamp.valueOf(now), Timestamp.valueOf(now)));
+    }
+
+    @EventListener
+    void onUserChanged(UserChangedEvent event) {
+        String email = armedEmail.getAndSet(null);
+        if (email != null) {
+            insert(email);
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.pyramid.usermanagement.domain.user;
+
+import com.pyramid.usermanagement.domain.auth.dto.LoginRequestDTO;
+import com.pyramid.usermanagement.domain.auth.dto.TokenDTO;
+import com.pyramid.usermanagement.domain.user.cache.UserCache;
+import com.pyramid.usermanagement.domain.user.dto.UserCreateDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserCursorPageDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserUpdateDTO;
+import com.pyramid.usermanagement.domain.user.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("reactive")
+class ReactiveUserApiTests {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserCache userCache;
+
+    private WebTestClient client;
+
+    @BeforeEach
+    void authenticate() {
+        TokenDTO token = webTestClient.post().uri("/api/auth/token")
+                .bodyValue(new LoginRequestDTO("admin", "admin"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(TokenDTO.class).returnResult().getResponseBody();
+        client = webTestClient.mutate()
+                .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token.accessToken())
+                .build();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        userRepository.deleteAllInBatch();
+        userCache.invalidateAll();
+    }
+
+    @Test
+    void userApiRequiresABearerToken() {
+        webTestClient.get().uri("/api/users/1")
+                .exchange()
+                .expectStatus().isUnauthorized()
+                .expectHeader().valueEquals(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+        webTestClient.post().uri("/api/auth/token")
+                .bodyValue(new LoginRequestDTO("admin", "wrong"))
+                .exchange()
+                .expectStatus().isUnauthorized();
+
+        webTestClient.get().uri("/actuator/health")
+                .exchange()
+                .expectStatus().isOk();
+        webTestClient.get().uri("/actuator/metrics")
+                .exchange()
+                .expectStatus().isUnauthorized();
+        webTestClient.get().uri("/actuator/metrics").headers(headers -> headers.setBasicAuth("admin", "admin"))
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    @Test
+    void createReadUpdateDelete() {
+        UserDTO alice = client.post().uri("/api/users")
+                .bodyValue(new UserCreateDTO("alice", "Alice", "alice@example.com"))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(UserDTO.class).returnResult().getResponseBody();
+
+        String eTag = client.get().uri("/api/users/{id}", alice.Id())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.email").isEqualTo("alice@example.com")
+                .returnResult().getResponseHeaders().getETag();
+        client.get().uri("/api/users/{id}", alice.Id()).header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isNotModified();
+        client.get().uri("/api/users/by-email/{email}", "ALICE@example.com")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.Id").isEqualTo(alice.Id());
+
+        client.put().uri("/api/users/{id}", alice.Id()).header(HttpHeaders.IF_MATCH, eTag)
+                .bodyValue(new UserUpdateDTO("alice", "Alice Smith", "alice@example.com"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.name").isEqualTo("Alice Smith");
+        client.put().uri("/api/users/{id}", alice.Id()).header(HttpHeaders.IF_MATCH, eTag)
+                .bodyValue(new UserUpdateDTO("alice", "Stale", "alice@example.com"))
+                .exchange()
+                .expectStatus().isEqualTo(412);
+
+        client.delete().uri("/api/users/{id}", alice.Id())
+                .exchange()
+                .expectStatus().isNoContent();
+        client.get().uri("/api/users/{id}", alice.Id())
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void invalidAndDuplicateUsersAreRejected() {
+        client.post().uri("/api/users")
+                .bodyValue(new UserCreateDTO("", "Nobody", "not-an-email"))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.errors.email").exists();
+
+        client.post().uri("/api/users").bodyValue(new UserCreateDTO("bob", "Bob", "bob@example.com"))
+                .exchange()
+                .expectStatus().isCreated();
+        client.post().uri("/api/users").bodyValue(new UserCreateDTO("bob2", "Bob", "BOB@example.com"))
+                .exchange()
+                .expectStatus().isEqualTo(409);
+    }
+
+    @Test
+    void listsStreamAsJsonArrayOrNdjson() {
+        for (String name : new String[]{"carol", "dave", "erin"}) {
+            client.post().uri("/api/users").bodyValue(new UserCreateDTO(name, name, name + "@example.com"))
+                    .exchange()
+                    .expectStatus().isCreated();
+        }
+
+        client.get().uri("/api/users")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(UserDTO.class).hasSize(3);
+
+        String ndjson = client.get().uri("/api/users").accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class).returnResult().getResponseBody();
+        assertThat(ndjson.lines()).hasSize(3).allSatisfy(line -> assertThat(line).startsWith("{").contains("@example.com"));
+
+        client.get().uri("/api/users/paginated?size=2&sortBy=name&direction=desc")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content[0].name").isEqualTo("erin")
+                .jsonPath("$.content.length()").isEqualTo(2)
+                .jsonPath("$.totalElements").isEqualTo(3);
+        client.get().uri("/api/users/paginated?size=2&envelope=page")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.page.totalElements").isEqualTo(3)
+                .jsonPath("$.pageable").doesNotExist();
+        client.get().uri("/api/users/paginated?sortBy=password")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void batchLookupsCursorPagesAndListETagsAreServed() {
+        UserDTO frank = client.post().uri("/api/users").bodyValue(new UserCreateDTO("frank", "Frank", "frank@example.com"))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(UserDTO.class).returnResult().getResponseBody();
+        UserDTO grace = client.post().uri("/api/users").bodyValue(new UserCreateDTO("grace", "Grace", "grace@example.com"))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(UserDTO.class).returnResult().getResponseBody();
+
+        client.post().uri("/api/users/batch/by-id").bodyValue(List.of(grace.Id(), -1L, frank.Id()))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].user.email").isEqualTo("grace@example.com")
+                .jsonPath("$[1].found").isEqualTo(false)
+                .jsonPath("$[2].user.email").isEqualTo("frank@example.com");
+        client.post().uri("/api/users/batch/by-email").bodyValue(List.of("FRANK@example.com", "nobody@example.com"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].user.Id").isEqualTo(frank.Id())
+                .jsonPath("$[1].found").isEqualTo(false);
+
+        UserCursorPageDTO first = client.get().uri("/api/users/cursor?size=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(UserCursorPageDTO.class).returnResult().getResponseBody();
+        assertThat(first.content()).extracting(UserDTO::name).containsExactly("Frank");
+        assertThat(first.hasNext()).isTrue();
+        client.get().uri("/api/users/cursor?size=1&cursor={cursor}", first.nextCursor())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content[0].name").isEqualTo("Grace")
+                .jsonPath("$.hasNext").isEqualTo(false);
+
+        String eTag = client.get().uri("/api/users/paginated")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                .returnResult(String.class).getResponseHeaders().getETag();
+        assertThat(eTag).startsWith("W/");
+        client.get().uri("/api/users/paginated").header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isNotModified();
+
+        client.post().uri("/api/users/batch/delete").bodyValue(List.of(frank.Id(), -1L))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.deleted").isEqualTo(1)
+                .jsonPath("$.notFound[0]").isEqualTo(-1);
+        client.get().uri("/api/users/paginated").header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.content.length()").isEqualTo(1);
+    }
+
+    @Test
+    void servletOnlyEndpointsAnswerNotImplemented() {
+        client.get().uri("/api/users/changes?after=0").accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isEqualTo(501);
+        client.get().uri("/api/users/changes").accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isEqualTo(501);
+        client.post().uri("/api/users/bulk").contentType(MediaType.APPLICATION_NDJSON)
+                .bodyValue("{\"login\":\"henry\",\"name\":\"Henry\",\"email\":\"henry@example.com\"}\n")
+                .exchange()
+                .expectStatus().isEqualTo(501)
+                .expectBody().jsonPath("$.message").value(message -> assertThat((String) message).contains("/api/users/bulk"));
+    }
+}
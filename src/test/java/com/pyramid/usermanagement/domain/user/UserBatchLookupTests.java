@@ -0,0 +1,89 @@
+package com.pyramid.usermanagement.domain.user;
+
+import com.pyramid.usermanagement.domain.user.cache.UserCache;
+import com.pyramid.usermanagement.domain.user.dto.UserCreateDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserDTO;
+import com.pyramid.usermanagement.domain.user.repository.UserRepository;
+import com.pyramid.usermanagement.domain.user.services.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"app.users.batchLookup.chunkSize=2", "app.users.batchLookup.maxSize=10"})
+@AutoConfigureMockMvc
+@WithMockUser
+class UserBatchLookupTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserCache userCache;
+
+    @AfterEach
+    void cleanUp() {
+        userRepository.deleteAllInBatch();
+        userCache.invalidateAll();
+    }
+
+    @Test
+    void idLookupFollowsRequestOrderAndFlagsMisses() throws Exception {
+        UserDTO alice = userService.createUser(new UserCreateDTO("alice", "Alice", "alice@example.com"));
+        UserDTO bob = userService.createUser(new UserCreateDTO("bob", "Bob", "bob@example.com"));
+        UserDTO carl = userService.createUser(new UserCreateDTO("carl", "Carl", "carl@example.com"));
+        // Warm one entry so the batch mixes cache hits with database chunks
+        userService.getUserById(bob.Id());
+
+        String body = "[%d, -1, %d, %d, %d]".formatted(carl.Id(), bob.Id(), alice.Id(), carl.Id());
+
+        mockMvc.perform(post("/api/users/batch/by-id").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(5))
+                .andExpect(jsonPath("$[0].user.login").value("carl"))
+                .andExpect(jsonPath("$[1].key").value(-1))
+                .andExpect(jsonPath("$[1].found").value(false))
+                .andExpect(jsonPath("$[1].user").doesNotExist())
+                .andExpect(jsonPath("$[2].user.login").value("bob"))
+                .andExpect(jsonPath("$[3].user.login").value("alice"))
+                .andExpect(jsonPath("$[4].found").value(true));
+    }
+
+    @Test
+    void emailLookupFollowsRequestOrderAndFlagsMisses() throws Exception {
+        userService.createUser(new UserCreateDTO("alice", "Alice", "alice@example.com"));
+        userService.createUser(new UserCreateDTO("bob", "Bob", "bob@example.com"));
+
+        String body = """
+                ["bob@example.com", "nobody@example.com", "alice@example.com"]
+                """;
+
+        mockMvc.perform(post("/api/users/batch/by-email").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].user.login").value("bob"))
+                .andExpect(jsonPath("$[1].key").value("nobody@example.com"))
+                .andExpect(jsonPath("$[1].found").value(false))
+                .andExpect(jsonPath("$[2].user.login").value("alice"));
+    }
+
+    @Test
+    void oversizedBatchIsRejected() throws Exception {
+        mockMvc.perform(post("/api/users/batch/by-id").contentType(MediaType.APPLICATION_JSON)
+                        .content("[1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11]"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,118 @@
+package com.pyramid.usermanagement.domain.user;
+
+import com.pyramid.usermanagement.domain.user.cache.UserCache;
+import com.pyramid.usermanagement.domain.user.dto.UserCreateDTO;
+import com.pyramid.usermanagement.domain.user.repository.UserRepository;
+import com.pyramid.usermanagement.domain.user.services.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"app.users.import.chunkSize=2", "app.admission.enabled=false"})
+@AutoConfigureMockMvc
+@WithMockUser
+@Import(ConcurrentUserWriter.class)
+class UserBulkImportTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private ConcurrentUserWriter concurrentUserWriter;
+
+    @AfterEach
+    void cleanUp() {
+        userRepository.deleteAllInBatch();
+        userCache.invalidateAll();
+    }
+
+    @Test
+    void jsonArrayImportReportsEveryRow() throws Exception {
+        userService.createUser(new UserCreateDTO("taken", "Taken", "taken@example.com"));
+
+        String body = """
+                [
+                  {"login": "a", "name": "Alice", "email": "alice@example.com"},
+                  {"login": "b", "name": "Bob", "email": "taken@example.com"},
+                  {"login": "c", "name": "", "email": "not-an-email"},
+                  {"login": "d", "name": "Dora", "email": "dora@example.com"},
+                  {"login": "e", "name": "Alice again", "email": "alice@example.com"}
+                ]
+                """;
+
+        mockMvc.perform(post("/api/users/bulk").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(5))
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.duplicates").value(2))
+                .andExpect(jsonPath("$.invalid").value(1))
+                .andExpect(jsonPath("$.rows[0].status").value("CREATED"))
+                .andExpect(jsonPath("$.rows[1].status").value("DUPLICATE"))
+                .andExpect(jsonPath("$.rows[2].status").value("INVALID"))
+                .andExpect(jsonPath("$.rows[2].message").value("email: Email should be valid, name: Name is required"))
+                .andExpect(jsonPath("$.rows[3].status").value("CREATED"))
+                .andExpect(jsonPath("$.rows[4].status").value("DUPLICATE"));
+
+        assertThat(userRepository.count()).isEqualTo(3);
+    }
+
+    @Test
+    void ndjsonImportKeepsRowsBeforeAMalformedLine() throws Exception {
+        String body = """
+                {"login": "a", "name": "Alice", "email": "alice@example.com"}
+                {"login": "b", "name": "Bob", "email": "bob@example.com"}
+                {"login": "c", "name": "Carl", "email": "carl@example.com"}
+                {"login": "d", "name":
+                """;
+
+        mockMvc.perform(post("/api/users/bulk").contentType(MediaType.APPLICATION_NDJSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(3))
+                .andExpect(jsonPath("$.invalid").value(1))
+                .andExpect(jsonPath("$.rows[3].index").value(3));
+
+        assertThat(userRepository.count()).isEqualTo(3);
+    }
+
+    @Test
+    void emailTakenDuringAChunkOnlyFailsItsRow() throws Exception {
+        // Written after the chunk's uniqueness query and before its flush
+        concurrentUserWriter.arm("race@example.com");
+
+        String body = """
+                [
+                  {"login": "a", "name": "Alice", "email": "alice@example.com"},
+                  {"login": "r", "name": "Racer", "email": "race@example.com"}
+                ]
+                """;
+
+        mockMvc.perform(post("/api/users/bulk").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.duplicates").value(1))
+                .andExpect(jsonPath("$.rows[0].status").value("CREATED"))
+                .andExpect(jsonPath("$.rows[1].status").value("DUPLICATE"));
+
+        assertThat(userRepository.count()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,82 @@
+package com.pyramid.usermanagement.domain.user;
+
+import com.pyramid.usermanagement.domain.user.cache.UserCache;
+import com.pyramid.usermanagement.domain.user.dto.UserCreateDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserUpdateDTO;
+import com.pyramid.usermanagement.domain.user.repository.UserRepository;
+import com.pyramid.usermanagement.domain.user.services.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class UserCacheTests {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void cleanUp() {
+        userRepository.deleteAllInBatch();
+        userCache.invalidateAll();
+    }
+
+    @Test
+    void idAndEmailLookupsShareOneEntry() {
+        UserDTO created = userService.createUser(new UserCreateDTO("jdoe", "John Doe", "jdoe@example.com"));
+
+        UserDTO byId = userService.getUserById(created.Id());
+        double hitsBefore = hits("users.byId");
+        UserDTO byEmail = userService.getUserByEmail("jdoe@example.com");
+
+        assertThat(byEmail).isSameAs(byId);
+        assertThat(hits("users.byId")).isEqualTo(hitsBefore + 1);
+    }
+
+    @Test
+    void committedUpdateIsVisibleThroughBothKeys() {
+        UserDTO created = userService.createUser(new UserCreateDTO("jdoe", "John Doe", "jdoe@example.com"));
+        userService.getUserByEmail("jdoe@example.com");
+
+        userService.updateUser(created.Id(), new UserUpdateDTO("jdoe", "John Updated", "john@example.com"));
+
+        assertThat(userService.getUserById(created.Id()).name()).isEqualTo("John Updated");
+        assertThat(userService.getUserByEmail("john@example.com").Id()).isEqualTo(created.Id());
+    }
+
+    @Test
+    void rolledBackUpdateLeavesCacheUntouched() {
+        UserDTO created = userService.createUser(new UserCreateDTO("jdoe", "John Doe", "jdoe@example.com"));
+        UserDTO cached = userService.getUserById(created.Id());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            userService.updateUser(created.Id(), new UserUpdateDTO("jdoe", "Never Committed", "jdoe2@example.com"));
+            status.setRollbackOnly();
+        });
+
+        assertThat(userService.getUserById(created.Id())).isEqualTo(cached);
+        assertThat(userRepository.findById(created.Id()).orElseThrow().getName()).isEqualTo("John Doe");
+    }
+
+    private double hits(String cacheName) {
+        return meterRegistry.get("cache.gets").tag("cache", cacheName).tag("result", "hit").functionCounter().count();
+    }
+}
@@ -0,0 +1,212 @@
+package com.pyramid.usermanagement.domain.user;
+
+import com.pyramid.usermanagement.domain.user.cache.UserCache;
+import com.pyramid.usermanagement.domain.user.dto.UserChangeEventDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserCreateDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserUpdateDTO;
+import com.pyramid.usermanagement.domain.user.events.UserChangedEvent.ChangeType;
+import com.pyramid.usermanagement.domain.user.repository.UserRepository;
+import com.pyramid.usermanagement.domain.user.services.UserChangeFeedService;
+import com.pyramid.usermanagement.domain.user.services.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "app.users.changes.gapTimeout=PT0.2S",
+        "app.users.changes.maxStreamDuration=PT5S",
+        "app.admission.enabled=false"
+})
+@AutoConfigureMockMvc
+@WithMockUser
+class UserChangeFeedTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserChangeFeedService userChangeFeedService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void cleanUp() {
+        userRepository.deleteAllInBatch();
+        userCache.invalidateAll();
+    }
+
+    @Test
+    void writesAppearInCommitOrderWithTheirUser() {
+        long start = userChangeFeedService.getLastSequence();
+        UserDTO alice = userService.createUser(new UserCreateDTO("alice", "Alice", "alice@example.com"));
+        userService.updateUser(alice.Id(), new UserUpdateDTO("alice", "Alice Smith", "alice@example.com"));
+        userService.deleteUser(alice.Id());
+
+        List<UserChangeEventDTO> events = new ArrayList<>();
+        userChangeFeedService.streamChanges(start, 3, events::addAll);
+
+        assertThat(events).extracting(UserChangeEventDTO::type)
+                .containsExactly(ChangeType.CREATED, ChangeType.UPDATED, ChangeType.DELETED);
+        assertThat(events).extracting(UserChangeEventDTO::userId).containsOnly(alice.Id());
+        assertThat(events).extracting(UserChangeEventDTO::sequence).isSorted().doesNotHaveDuplicates();
+        assertThat(events.get(1).user()).contains("\"name\":\"Alice Smith\"");
+    }
+
+    @Test
+    void rolledBackWriteLeavesNoEvent() {
+        long start = userChangeFeedService.getLastSequence();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            userService.createUser(new UserCreateDTO("ghost", "Ghost", "ghost@example.com"));
+            status.setRollbackOnly();
+        });
+        userService.createUser(new UserCreateDTO("bob", "Bob", "bob@example.com"));
+
+        // Numbers are taken at commit: the rolled-back change leaves no gap behind
+        List<UserChangeEventDTO> events = new ArrayList<>();
+        userChangeFeedService.streamChanges(start, 1, events::addAll);
+
+        assertThat(events).singleElement().satisfies(event -> {
+            assertThat(event.sequence()).isEqualTo(start + 1);
+            assertThat(event.user()).contains("bob@example.com");
+        });
+    }
+
+    @Test
+    void slowTransactionIsDeliveredAfterTheGapTimeout() throws Exception {
+        long start = userChangeFeedService.getLastSequence();
+        double skipped = meterRegistry.get("user.changes.gaps.skipped").counter().count();
+        CountDownLatch written = new CountDownLatch(1);
+        CountDownLatch released = new CountDownLatch(1);
+        List<UserChangeEventDTO> events = new CopyOnWriteArrayList<>();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            Future<?> slow = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                userService.createUser(new UserCreateDTO("slow", "Slow", "slow@example.com"));
+                written.countDown();
+                try {
+                    released.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            assertThat(written.await(10, TimeUnit.SECONDS)).isTrue();
+            Future<?> stream = executor.submit(() -> userChangeFeedService.streamChanges(start, 2, events::addAll));
+            userService.createUser(new UserCreateDTO("fast", "Fast", "fast@example.com"));
+
+            // Commits well after the gap timeout, as a transaction waiting on a lock would
+            Thread.sleep(500);
+            released.countDown();
+            slow.get(10, TimeUnit.SECONDS);
+            stream.get(10, TimeUnit.SECONDS);
+        }
+
+        assertThat(events).extracting(UserChangeEventDTO::sequence).containsExactly(start + 1, start + 2);
+        assertThat(events.get(0).user()).contains("fast@example.com");
+        assertThat(events.get(1).user()).contains("slow@example.com");
+        assertThat(meterRegistry.get("user.changes.gaps.skipped").counter().count()).isEqualTo(skipped);
+    }
+
+    @Test
+    void ndjsonFeedResumesAfterGivenSequence() throws Exception {
+        long start = userChangeFeedService.getLastSequence();
+        userService.createUser(new UserCreateDTO("alice", "Alice", "alice@example.com"));
+        userService.createUser(new UserCreateDTO("bob", "Bob", "bob@example.com"));
+
+        List<String> all = readFeed("/api/users/changes?after=" + start + "&limit=2", MediaType.APPLICATION_NDJSON);
+        assertThat(all).hasSize(2);
+        assertThat(all.get(0)).contains("\"type\":\"CREATED\"", "alice@example.com");
+
+        List<UserChangeEventDTO> first = new ArrayList<>();
+        userChangeFeedService.streamChanges(start, 1, first::addAll);
+
+        List<String> resumed = readFeed("/api/users/changes?after=" + first.get(0).sequence() + "&limit=1", MediaType.APPLICATION_NDJSON);
+        assertThat(resumed).singleElement().asString().contains("bob@example.com");
+    }
+
+    @Test
+    void serverSentEventsCarryTheSequenceAsId() throws Exception {
+        long start = userChangeFeedService.getLastSequence();
+        userService.createUser(new UserCreateDTO("alice", "Alice", "alice@example.com"));
+
+        List<String> lines = readFeed("/api/users/changes?after=" + start + "&limit=1", MediaType.TEXT_EVENT_STREAM);
+
+        assertThat(lines.get(0)).matches("id: \\d+");
+        assertThat(lines.get(1)).isEqualTo("event: CREATED");
+        assertThat(lines.get(2)).startsWith("data: {").contains("alice@example.com");
+    }
+
+    @Test
+    void streamsOpenAtOnceAreNotLimitedByATaskExecutorPool() throws Exception {
+        long start = userChangeFeedService.getLastSequence();
+        int streams = 12;
+
+        List<MvcResult> results = new ArrayList<>();
+        for (int i = 0; i < streams; i++) {
+            results.add(mockMvc.perform(get("/api/users/changes?after=" + start + "&limit=1").accept(MediaType.APPLICATION_NDJSON))
+                    .andExpect(request().asyncStarted())
+                    .andReturn());
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (meterRegistry.get("user.changes.streams").gauge().value() < streams && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(meterRegistry.get("user.changes.streams").gauge().value()).isEqualTo(streams);
+
+        userService.createUser(new UserCreateDTO("alice", "Alice", "alice@example.com"));
+
+        for (MvcResult result : results) {
+            assertThat(mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString())
+                    .contains("alice@example.com");
+        }
+    }
+
+    private List<String> readFeed(String url, MediaType mediaType) throws Exception {
+        MvcResult result = mockMvc.perform(get(url).accept(mediaType))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString()
+                .lines().toList();
+    }
+}
@@ -0,0 +1,152 @@
+package com.pyramid.usermanagement.domain.user;
+
+import com.pyramid.usermanagement.domain.user.cache.UserCache;
+import com.pyramid.usermanagement.domain.user.dto.UserCreateDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserUpdateDTO;
+import com.pyramid.usermanagement.domain.user.model.UserOutboxCounter;
+import com.pyramid.usermanagement.domain.user.repository.UserOutboxCounterRepository;
+import com.pyramid.usermanagement.domain.user.repository.UserRepository;
+import com.pyramid.usermanagement.domain.user.services.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser
+class UserConditionalRequestTests {
+
+    private static final String UPDATE_BODY = """
+            {"login": "alice", "name": "Alice Smith", "email": "alice@example.com"}
+            """;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private UserOutboxCounterRepository outboxCounterRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        userRepository.deleteAllInBatch();
+        userCache.invalidateAll();
+    }
+
+    @Test
+    void unchangedUserIsAnsweredWithNotModified() throws Exception {
+        UserDTO alice = userService.createUser(new UserCreateDTO("alice", "Alice", "alice@example.com"));
+
+        String eTag = mockMvc.perform(get("/api/users/{id}", alice.Id()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andExpect(jsonPath("$.version").doesNotExist())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Both with the user cached and with only the version query available
+        mockMvc.perform(get("/api/users/{id}", alice.Id()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        userCache.invalidateAll();
+        mockMvc.perform(get("/api/users/{id}", alice.Id()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+
+        userService.updateUser(alice.Id(), new UserUpdateDTO("alice", "Alice Smith", "alice@example.com"));
+
+        mockMvc.perform(get("/api/users/{id}", alice.Id()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Alice Smith"));
+    }
+
+    @Test
+    void ifMatchRejectsLostUpdate() throws Exception {
+        UserDTO alice = userService.createUser(new UserCreateDTO("alice", "Alice", "alice@example.com"));
+        String eTag = mockMvc.perform(get("/api/users/{id}", alice.Id()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        String newETag = mockMvc.perform(put("/api/users/{id}", alice.Id()).header(HttpHeaders.IF_MATCH, eTag)
+                        .contentType(MediaType.APPLICATION_JSON).content(UPDATE_BODY))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(eTag, newETag);
+
+        // A second writer still holding the first version must not overwrite the update
+        mockMvc.perform(put("/api/users/{id}", alice.Id()).header(HttpHeaders.IF_MATCH, eTag)
+                        .contentType(MediaType.APPLICATION_JSON).content(UPDATE_BODY))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(put("/api/users/{id}", alice.Id()).header(HttpHeaders.IF_MATCH, "W/" + newETag)
+                        .contentType(MediaType.APPLICATION_JSON).content(UPDATE_BODY))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void pageETagChangesWithAnyWrite() throws Exception {
+        userService.createUser(new UserCreateDTO("alice", "Alice", "alice@example.com"));
+        UserDTO bob = userService.createUser(new UserCreateDTO("bob", "Bob", "bob@example.com"));
+
+        String eTag = mockMvc.perform(get("/api/users/paginated"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/users/paginated").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        userService.deleteUser(bob.Id());
+
+        mockMvc.perform(get("/api/users/paginated").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1));
+    }
+
+    @Test
+    void pageETagIsTheLastOutboxSequenceNumber() throws Exception {
+        userService.createUser(new UserCreateDTO("alice", "Alice", "alice@example.com"));
+        UserDTO bob = userService.createUser(new UserCreateDTO("bob", "Bob", "bob@example.com"));
+        long sequence = outboxCounterRepository.findLastSequence(UserOutboxCounter.ID).orElseThrow();
+
+        String eTag = mockMvc.perform(get("/api/users/paginated"))
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"" + sequence + "\""))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Same count and same latest modification as before, which a count@date stamp could not tell apart
+        userService.deleteUser(bob.Id());
+        UserDTO carol = userService.createUser(new UserCreateDTO("carol", "Carol", "carol@example.com"));
+        jdbcTemplate.update("update users set last_modified_date = ? where id = ?", bob.lastModifiedDate(), carol.Id());
+
+        mockMvc.perform(get("/api/users/paginated").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"" + (sequence + 2) + "\""))
+                .andExpect(jsonPath("$.content[1].login").value("carol"));
+    }
+}
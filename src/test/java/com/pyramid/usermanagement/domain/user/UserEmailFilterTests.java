@@ -0,0 +1,141 @@
+package com.pyramid.usermanagement.domain.user;
+
+import com.pyramid.usermanagement.core.exceptions.EmailAlreadyExistException;
+import com.pyramid.usermanagement.domain.user.cache.UserCache;
+import com.pyramid.usermanagement.domain.user.cache.UserEmailFilter;
+import com.pyramid.usermanagement.domain.user.dto.BulkImportResultDTO;
+import com.pyramid.usermanagement.domain.user.dto.BulkImportRowDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserCreateDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserDTO;
+import com.pyramid.usermanagement.domain.user.model.AppUser;
+import com.pyramid.usermanagement.domain.user.repository.UserRepository;
+import com.pyramid.usermanagement.domain.user.services.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class UserEmailFilterTests {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserEmailFilter userEmailFilter;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        awaitFilterReady();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        userRepository.deleteAllInBatch();
+        userCache.invalidateAll();
+    }
+
+    @Test
+    void newEmailSkipsTheExistenceQuery() {
+        double skipped = filterChecks("skipped");
+
+        userService.createUser(new UserCreateDTO("alice", "Alice", "alice@example.com"));
+
+        assertThat(filterChecks("skipped")).isEqualTo(skipped + 1);
+        assertThat(userEmailFilter.mightExist("alice@example.com")).isTrue();
+    }
+
+    @Test
+    void takenEmailIsStillRejected() {
+        userService.createUser(new UserCreateDTO("alice", "Alice", "alice@example.com"));
+
+        assertThrows(EmailAlreadyExistException.class,
+                () -> userService.createUser(new UserCreateDTO("alice2", "Alice", "ALICE@example.com")));
+    }
+
+    @Test
+    void emailTheFilterHasNotSeenIsRejectedByTheConstraint() {
+        saveBehindTheFilter("bob@example.com");
+
+        assertThrows(EmailAlreadyExistException.class,
+                () -> userService.createUser(new UserCreateDTO("bob2", "Bob", "bob@example.com")));
+    }
+
+    @Test
+    void rebuildForgetsDeletedEmails() {
+        UserDTO carol = userService.createUser(new UserCreateDTO("carol", "Carol", "carol@example.com"));
+        userService.deleteUser(carol.Id());
+        assertThat(userEmailFilter.mightExist("carol@example.com")).isTrue();
+
+        userEmailFilter.rebuild();
+
+        assertThat(userEmailFilter.mightExist("carol@example.com")).isFalse();
+    }
+
+    @Test
+    void bulkImportStillReportsDuplicates() {
+        userService.createUser(new UserCreateDTO("dave", "Dave", "dave@example.com"));
+
+        BulkImportResultDTO result = userService.importUsers(List.of(
+                new UserCreateDTO("dave2", "Dave", "Dave@example.com"),
+                new UserCreateDTO("erin", "Erin", "erin@example.com")).iterator());
+
+        assertThat(result.created()).isEqualTo(1);
+        assertThat(result.duplicates()).isEqualTo(1);
+    }
+
+    @Test
+    void bulkImportReportsEmailsTheFilterHasNotSeenAsDuplicates() {
+        saveBehindTheFilter("frank@example.com");
+
+        BulkImportResultDTO result = userService.importUsers(List.of(
+                new UserCreateDTO("gina", "Gina", "gina@example.com"),
+                new UserCreateDTO("frank2", "Frank", "Frank@example.com"),
+                new UserCreateDTO("hugo", "Hugo", "hugo@example.com")).iterator());
+
+        assertThat(result.created()).isEqualTo(2);
+        assertThat(result.duplicates()).isEqualTo(1);
+        assertThat(result.rows().get(1).status()).isEqualTo(BulkImportRowDTO.Status.DUPLICATE);
+        assertThat(userRepository.count()).isEqualTo(3);
+    }
+
+    // As if written by another instance: no event reaches this instance's filter
+    private void saveBehindTheFilter(String email) {
+        AppUser user = new AppUser();
+        user.setLogin("other");
+        user.setName("Other");
+        user.setEmail(email);
+        user.setCreatedDate(LocalDateTime.now());
+        userRepository.saveAndFlush(user);
+        assertThat(userEmailFilter.mightExist(email)).isFalse();
+    }
+
+    private double filterChecks(String outcome) {
+        return meterRegistry.get("user.emails.filter").tag("outcome", outcome).counter().count();
+    }
+
+    private void awaitFilterReady() throws InterruptedException {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (!userEmailFilter.isReady() && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(userEmailFilter.isReady()).isTrue();
+    }
+}
@@ -0,0 +1,69 @@
+package com.pyramid.usermanagement.domain.user;
+
+import com.pyramid.usermanagement.domain.user.services.UserService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Starts on a users table from before the email key, holding two emails that differ only in case.
+ */
+@SpringBootTest(properties = "spring.datasource.url=" + UserEmailKeyBackfillTests.LEGACY_URL)
+class UserEmailKeyBackfillTests {
+
+    static final String LEGACY_URL = "jdbc:h2:mem:legacy-users;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Before the context starts, as a database upgraded in place would be
+    @BeforeAll
+    static void createLegacyTable() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(LEGACY_URL, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    create table users (
+                        id bigint primary key, login varchar(255) not null, name varchar(255) not null,
+                        email varchar(255) not null, created_date timestamp(6), last_modified_date timestamp(6), version bigint)
+                    """);
+            statement.execute("""
+                    insert into users values
+                        (1, 'alice', 'Alice', 'Alice@Example.com', current_timestamp, current_timestamp, 0),
+                        (2, 'alice2', 'Alice', ' alice@example.COM', current_timestamp, current_timestamp, 0),
+                        (3, 'bob', 'Bob', 'bob@example.com', current_timestamp, current_timestamp, 0)
+                    """);
+        }
+    }
+
+    @Test
+    void legacyUsersGetAnEmailKeyBeforeItIsConstrained() {
+        assertThat(jdbcTemplate.queryForList("select email_key from users order by id", String.class))
+                .containsExactly("alice@example.com", "alice@example.com#2", "bob@example.com");
+
+        // The oldest of the two keeps the email; the other is still there by id
+        assertThat(userService.getUserByEmail("ALICE@example.com").Id()).isEqualTo(1L);
+        assertThat(userService.getUserById(2L).email()).isEqualTo(" alice@example.COM");
+        assertThat(userService.getUserByEmail("bob@example.com").Id()).isEqualTo(3L);
+
+        assertThatThrownBy(() -> jdbcTemplate.update("insert into users (id, login, name, email, created_date) "
+                + "values (4, 'carol', 'Carol', 'carol@example.com', current_timestamp)"))
+                .isInstanceOf(DataIntegrityViolationException.class);
+        assertThatThrownBy(() -> jdbcTemplate.update("insert into users (id, login, name, email, email_key, created_date) "
+                + "values (4, 'bob2', 'Bob', 'BOB@example.com', 'bob@example.com', current_timestamp)"))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+}
@@ -0,0 +1,83 @@
+package com.pyramid.usermanagement.domain.user;
+
+import com.pyramid.usermanagement.core.exceptions.EmailAlreadyExistException;
+import com.pyramid.usermanagement.domain.user.cache.UserCache;
+import com.pyramid.usermanagement.domain.user.dto.UserCreateDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserUpdateDTO;
+import com.pyramid.usermanagement.domain.user.model.AppUser;
+import com.pyramid.usermanagement.domain.user.repository.UserRepository;
+import com.pyramid.usermanagement.domain.user.services.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class UserEmailKeyTests {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserCache userCache;
+
+    @AfterEach
+    void cleanUp() {
+        userRepository.deleteAllInBatch();
+        userCache.invalidateAll();
+    }
+
+    @Test
+    void createRejectsEmailDifferingOnlyInCase() {
+        userService.createUser(new UserCreateDTO("alice", "Alice", "Alice@Example.com"));
+
+        assertThrows(EmailAlreadyExistException.class,
+                () -> userService.createUser(new UserCreateDTO("alice2", "Alice", " alice@example.COM ")));
+    }
+
+    @Test
+    void lookupIgnoresCaseAndKeepsStoredSpelling() {
+        UserDTO created = userService.createUser(new UserCreateDTO("alice", "Alice", "Alice@Example.com"));
+
+        UserDTO found = userService.getUserByEmail("ALICE@example.com");
+
+        assertEquals(created.Id(), found.Id());
+        assertEquals("Alice@Example.com", found.email());
+        assertEquals(created.Id(), userService.getUserByEmail("alice@example.com").Id());
+    }
+
+    @Test
+    void updateAllowsChangingCaseOfOwnEmailButNotTakingAnother() {
+        UserDTO alice = userService.createUser(new UserCreateDTO("alice", "Alice", "alice@example.com"));
+        userService.createUser(new UserCreateDTO("bob", "Bob", "bob@example.com"));
+
+        UserDTO updated = userService.updateUser(alice.Id(), new UserUpdateDTO("alice", "Alice", "ALICE@example.com"));
+        assertEquals("ALICE@example.com", updated.email());
+
+        assertThrows(EmailAlreadyExistException.class,
+                () -> userService.updateUser(alice.Id(), new UserUpdateDTO("alice", "Alice", "Bob@Example.com")));
+    }
+
+    @Test
+    void uniqueConstraintIsOnNormalizedKey() {
+        userService.createUser(new UserCreateDTO("alice", "Alice", "alice@example.com"));
+
+        AppUser duplicate = new AppUser();
+        duplicate.setLogin("alice2");
+        duplicate.setName("Alice");
+        duplicate.setEmail("ALICE@EXAMPLE.COM");
+        duplicate.setCreatedDate(LocalDateTime.now());
+
+        assertThrows(DataIntegrityViolationException.class, () -> userRepository.saveAndFlush(duplicate));
+    }
+}
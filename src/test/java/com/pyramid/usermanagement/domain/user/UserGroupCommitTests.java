@@ -0,0 +1,135 @@
+package com.pyramid.usermanagement.domain.user;
+
+import com.pyramid.usermanagement.core.exceptions.EmailAlreadyExistException;
+import com.pyramid.usermanagement.domain.user.cache.UserCache;
+import com.pyramid.usermanagement.domain.user.dto.UserCreateDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserDTO;
+import com.pyramid.usermanagement.domain.user.repository.UserRepository;
+import com.pyramid.usermanagement.domain.user.services.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = {"app.users.groupCommit.enabled=true", "app.users.groupCommit.maxDelay=PT0.05S"})
+@Import(ConcurrentUserWriter.class)
+class UserGroupCommitTests {
+
+    private static final int CALLERS = 40;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ConcurrentUserWriter concurrentUserWriter;
+
+    @AfterEach
+    void cleanUp() {
+        userRepository.deleteAllInBatch();
+        userCache.invalidateAll();
+    }
+
+    @Test
+    void concurrentCreatesAreWrittenInGroups() throws Exception {
+        double batches = batches();
+
+        List<Future<UserDTO>> results = new ArrayList<>(CALLERS);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CALLERS; i++) {
+                UserCreateDTO user = new UserCreateDTO("group" + i, "Group " + i, "group" + i + "@example.com");
+                results.add(executor.submit(() -> userService.createUser(user)));
+            }
+        }
+
+        for (int i = 0; i < CALLERS; i++) {
+            UserDTO created = results.get(i).get(10, TimeUnit.SECONDS);
+            assertThat(created.Id()).isNotNull();
+            assertThat(created.email()).isEqualTo("group" + i + "@example.com");
+        }
+        assertThat(userRepository.count()).isEqualTo(CALLERS);
+        assertThat(batches() - batches).isLessThan(CALLERS);
+    }
+
+    @Test
+    void duplicateEmailOnlyFailsItsOwnCaller() throws Exception {
+        userService.createUser(new UserCreateDTO("taken", "Taken", "taken@example.com"));
+
+        List<Future<UserDTO>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (String email : List.of("a@example.com", "TAKEN@example.com", "b@example.com", "a@example.com")) {
+                results.add(executor.submit(() -> userService.createUser(new UserCreateDTO("user", "User", email))));
+            }
+        }
+
+        List<String> outcomes = new ArrayList<>();
+        for (Future<UserDTO> result : results) {
+            try {
+                outcomes.add(result.get(10, TimeUnit.SECONDS).email());
+            } catch (ExecutionException e) {
+                assertThat(e).hasCauseInstanceOf(EmailAlreadyExistException.class);
+                outcomes.add("conflict");
+            }
+        }
+        assertThat(outcomes).containsExactlyInAnyOrder("a@example.com", "conflict", "b@example.com", "conflict");
+        assertThat(userRepository.count()).isEqualTo(3);
+    }
+
+    @Test
+    void emailTakenConcurrentlyOnlyFailsItsOwnCaller() throws Exception {
+        // Written by another writer while a group is being inserted, after its uniqueness query
+        concurrentUserWriter.arm("race@example.com");
+
+        List<Future<UserDTO>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (String email : List.of("c@example.com", "race@example.com", "d@example.com")) {
+                results.add(executor.submit(() -> userService.createUser(new UserCreateDTO("user", "User", email))));
+            }
+        }
+
+        assertThat(results.get(0).get(10, TimeUnit.SECONDS).email()).isEqualTo("c@example.com");
+        ExecutionException conflict = assertThrows(ExecutionException.class, () -> results.get(1).get(10, TimeUnit.SECONDS));
+        assertThat(conflict).hasCauseInstanceOf(EmailAlreadyExistException.class);
+        assertThat(results.get(2).get(10, TimeUnit.SECONDS).email()).isEqualTo("d@example.com");
+        assertThat(userRepository.count()).isEqualTo(3);
+    }
+
+    @Test
+    void createInsideCallerTransactionRollsBackWithIt() {
+        transactionTemplate.executeWithoutResult(status -> {
+            userService.createUser(new UserCreateDTO("ghost", "Ghost", "ghost@example.com"));
+            status.setRollbackOnly();
+        });
+
+        assertThat(userRepository.count()).isZero();
+    }
+
+    private double batches() {
+        return meterRegistry.get("groupcommit.batches").tag("name", "users.create").counter().count();
+    }
+}
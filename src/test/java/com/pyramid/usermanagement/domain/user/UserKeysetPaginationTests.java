@@ -0,0 +1,132 @@
+package com.pyramid.usermanagement.domain.user;
+
+import com.pyramid.usermanagement.core.exceptions.InvalidRequestException;
+import com.pyramid.usermanagement.domain.user.dto.UserCursorPageDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserDTO;
+import com.pyramid.usermanagement.domain.user.model.AppUser;
+import com.pyramid.usermanagement.domain.user.repository.UserRepository;
+import com.pyramid.usermanagement.domain.user.services.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class UserKeysetPaginationTests {
+
+    private static final int USER_COUNT = 57;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seedUsers() {
+        List<AppUser> users = new ArrayList<>(USER_COUNT);
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 0, 0);
+        for (int i = 0; i < USER_COUNT; i++) {
+            AppUser user = new AppUser();
+            // Duplicate names and dates exercise the id tie-breaker
+            user.setLogin("login" + i);
+            user.setName("User " + (i % 5));
+            user.setEmail("user" + i + "@example.com");
+            user.setCreatedDate(base.plusDays(i % 7));
+            users.add(user);
+        }
+        userRepository.saveAll(users);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        userRepository.deleteAllInBatch();
+    }
+
+    @ParameterizedTest
+    @CsvSource({"id,ASC", "login,DESC", "name,ASC", "name,DESC", "createdDate,ASC", "createdDate,DESC"})
+    void walkingAllCursorsYieldsTheOffsetOrdering(String sortBy, Sort.Direction direction) {
+        Sort.Order order = new Sort.Order(direction, sortBy);
+        Sort sort = "id".equals(sortBy) ? Sort.by(order) : Sort.by(order).and(Sort.by(direction, "id"));
+        List<UserDTO> expected = userService.getAllUsersPaginated(PageRequest.of(0, USER_COUNT, sort)).getContent();
+
+        List<UserDTO> walked = new ArrayList<>();
+        String cursor = null;
+        UserCursorPageDTO page;
+        do {
+            page = userService.getUsersByCursor(cursor, 10, order);
+            walked.addAll(page.content());
+            cursor = page.nextCursor();
+        } while (page.hasNext());
+
+        assertThat(walked).isEqualTo(expected);
+    }
+
+    @Test
+    void cursorIsBoundToItsSortOrder() {
+        String cursor = userService.getUsersByCursor(null, 10, Sort.Order.asc("login")).nextCursor();
+
+        assertThatThrownBy(() -> userService.getUsersByCursor(cursor, 10, Sort.Order.desc("login")))
+                .isInstanceOf(InvalidRequestException.class);
+        assertThatThrownBy(() -> userService.getUsersByCursor("not-a-cursor", 10, Sort.Order.asc("login")))
+                .isInstanceOf(InvalidRequestException.class);
+    }
+
+    @Test
+    void pageSizeIsCapped() {
+        assertThat(userService.getUsersByCursor(null, 1000, Sort.Order.asc("id")).content()).hasSize(USER_COUNT);
+
+        assertThatThrownBy(() -> userService.getUsersByCursor(null, 1001, Sort.Order.asc("id")))
+                .isInstanceOf(InvalidRequestException.class)
+                .hasMessage("At most 1000 users can be fetched per page");
+    }
+
+    @Test
+    void usersStoredWithoutACreationDateAreBackfilledAndPaged() {
+        LocalDateTime modified = LocalDateTime.of(2025, 1, 3, 12, 0);
+        // As in a schema from before the constraint
+        jdbcTemplate.execute("alter table users alter column created_date set null");
+        try {
+            jdbcTemplate.update("insert into users (id, login, name, email, email_key, last_modified_date, version) values (-1, 'legacy1', 'Legacy', 'legacy1@example.com', 'legacy1@example.com', ?, 0)",
+                    Timestamp.valueOf(modified));
+            jdbcTemplate.update("insert into users (id, login, name, email, email_key, version) values (-2, 'legacy2', 'Legacy', 'legacy2@example.com', 'legacy2@example.com', 0)");
+
+            assertThat(userRepository.backfillCreatedDates(LocalDateTime.of(2030, 1, 1, 0, 0))).isEqualTo(2);
+        } finally {
+            jdbcTemplate.execute("alter table users alter column created_date set not null");
+        }
+
+        List<UserDTO> walked = new ArrayList<>();
+        String cursor = null;
+        UserCursorPageDTO page;
+        do {
+            page = userService.getUsersByCursor(cursor, 10, Sort.Order.asc("createdDate"));
+            walked.addAll(page.content());
+            cursor = page.nextCursor();
+        } while (page.hasNext());
+
+        assertThat(walked).hasSize(USER_COUNT + 2);
+        assertThat(walked.get(walked.size() - 1).login()).isEqualTo("legacy2");
+        assertThat(walked).filteredOn(user -> user.login().equals("legacy1"))
+                .singleElement()
+                .extracting(UserDTO::createdDate)
+                .isEqualTo(modified);
+    }
+}
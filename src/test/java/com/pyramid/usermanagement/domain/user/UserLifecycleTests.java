@@ -0,0 +1,150 @@
+package com.pyramid.usermanagement.domain.user;
+
+import com.pyramid.usermanagement.core.exceptions.ResourceNotFoundException;
+import com.pyramid.usermanagement.domain.user.cache.UserCache;
+import com.pyramid.usermanagement.domain.user.dto.UserChangeEventDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserCreateDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserUpdateDTO;
+import com.pyramid.usermanagement.domain.user.events.UserChangedEvent;
+import com.pyramid.usermanagement.domain.user.model.ArchivedUser;
+import com.pyramid.usermanagement.domain.user.repository.ArchivedUserRepository;
+import com.pyramid.usermanagement.domain.user.repository.UserOutboxRepository;
+import com.pyramid.usermanagement.domain.user.repository.UserRepository;
+import com.pyramid.usermanagement.domain.user.services.UserService;
+import com.pyramid.usermanagement.domain.user.services.implement.UserLifecycleJob;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "app.users.lifecycle.inactiveAfter=P365D",
+        "app.users.lifecycle.chunkSize=2",
+        "app.users.lifecycle.chunkPause=PT0S",
+        "app.users.batchLookup.chunkSize=2"
+})
+@AutoConfigureMockMvc
+@WithMockUser
+class UserLifecycleTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserLifecycleJob userLifecycleJob;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ArchivedUserRepository archivedUserRepository;
+
+    @Autowired
+    private UserOutboxRepository userOutboxRepository;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void cleanUp() {
+        userRepository.deleteAllInBatch();
+        archivedUserRepository.deleteAllInBatch();
+        userCache.invalidateAll();
+    }
+
+    @Test
+    void inactiveUsersAreArchivedInChunks() {
+        List<UserDTO> inactive = IntStream.range(0, 5)
+                .mapToObj(i -> userService.createUser(new UserCreateDTO("old" + i, "Old " + i, "old" + i + "@example.com")))
+                .toList();
+        UserDTO recent = userService.createUser(new UserCreateDTO("recent", "Recent", "recent@example.com"));
+        UserDTO revived = userService.createUser(new UserCreateDTO("revived", "Revived", "revived@example.com"));
+        LocalDateTime twoYearsAgo = LocalDateTime.now().minusYears(2);
+        inactive.forEach(user -> backdate(user.Id(), twoYearsAgo));
+        backdate(revived.Id(), twoYearsAgo);
+        userService.updateUser(revived.Id(), new UserUpdateDTO("revived", "Revived Again", "revived@example.com"));
+        // Cached before the run: the archived user must not be served from the cache afterwards
+        userService.getUserById(inactive.getFirst().Id());
+        long lastSequence = userOutboxRepository.findLastSequenceNumber();
+
+        assertThat(userLifecycleJob.runOnce()).isEqualTo(5);
+
+        assertThat(userRepository.findAll()).extracting("id").containsExactlyInAnyOrder(recent.Id(), revived.Id());
+        assertThat(archivedUserRepository.findAll())
+                .extracting(ArchivedUser::getId)
+                .containsExactlyInAnyOrderElementsOf(inactive.stream().map(UserDTO::Id).toList());
+        assertThat(archivedUserRepository.findById(inactive.getFirst().Id())).hasValueSatisfying(archived -> {
+            assertThat(archived.getEmail()).isEqualTo("old0@example.com");
+            assertThat(archived.getArchivedAt()).isAfter(twoYearsAgo);
+        });
+        assertThatThrownBy(() -> userService.getUserById(inactive.getFirst().Id())).isInstanceOf(ResourceNotFoundException.class);
+        assertThat(userOutboxRepository.findEventsAfter(lastSequence, Limit.of(100)))
+                .extracting(UserChangeEventDTO::type)
+                .containsOnly(UserChangedEvent.ChangeType.DELETED)
+                .hasSize(5);
+        assertThat(meterRegistry.get("user.lifecycle.users").tag("action", "archived").counter().count()).isEqualTo(5);
+        assertThat(meterRegistry.get("user.lifecycle.chunks").tag("outcome", "committed").counter().count()).isGreaterThanOrEqualTo(3);
+
+        // Nothing left to do, and the archived emails are free again
+        assertThat(userLifecycleJob.runOnce()).isZero();
+        userService.createUser(new UserCreateDTO("old0", "Old 0", "old0@example.com"));
+    }
+
+    @Test
+    void bulkDeleteReportsUnknownIds() throws Exception {
+        List<UserDTO> users = IntStream.range(0, 3)
+                .mapToObj(i -> userService.createUser(new UserCreateDTO("user" + i, "User " + i, "user" + i + "@example.com")))
+                .toList();
+        String body = "[%d, %d, -1, %d, %d]".formatted(users.get(0).Id(), users.get(2).Id(), users.get(0).Id(), users.get(1).Id());
+
+        mockMvc.perform(post("/api/users/batch/delete").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.requested").value(4))
+                .andExpect(jsonPath("$.deleted").value(3))
+                .andExpect(jsonPath("$.notFound").value(-1));
+
+        assertThat(userRepository.count()).isZero();
+        assertThat(archivedUserRepository.count()).isZero();
+    }
+
+    @Test
+    void bulkDeleteIsBounded() throws Exception {
+        String body = IntStream.rangeClosed(1, 5001).mapToObj(Integer::toString).toList().toString();
+
+        mockMvc.perform(post("/api/users/batch/delete").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isBadRequest());
+    }
+
+    private void backdate(Long id, LocalDateTime date) {
+        jdbcTemplate.update("update users set created_date = ?, last_modified_date = ? where id = ?",
+                Timestamp.valueOf(date), Timestamp.valueOf(date), id);
+    }
+}
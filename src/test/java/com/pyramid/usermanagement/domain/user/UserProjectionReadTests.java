@@ -0,0 +1,100 @@
+package com.pyramid.usermanagement.domain.user;
+
+import com.pyramid.usermanagement.domain.user.cache.UserCache;
+import com.pyramid.usermanagement.domain.user.dto.UserCreateDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserLookupDTO;
+import com.pyramid.usermanagement.domain.user.model.AppUser;
+import com.pyramid.usermanagement.domain.user.repository.UserRepository;
+import com.pyramid.usermanagement.domain.user.services.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The projection-based read path must return exactly what mapping managed entities returned.
+ */
+@SpringBootTest
+class UserProjectionReadTests {
+
+    private static final int USER_COUNT = 12;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserCache userCache;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < USER_COUNT; i++) {
+            userService.createUser(new UserCreateDTO("login" + i, "User " + (i % 4), "user" + i + "@example.com"));
+        }
+        userCache.invalidateAll();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        userRepository.deleteAllInBatch();
+        userCache.invalidateAll();
+    }
+
+    @Test
+    void listAndStreamMatchEntityPath() {
+        List<UserDTO> expected = toDtos(userRepository.findAll(Sort.by("id")));
+
+        List<UserDTO> all = new ArrayList<>(userService.getAllUsers());
+        all.sort(Comparator.comparing(UserDTO::Id));
+        List<UserDTO> streamed = new ArrayList<>();
+        userService.streamAllUsers(streamed::add);
+
+        assertEquals(expected, all);
+        assertEquals(expected, streamed);
+    }
+
+    @Test
+    void pagesMatchEntityPath() {
+        PageRequest pageable = PageRequest.of(1, 5, Sort.by(Sort.Order.desc("name"), Sort.Order.asc("id")));
+
+        Page<AppUser> expected = userRepository.findAll(pageable);
+        Page<UserDTO> actual = userService.getAllUsersPaginated(pageable);
+
+        assertEquals(toDtos(expected.getContent()), actual.getContent());
+        assertEquals(expected.getTotalElements(), actual.getTotalElements());
+        assertEquals(expected.getTotalPages(), actual.getTotalPages());
+    }
+
+    @Test
+    void lookupsMatchEntityPath() {
+        List<UserDTO> expected = toDtos(userRepository.findAll(Sort.by("id")));
+        UserDTO first = expected.get(0);
+
+        assertEquals(first, userService.getUserById(first.Id()));
+        assertEquals(first, userService.getUserByEmail(first.email()));
+        assertEquals(expected, userService.getUsersByIds(expected.stream().map(UserDTO::Id).toList())
+                .stream().map(UserLookupDTO::user).toList());
+        assertEquals(expected, userService.getUsersByEmails(expected.stream().map(UserDTO::email).toList())
+                .stream().map(UserLookupDTO::user).toList());
+    }
+
+    private static List<UserDTO> toDtos(List<AppUser> users) {
+        return users.stream()
+                .map(user -> new UserDTO(user.getId(), user.getLogin(), user.getName(), user.getEmail(), user.getCreatedDate(),
+                        user.getLastModifiedDate(), user.getVersion()))
+                .toList();
+    }
+}
@@ -0,0 +1,141 @@
+package com.pyramid.usermanagement.domain.user;
+
+import com.pyramid.usermanagement.core.exceptions.InvalidRequestException;
+import com.pyramid.usermanagement.domain.user.cache.UserCache;
+import com.pyramid.usermanagement.domain.user.dto.UserCreateDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserUpdateDTO;
+import com.pyramid.usermanagement.domain.user.repository.UserRepository;
+import com.pyramid.usermanagement.domain.user.search.UserSearchIndexer;
+import com.pyramid.usermanagement.domain.user.services.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.NestedTestConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "app.users.search.maxResults=50")
+@AutoConfigureMockMvc
+@WithMockUser
+class UserSearchTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserSearchIndexer userSearchIndexer;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserCache userCache;
+
+    @BeforeEach
+    void awaitIndex() throws InterruptedException {
+        awaitIndexReady();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        userRepository.deleteAllInBatch();
+        userCache.invalidateAll();
+    }
+
+    @Test
+    void searchReturnsBestMatchesFirst() throws Exception {
+        userService.createUser(new UserCreateDTO("wrenfield", "Wren Field", "wren.field@example.com"));
+        userService.createUser(new UserCreateDTO("jwren", "Jane Wren", "jane@example.com"));
+        userService.createUser(new UserCreateDTO("awrenna", "Anna", "anna@example.com"));
+
+        mockMvc.perform(get("/api/users/search").param("q", "Wren"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(3))
+                .andExpect(jsonPath("$.content[0].login").value("wrenfield"))
+                .andExpect(jsonPath("$.content[1].login").value("jwren"))
+                .andExpect(jsonPath("$.content[2].login").value("awrenna"));
+    }
+
+    @Test
+    void committedChangesAreSearchable() {
+        UserDTO user = userService.createUser(new UserCreateDTO("quillon", "Quill", "quillon@example.com"));
+        userService.updateUser(user.Id(), new UserUpdateDTO("quillon", "Quill Zephyrine", "quillon@example.com"));
+
+        assertThat(userService.searchUsers("zephyr", PageRequest.of(0, 10)).getContent())
+                .extracting(UserDTO::Id).containsExactly(user.Id());
+
+        userService.deleteUser(user.Id());
+
+        assertThat(userService.searchUsers("zephyr", PageRequest.of(0, 10)).getContent()).isEmpty();
+    }
+
+    @Test
+    void rejectsBlankQueriesAndPagesBeyondTheResultWindow() throws Exception {
+        mockMvc.perform(get("/api/users/search").param("q", "  "))
+                .andExpect(status().isBadRequest());
+
+        assertThatThrownBy(() -> userService.searchUsers("user", PageRequest.of(3, 20)))
+                .isInstanceOf(InvalidRequestException.class);
+    }
+
+    @Test
+    void databaseFallbackMatchesLiteralWildcards() {
+        userService.createUser(new UserCreateDTO("percy_1", "Percy", "percy@example.com"));
+        userService.createUser(new UserCreateDTO("percy21", "Percy Two", "percy2@example.com"));
+
+        // What the service runs for "CY_1" while the index is unavailable
+        Page<UserDTO> page = userRepository.searchDtos("%cy!_1%", PageRequest.of(0, 10));
+
+        assertThat(page.getTotalElements()).isEqualTo(1);
+        assertThat(page.getContent()).extracting(UserDTO::login).containsExactly("percy_1");
+    }
+
+    @Nested
+    @NestedTestConfiguration(NestedTestConfiguration.EnclosingConfiguration.OVERRIDE)
+    @SpringBootTest(properties = "app.users.search.enabled=false")
+    class WithoutTheIndex {
+
+        @Autowired
+        private UserService userService;
+
+        @Test
+        void databaseFallbackMatchesWhatTheIndexWould() {
+            userService.createUser(new UserCreateDTO("alfred", "Alfred", "alfred@example.com"));
+            userService.createUser(new UserCreateDTO("hal", "Bob Al", "hal@example.com"));
+
+            // Too short for trigrams: prefixes only
+            assertThat(userService.searchUsers("AL", PageRequest.of(0, 10)).getContent())
+                    .extracting(UserDTO::login).containsExactly("alfred");
+            assertThat(userService.searchUsers("b a", PageRequest.of(0, 10)).getContent())
+                    .extracting(UserDTO::login).containsExactly("hal");
+            assertThat(userService.searchUsers("fre", PageRequest.of(0, 10)).getContent())
+                    .extracting(UserDTO::login).containsExactly("alfred");
+            assertThat(userService.searchUsers("hal@", PageRequest.of(0, 10)).getContent())
+                    .extracting(UserDTO::login).containsExactly("hal");
+        }
+    }
+
+    private void awaitIndexReady() throws InterruptedException {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (!userSearchIndexer.isReady() && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(userSearchIndexer.isReady()).isTrue();
+    }
+}
@@ -0,0 +1,176 @@
+package com.pyramid.usermanagement.domain.user;
+
+import com.pyramid.usermanagement.core.exceptions.ResourceNotFoundException;
+import com.pyramid.usermanagement.domain.user.cache.UserCache;
+import com.pyramid.usermanagement.domain.user.dto.UserCreateDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserDTO;
+import com.pyramid.usermanagement.domain.user.repository.UserRepository;
+import com.pyramid.usermanagement.domain.user.services.UserService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Concurrent cache misses for one key, through the service: the single lookups are held at the repository until
+ * every other caller has joined them, then counted.
+ */
+@SpringBootTest
+class UserSingleFlightTests {
+
+    private static final int CALLERS = 32;
+    private static final Set<String> LOOKUPS = Set.of("findDtoById", "findDtoByEmailKey");
+
+    private static final AtomicInteger lookups = new AtomicInteger();
+    private static volatile CountDownLatch release = new CountDownLatch(0);
+
+    @TestConfiguration
+    static class GatedLookups {
+
+        @Bean
+        static BeanPostProcessor gateUserLookups() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!(bean instanceof UserRepository)) {
+                        return bean;
+                    }
+                    ProxyFactory proxyFactory = new ProxyFactory();
+                    proxyFactory.setTarget(bean);
+                    proxyFactory.addInterface(UserRepository.class);
+                    proxyFactory.addAdvice((MethodInterceptor) invocation -> {
+                        if (LOOKUPS.contains(invocation.getMethod().getName())) {
+                            lookups.incrementAndGet();
+                            release.await(10, TimeUnit.SECONDS);
+                        }
+                        return invocation.proceed();
+                    });
+                    return proxyFactory.getProxy();
+                }
+            };
+        }
+    }
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void cleanUp() {
+        release.countDown();
+        userRepository.deleteAllInBatch();
+        userCache.invalidateAll();
+    }
+
+    @Test
+    void concurrentMissesByIdRunOneQuery() throws Exception {
+        UserDTO alice = userService.createUser(new UserCreateDTO("alice", "Alice", "alice@example.com"));
+        userCache.invalidateAll();
+
+        List<Future<UserDTO>> results = callConcurrently("users.byId", () -> userService.getUserById(alice.Id()));
+
+        for (Future<UserDTO> result : results) {
+            assertThat(result.get(10, TimeUnit.SECONDS).email()).isEqualTo("alice@example.com");
+        }
+        assertThat(lookups.get()).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentMissesByEmailRunOneQuery() throws Exception {
+        List<Future<UserDTO>> results = callConcurrently("users.byEmail", () -> userService.getUserByEmail("nobody@example.com"));
+
+        for (Future<UserDTO> result : results) {
+            assertThatThrownBy(() -> result.get(10, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(ResourceNotFoundException.class);
+        }
+        assertThat(lookups.get()).isEqualTo(1);
+    }
+
+    @Test
+    void lookupStartedBeforeAnInvalidationIsNotCachedByCallersJoiningAfterIt() throws Exception {
+        UserDTO alice = userService.createUser(new UserCreateDTO("alice", "Alice", "alice@example.com"));
+        userCache.invalidateAll();
+        double coalesced = coalesced("users.byId");
+        lookups.set(0);
+        release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        Future<UserDTO> leader = executor.submit(() -> userService.getUserById(alice.Id()));
+        awaitUntil(() -> lookups.get() == 1);
+
+        // The row read may predate the write behind this invalidation, whoever ends up holding it
+        userCache.invalidateAll();
+        Future<UserDTO> follower = executor.submit(() -> userService.getUserById(alice.Id()));
+        awaitUntil(() -> coalesced("users.byId") - coalesced == 1);
+        release.countDown();
+        executor.shutdown();
+
+        assertThat(leader.get(10, TimeUnit.SECONDS).Id()).isEqualTo(alice.Id());
+        assertThat(follower.get(10, TimeUnit.SECONDS).Id()).isEqualTo(alice.Id());
+        assertThat(lookups.get()).isEqualTo(1);
+        assertThat(userCache.peekById(alice.Id())).isNull();
+    }
+
+    // Releases the held lookup once the other callers wait for it
+    private <T> List<Future<T>> callConcurrently(String flight, Callable<T> call) throws InterruptedException {
+        double coalesced = coalesced(flight);
+        lookups.set(0);
+        release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        List<Future<T>> results = new ArrayList<>(CALLERS);
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(call));
+        }
+        executor.shutdown();
+
+        awaitUntil(() -> coalesced(flight) - coalesced >= CALLERS - 1);
+        release.countDown();
+        return results;
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private double coalesced(String flight) {
+        return meterRegistry.find("singleflight.calls").tag("name", flight).tag("outcome", "coalesced").counters().stream()
+                .mapToDouble(Counter::count)
+                .sum();
+    }
+}
@@ -0,0 +1,100 @@
+package com.pyramid.usermanagement.domain.user;
+
+import com.pyramid.usermanagement.domain.user.model.AppUser;
+import com.pyramid.usermanagement.domain.user.repository.UserRepository;
+import com.pyramid.usermanagement.domain.user.services.UserService;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser
+class UserStreamingExportTests {
+
+    private static final int USER_COUNT = 3_000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void seedUsers() {
+        List<AppUser> users = new ArrayList<>(USER_COUNT);
+        for (int i = 0; i < USER_COUNT; i++) {
+            AppUser user = new AppUser();
+            user.setLogin("login" + i);
+            user.setName("User " + i);
+            user.setEmail("user" + i + "@example.com");
+            user.setCreatedDate(LocalDateTime.now());
+            users.add(user);
+        }
+        userRepository.saveAll(users);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void streamAllUsersKeepsPersistenceContextBounded() {
+        AtomicInteger rows = new AtomicInteger();
+        AtomicInteger maxManagedEntities = new AtomicInteger();
+
+        userService.streamAllUsers(user -> {
+            rows.incrementAndGet();
+            int managed = entityManager.unwrap(Session.class).getStatistics().getEntityCount();
+            maxManagedEntities.accumulateAndGet(managed, Math::max);
+        });
+
+        assertThat(rows.get()).isEqualTo(USER_COUNT);
+        // Only the row currently being written may be attached, whatever the table size
+        assertThat(maxManagedEntities.get()).isLessThanOrEqualTo(1);
+    }
+
+    @Test
+    void ndjsonExportWritesOneLinePerUser() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/users").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        List<String> lines = body.lines().toList();
+        assertThat(lines).hasSize(USER_COUNT);
+        assertThat(lines.get(0)).startsWith("{").endsWith("}").contains("\"email\":\"user0@example.com\"");
+    }
+}
@@ -0,0 +1,191 @@
+package com.pyramid.usermanagement.domain.user;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.pyramid.usermanagement.core.security.JwtTokenService;
+import com.pyramid.usermanagement.domain.user.cache.UserCache;
+import com.pyramid.usermanagement.domain.user.dto.UserCreateDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserDTO;
+import com.pyramid.usermanagement.domain.user.repository.UserRepository;
+import com.pyramid.usermanagement.domain.user.services.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The full list is rate limited as an export; these tests fetch it more often than its burst allows
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "app.admission.enabled=false")
+@AutoConfigureMockMvc
+@WithMockUser
+class UserWireFormatTests {
+
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    private final ObjectMapper smileMapper = new ObjectMapper(new SmileFactory()).registerModule(new JavaTimeModule());
+    private final ObjectMapper cborMapper = new ObjectMapper(new CBORFactory()).registerModule(new JavaTimeModule());
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private JwtTokenService jwtTokenService;
+
+    @AfterEach
+    void cleanUp() {
+        userRepository.deleteAllInBatch();
+        userCache.invalidateAll();
+    }
+
+    @Test
+    void jsonRemainsTheDefault() throws Exception {
+        userService.createUser(new UserCreateDTO("alice", "Alice", "alice@example.com"));
+
+        mockMvc.perform(get("/api/users").accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$[0].createdDate").isString());
+    }
+
+    @Test
+    void listsAreServedInSmileAndCbor() throws Exception {
+        userService.createUser(new UserCreateDTO("alice", "Alice", "alice@example.com"));
+        // As stored, at the database's precision
+        UserDTO alice = userService.getAllUsers().getFirst();
+
+        byte[] smile = mockMvc.perform(get("/api/users").accept(SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] cbor = mockMvc.perform(get("/api/users").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        for (UserDTO[] users : List.of(smileMapper.readValue(smile, UserDTO[].class), cborMapper.readValue(cbor, UserDTO[].class))) {
+            assertThat(users).singleElement().satisfies(user -> {
+                assertThat(user.Id()).isEqualTo(alice.Id());
+                assertThat(user.email()).isEqualTo("alice@example.com");
+                assertThat(user.createdDate()).isEqualTo(alice.createdDate());
+            });
+        }
+        // Dates travel as numeric arrays, not ISO strings
+        assertThat(cborMapper.readTree(cbor).get(0).get("createdDate").isArray()).isTrue();
+    }
+
+    @Test
+    void binaryRequestBodiesAreAccepted() throws Exception {
+        byte[] body = cborMapper.writeValueAsBytes(new UserCreateDTO("bob", "Bob", "bob@example.com"));
+
+        mockMvc.perform(post("/api/users").contentType(MediaType.APPLICATION_CBOR).content(body))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.email").value("bob@example.com"));
+    }
+
+    @Test
+    void pagesKeepTheirShapeUnlessTheSlimEnvelopeIsRequested() throws Exception {
+        IntStream.range(0, 3).forEach(i -> userService.createUser(new UserCreateDTO("user" + i, "User " + i, "user" + i + "@example.com")));
+
+        mockMvc.perform(get("/api/users/paginated").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.totalElements").value(3))
+                .andExpect(jsonPath("$.totalPages").value(2))
+                .andExpect(jsonPath("$.pageable.pageSize").value(2))
+                .andExpect(jsonPath("$.page").doesNotExist());
+
+        mockMvc.perform(get("/api/users/paginated").param("size", "2").param("envelope", "page"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.page.size").value(2))
+                .andExpect(jsonPath("$.page.number").value(0))
+                .andExpect(jsonPath("$.page.totalElements").value(3))
+                .andExpect(jsonPath("$.page.totalPages").value(2))
+                .andExpect(jsonPath("$.pageable").doesNotExist())
+                .andExpect(jsonPath("$.sort").doesNotExist());
+
+        byte[] smile = mockMvc.perform(get("/api/users/paginated").param("size", "2").param("envelope", "page").accept(SMILE))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        JsonNode page = smileMapper.readTree(smile);
+        assertThat(page.get("content")).hasSize(2);
+        assertThat(page.get("page").get("totalElements").asLong()).isEqualTo(3);
+    }
+
+    @Test
+    void largeResponsesAreCompressed() throws Exception {
+        userService.importUsers(IntStream.range(0, 100)
+                .mapToObj(i -> new UserCreateDTO("user" + i, "User " + i, "user" + i + "@example.com"))
+                .iterator());
+        String token = jwtTokenService.issue("admin", List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))).token();
+
+        for (String path : List.of("/api/users", "/api/users/paginated?size=100")) {
+            for (MediaType format : List.of(MediaType.APPLICATION_JSON, SMILE, MediaType.APPLICATION_CBOR)) {
+                HttpResponse<byte[]> response = getGzip(path, format, token);
+                assertThat(response.statusCode()).isEqualTo(200);
+                assertThat(response.headers().firstValue(HttpHeaders.CONTENT_ENCODING)).as(path + " " + format).hasValue("gzip");
+            }
+        }
+    }
+
+    @Test
+    void smallResponsesAreSentUncompressedWithTheirLength() throws Exception {
+        UserDTO alice = userService.createUser(new UserCreateDTO("alice", "Alice", "alice@example.com"));
+        String token = jwtTokenService.issue("admin", List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))).token();
+
+        for (String path : List.of("/api/users/" + alice.Id(), "/api/users/" + Long.MAX_VALUE, "/api/users")) {
+            for (MediaType format : List.of(MediaType.APPLICATION_JSON, SMILE, MediaType.APPLICATION_CBOR)) {
+                HttpResponse<byte[]> response = getGzip(path, format, token);
+                assertThat(response.headers().firstValue(HttpHeaders.CONTENT_ENCODING)).as(path + " " + format).isEmpty();
+                assertThat(response.headers().firstValueAsLong(HttpHeaders.CONTENT_LENGTH)).as(path + " " + format)
+                        .hasValue(response.body().length);
+            }
+        }
+        assertThat(new String(getGzip("/api/users/" + alice.Id(), MediaType.APPLICATION_JSON, token).body()))
+                .contains("alice@example.com");
+    }
+
+    // Over a real connector: compression is applied by Tomcat, below MockMvc
+    private HttpResponse<byte[]> getGzip(String path, MediaType accept, String token) throws Exception {
+        return HttpClient.newHttpClient().send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .header(HttpHeaders.ACCEPT, accept.toString())
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+}
@@ -0,0 +1,48 @@
+package com.pyramid.usermanagement.domain.user.benchmark;
+
+import org.junit.platform.engine.TestTag;
+import org.junit.platform.engine.reporting.ReportEntry;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends what tagged benchmarks publish through {@link org.junit.jupiter.api.TestReporter} to
+ * {@code target/benchmark-results.tsv}: time, test, figure and value, one line per figure, so that runs before and
+ * after a change can be compared. Surefire drops report entries, which would leave a run with its assertions only.
+ * Registered through {@code META-INF/services}.
+ */
+public class BenchmarkResultsListener implements TestExecutionListener {
+
+    private static final Path RESULTS = Path.of("target", "benchmark-results.tsv");
+    private static final TestTag BENCHMARK = TestTag.create("benchmark");
+
+    @Override
+    public synchronized void reportingEntryPublished(TestIdentifier testIdentifier, ReportEntry entry) {
+
+        if (!testIdentifier.getTags().contains(BENCHMARK)) {
+            return;
+        }
+        String test = testIdentifier.getSource()
+                .filter(MethodSource.class::isInstance)
+                .map(source -> ((MethodSource) source).getJavaClass().getSimpleName() + "." + ((MethodSource) source).getMethodName())
+                .orElse(testIdentifier.getDisplayName());
+        StringBuilder lines = new StringBuilder();
+        entry.getKeyValuePairs().forEach((figure, value) ->
+                lines.append(entry.getTimestamp()).append('\t').append(test).append('\t')
+                        .append(figure).append('\t').append(value).append('\n'));
+        try {
+            Files.createDirectories(RESULTS.getParent());
+            Files.writeString(RESULTS, lines, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+    }
+}
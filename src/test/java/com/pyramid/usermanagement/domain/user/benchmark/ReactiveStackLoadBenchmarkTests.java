@@ -0,0 +1,128 @@
+package com.pyramid.usermanagement.domain.user.benchmark;
+
+import com.pyramid.usermanagement.UserManagementApplication;
+import com.pyramid.usermanagement.core.security.JwtTokenService;
+import com.pyramid.usermanagement.domain.user.dto.UserCreateDTO;
+import com.pyramid.usermanagement.domain.user.services.UserService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Closed-loop load test of GET /api/users/{id} with the read cache disabled, comparing the servlet stack
+ * (Tomcat, JPA over Hikari) with the {@code reactive} profile (Netty, R2DBC). Results are published as report
+ * entries of the test.
+ * Run with {@code mvn test -Pbenchmark -Dtest=ReactiveStackLoadBenchmarkTests [-Dbenchmark.clients=1000,5000,10000]}.
+ */
+@Tag("benchmark")
+class ReactiveStackLoadBenchmarkTests {
+
+    private static final int[] CLIENTS = Arrays.stream(System.getProperty("benchmark.clients", "1000,5000,10000").split(","))
+            .map(String::trim).mapToInt(Integer::parseInt).toArray();
+    private static final int REQUESTS_PER_CLIENT = Integer.getInteger("benchmark.requestsPerClient", 10);
+    private static final int USER_COUNT = 10_000;
+
+    @Test
+    void servletVersusReactive(TestReporter reporter) throws Exception {
+        for (String profile : List.of("default", "reactive")) {
+            try (ConfigurableApplicationContext context = start(profile)) {
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                long[] ids = seed(context.getBean(UserService.class));
+                String authorization = "Bearer " + context.getBean(JwtTokenService.class).issue("load", List.of()).token();
+                for (int clients : CLIENTS) {
+                    run(reporter, profile, clients, port, ids, authorization);
+                }
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext start(String profile) {
+        return new SpringApplicationBuilder(UserManagementApplication.class)
+                .profiles(profile)
+                .properties(
+                        "server.port=0",
+                        "app.cache.users.maximumSize=0",
+                        // The reactive stack has no admission filter, and every client here shares one token
+                        "app.admission.enabled=false",
+                        "server.tomcat.max-connections=20000",
+                        "server.tomcat.accept-count=2000",
+                        "spring.jpa.show-sql=false",
+                        // JPA seeds the table, R2DBC reads it in the reactive profile: both must open the same database
+                        "spring.datasource.url=jdbc:h2:mem:reactive-load-" + profile + ";DB_CLOSE_DELAY=-1",
+                        "spring.r2dbc.url=r2dbc:h2:mem:///reactive-load-" + profile + ";DB_CLOSE_DELAY=-1",
+                        "logging.level.root=WARN",
+                        "logging.level.org.hibernate.SQL=WARN",
+                        "logging.level.org.hibernate.orm.jdbc.bind=WARN")
+                .run();
+    }
+
+    private static long[] seed(UserService userService) {
+        List<UserCreateDTO> rows = IntStream.range(0, USER_COUNT)
+                .mapToObj(i -> new UserCreateDTO("load" + i, "Load " + i, "load" + i + "@example.com"))
+                .toList();
+        return userService.importUsers(rows.iterator()).rows().stream().mapToLong(row -> row.id()).toArray();
+    }
+
+    private static void run(TestReporter reporter, String profile, int clients, int port, long[] ids, String authorization)
+            throws Exception {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+        long[][] latencies = new long[clients][REQUESTS_PER_CLIENT];
+        AtomicInteger errors = new AtomicInteger();
+
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>(clients);
+            for (int c = 0; c < clients; c++) {
+                long[] clientLatencies = latencies[c];
+                futures.add(executor.submit(() -> {
+                    for (int r = 0; r < REQUESTS_PER_CLIENT; r++) {
+                        long id = ids[ThreadLocalRandom.current().nextInt(ids.length)];
+                        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/users/" + id))
+                                .header("Authorization", authorization)
+                                .timeout(Duration.ofSeconds(60))
+                                .build();
+                        long sent = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        clientLatencies[r] = System.nanoTime() - sent;
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+        reporter.publishEntry(profile + " clients=" + clients, String.format("throughput=%.0f req/s p50=%.1f ms p99=%.1f ms errors=%d",
+                all.length * 1e9 / elapsed, all[all.length / 2] / 1e6, all[(int) (all.length * 0.99)] / 1e6, errors.get()));
+    }
+}
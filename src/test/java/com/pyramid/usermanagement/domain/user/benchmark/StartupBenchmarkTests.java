@@ -0,0 +1,168 @@
+package com.pyramid.usermanagement.domain.user.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pyramid.usermanagement.UserManagementApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Cold start of the application in a fresh JVM per run: time from launching the process to the first successful
+ * GET /api/users/{id} (token issued, user created, user read), and the resident set size at that point.
+ * <p>
+ * The classpath modes always run. The AOT and CDS modes use the artifacts of {@code mvn -Pfast-startup -DskipTests package}
+ * and are skipped when they are missing. Results are published as report entries of the test.
+ * Run with {@code mvn test -Pbenchmark -Dtest=StartupBenchmarkTests [-Dbenchmark.startupRuns=5]}.
+ */
+@Tag("benchmark")
+class StartupBenchmarkTests {
+
+    private static final int RUNS = Integer.getInteger("benchmark.startupRuns", 5);
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+    private static final Path FAST_STARTUP_DIR = Path.of("target", "fast-startup");
+    private static final Path FAST_STARTUP_JAR = FAST_STARTUP_DIR.resolve("user-management-0.0.1-SNAPSHOT.jar");
+    private static final Path CDS_ARCHIVE = FAST_STARTUP_DIR.resolve("application.jsa");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+    private record Mode(String name, List<String> jvmArgs, List<String> launch, List<String> appArgs) {
+    }
+
+    @Test
+    void timeToFirstRequest(TestReporter reporter) throws Exception {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        List<String> classpath = List.of("-cp", System.getProperty("java.class.path"), UserManagementApplication.class.getName());
+        List<String> jar = List.of("-jar", FAST_STARTUP_JAR.toString());
+        List<String> fastStartup = List.of("--spring.profiles.active=fast-startup");
+
+        List<Mode> modes = new ArrayList<>(List.of(
+                new Mode("classpath", List.of(), classpath, List.of()),
+                new Mode("classpath+profile", List.of(), classpath, fastStartup)));
+        if (Files.exists(FAST_STARTUP_JAR)) {
+            modes.add(new Mode("jar", List.of(), jar, List.of()));
+            modes.add(new Mode("jar+profile+aot", List.of("-Dspring.aot.enabled=true"), jar, fastStartup));
+        }
+        if (Files.exists(CDS_ARCHIVE)) {
+            modes.add(new Mode("jar+profile+aot+cds",
+                    List.of("-XX:SharedArchiveFile=" + CDS_ARCHIVE, "-Dspring.aot.enabled=true"), jar, fastStartup));
+        } else {
+            reporter.publishEntry("skipped", "No " + CDS_ARCHIVE + ": run mvn -Pfast-startup -DskipTests package for the AOT and CDS modes");
+        }
+
+        for (Mode mode : modes) {
+            long[] startupMillis = new long[RUNS];
+            long[] rssKilobytes = new long[RUNS];
+            for (int run = 0; run < RUNS; run++) {
+                long[] result = start(java, mode);
+                startupMillis[run] = result[0];
+                rssKilobytes[run] = result[1];
+            }
+            Arrays.sort(startupMillis);
+            Arrays.sort(rssKilobytes);
+            reporter.publishEntry(mode.name(), String.format("runs=%d first GET: median=%d ms min=%d ms RSS: median=%d KB",
+                    RUNS, startupMillis[RUNS / 2], startupMillis[0], rssKilobytes[RUNS / 2]));
+        }
+    }
+
+    // Milliseconds to the first successful GET, and the RSS right after it
+    private long[] start(String java, Mode mode) throws Exception {
+
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        command.addAll(mode.jvmArgs());
+        command.addAll(mode.launch());
+        command.addAll(mode.appArgs());
+        command.addAll(List.of("--server.port=" + port, "--spring.jpa.show-sql=false", "--logging.level.root=WARN",
+                "--spring.security.user.name=admin", "--spring.security.user.password=admin"));
+
+        Path log = Files.createTempFile("startup-" + mode.name(), ".log");
+        long launched = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log.toFile()).start();
+        try {
+            String base = "http://localhost:" + port;
+            String token = null;
+            while (token == null) {
+                if (!process.isAlive() || System.nanoTime() - launched > STARTUP_TIMEOUT.toNanos()) {
+                    throw new IllegalStateException(mode.name() + " did not start, see " + log);
+                }
+                token = issueToken(base);
+                if (token == null) {
+                    Thread.sleep(5);
+                }
+            }
+            JsonNode created = send(HttpRequest.newBuilder(URI.create(base + "/api/users"))
+                    .header("Authorization", "Bearer " + token)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("""
+                            {"login": "startup", "name": "Startup", "email": "startup@example.com"}
+                            """)), 201);
+            send(HttpRequest.newBuilder(URI.create(base + "/api/users/" + created.get("Id").asLong()))
+                    .header("Authorization", "Bearer " + token)
+                    .GET(), 200);
+            long elapsedMillis = (System.nanoTime() - launched) / 1_000_000;
+            return new long[]{elapsedMillis, residentSetKilobytes(process.pid())};
+        } finally {
+            process.destroy();
+            process.waitFor();
+            Files.deleteIfExists(log);
+        }
+
+    }
+
+    private String issueToken(String base) throws InterruptedException {
+        try {
+            HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(URI.create(base + "/api/auth/token"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("""
+                            {"username": "admin", "password": "admin"}
+                            """))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            return response.statusCode() == 200 ? objectMapper.readTree(response.body()).get("accessToken").asText() : null;
+        } catch (IOException e) {
+            // Not listening yet
+            return null;
+        }
+    }
+
+    private JsonNode send(HttpRequest.Builder request, int expectedStatus) throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != expectedStatus) {
+            throw new IllegalStateException("Expected " + expectedStatus + ", got " + response.statusCode() + ": " + response.body());
+        }
+        return objectMapper.readTree(response.body());
+    }
+
+    private static long residentSetKilobytes(long pid) throws IOException {
+        Path status = Path.of("/proc", Long.toString(pid), "status");
+        if (!Files.exists(status)) {
+            return -1;
+        }
+        return Files.readAllLines(status).stream()
+                .filter(line -> line.startsWith("VmRSS:"))
+                .mapToLong(line -> Long.parseLong(line.replaceAll("\\D", "")))
+                .findFirst()
+                .orElse(-1);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.pyramid.usermanagement.domain.user.benchmark;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pyramid.usermanagement.domain.user.cache.UserCache;
+import com.pyramid.usermanagement.domain.user.dto.BulkImportResultDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserCreateDTO;
+import com.pyramid.usermanagement.domain.user.repository.UserRepository;
+import com.pyramid.usermanagement.domain.user.services.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures bulk import throughput (NDJSON parsing, validation, set-based uniqueness check and batched
+ * inserts) against one-by-one createUser calls. Throughput is published as a report entry of each test.
+ * Run with {@code mvn test -Pbenchmark -Dtest=UserBulkImportBenchmarkTests [-Dbenchmark.rows=500000]}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.orm.jdbc.bind=WARN"
+})
+class UserBulkImportBenchmarkTests {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 100_000);
+    private static final int SINGLE_ROWS = 5_000;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @AfterEach
+    void cleanUp() {
+        userRepository.deleteAllInBatch();
+        userCache.invalidateAll();
+    }
+
+    @Test
+    void bulkImportThroughput(TestReporter reporter) throws Exception {
+        byte[] payload = ndjson("bulk", ROWS);
+
+        long start = System.nanoTime();
+        BulkImportResultDTO result;
+        try (MappingIterator<UserCreateDTO> rows = objectMapper.readerFor(UserCreateDTO.class)
+                .readValues(new ByteArrayInputStream(payload))) {
+            result = userService.importUsers(rows);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        assertThat(result.created()).isEqualTo(ROWS);
+        reporter.publishEntry("bulk import", String.format("%d rows in %d ms -> %.0f rows/s", ROWS, elapsed / 1_000_000, ROWS * 1e9 / elapsed));
+    }
+
+    @Test
+    void singleCreateThroughput(TestReporter reporter) {
+        long start = System.nanoTime();
+        for (int i = 0; i < SINGLE_ROWS; i++) {
+            userService.createUser(new UserCreateDTO("single" + i, "Single " + i, "single" + i + "@example.com"));
+        }
+        long elapsed = System.nanoTime() - start;
+
+        assertThat(userRepository.count()).isEqualTo(SINGLE_ROWS);
+        reporter.publishEntry("createUser", String.format("%d rows in %d ms -> %.0f rows/s", SINGLE_ROWS, elapsed / 1_000_000, SINGLE_ROWS * 1e9 / elapsed));
+    }
+
+    private static byte[] ndjson(String prefix, int rows) {
+        StringBuilder builder = new StringBuilder(rows * 80);
+        for (int i = 0; i < rows; i++) {
+            builder.append("{\"login\":\"").append(prefix).append(i)
+                    .append("\",\"name\":\"User ").append(i)
+                    .append("\",\"email\":\"").append(prefix).append(i).append("@example.com\"}\n");
+        }
+        return builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,87 @@
+package com.pyramid.usermanagement.domain.user.benchmark;
+
+import com.pyramid.usermanagement.domain.user.cache.UserCache;
+import com.pyramid.usermanagement.domain.user.dto.BulkImportResultDTO;
+import com.pyramid.usermanagement.domain.user.dto.UserCreateDTO;
+import com.pyramid.usermanagement.domain.user.repository.UserRepository;
+import com.pyramid.usermanagement.domain.user.services.UserChangeFeedService;
+import com.pyramid.usermanagement.domain.user.services.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Sustained change feed throughput: a consumer tails the outbox while users are bulk imported, and must
+ * receive every event exactly once and in order. Throughput is published as a report entry of the test.
+ * Run with {@code mvn test -Pbenchmark -Dtest=UserChangeFeedBenchmarkTests [-Dbenchmark.rows=500000]}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.orm.jdbc.bind=WARN",
+        "app.users.changes.maxStreamDuration=PT10M"
+})
+class UserChangeFeedBenchmarkTests {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 100_000);
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserChangeFeedService userChangeFeedService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserCache userCache;
+
+    @AfterEach
+    void cleanUp() {
+        userRepository.deleteAllInBatch();
+        userCache.invalidateAll();
+    }
+
+    @Test
+    void feedKeepsUpWithBulkImport(TestReporter reporter) throws Exception {
+        long start = userChangeFeedService.getLastSequence();
+        AtomicLong received = new AtomicLong();
+        AtomicLong lastSequence = new AtomicLong(start);
+        AtomicLong outOfOrder = new AtomicLong();
+
+        long begin = System.nanoTime();
+        CompletableFuture<Void> consumer = CompletableFuture.runAsync(() ->
+                userChangeFeedService.streamChanges(start, ROWS, batch -> batch.forEach(event -> {
+                    if (event.sequence() <= lastSequence.getAndSet(event.sequence())) {
+                        outOfOrder.incrementAndGet();
+                    }
+                    received.incrementAndGet();
+                })));
+
+        BulkImportResultDTO result = userService.importUsers(IntStream.range(0, ROWS)
+                .mapToObj(i -> new UserCreateDTO("feed" + i, "Feed " + i, "feed" + i + "@example.com"))
+                .iterator());
+        long imported = System.nanoTime() - begin;
+
+        consumer.get(5, TimeUnit.MINUTES);
+        long elapsed = System.nanoTime() - begin;
+
+        assertThat(result.created()).isEqualTo(ROWS);
+        assertThat(received.get()).isEqualTo(ROWS);
+        assertThat(outOfOrder.get()).isZero();
+        reporter.publishEntry("change feed", String.format("%d events in %d ms (import done after %d ms) -> %.0f events/s",
+                ROWS, elapsed / 1_000_000, imported / 1_000_000, ROWS * 1e9 / elapsed));
+    }
+}
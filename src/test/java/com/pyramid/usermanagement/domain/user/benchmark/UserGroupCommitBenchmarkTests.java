@@ -0,0 +1,102 @@
+package com.pyramid.usermanagement.domain.user.benchmark;
+
+import com.pyramid.usermanagement.UserManagementApplication;
+import com.pyramid.usermanagement.domain.user.dto.UserCreateDTO;
+import com.pyramid.usermanagement.domain.user.services.UserService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop load test of {@code createUser} at several concurrency levels, one transaction per user
+ * against group commit. Every client creates users with fresh emails as fast as it can. Results are published as
+ * report entries of the test.
+ * Run with {@code mvn test -Pbenchmark -Dtest=UserGroupCommitBenchmarkTests [-Dbenchmark.clients=1,16,64,256,1024]}.
+ */
+@Tag("benchmark")
+class UserGroupCommitBenchmarkTests {
+
+    private static final int[] CLIENTS = Arrays.stream(System.getProperty("benchmark.clients", "1,16,64,256,1024").split(","))
+            .map(String::trim).mapToInt(Integer::parseInt).toArray();
+    private static final int CREATES = Integer.getInteger("benchmark.creates", 20_000);
+
+    private final AtomicLong users = new AtomicLong();
+
+    @Test
+    void singleTransactionsVersusGroupCommit(TestReporter reporter) throws Exception {
+        for (boolean groupCommit : new boolean[]{false, true}) {
+            try (ConfigurableApplicationContext context = start(groupCommit)) {
+                UserService userService = context.getBean(UserService.class);
+                // Warm up the JIT and the connection pool
+                run(null, userService, groupCommit, 64);
+                for (int clients : CLIENTS) {
+                    run(reporter, userService, groupCommit, clients);
+                }
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext start(boolean groupCommit) {
+        return new SpringApplicationBuilder(UserManagementApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "app.users.groupCommit.enabled=" + groupCommit,
+                        "app.users.search.enabled=false",
+                        "spring.jpa.show-sql=false",
+                        "spring.datasource.url=jdbc:h2:mem:group-" + groupCommit + ";DB_CLOSE_DELAY=-1",
+                        "logging.level.root=WARN",
+                        "logging.level.org.hibernate.SQL=WARN",
+                        "logging.level.org.hibernate.orm.jdbc.bind=WARN")
+                .run();
+    }
+
+    // Publishes its results unless reporter is null
+    private void run(TestReporter reporter, UserService userService, boolean groupCommit, int clients) throws Exception {
+        int perClient = Math.max(1, CREATES / clients);
+        long[][] latencies = new long[clients][perClient];
+        AtomicInteger errors = new AtomicInteger();
+
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>(clients);
+            for (int c = 0; c < clients; c++) {
+                long[] clientLatencies = latencies[c];
+                futures.add(executor.submit(() -> {
+                    for (int r = 0; r < perClient; r++) {
+                        long n = users.incrementAndGet();
+                        long sent = System.nanoTime();
+                        try {
+                            userService.createUser(new UserCreateDTO("load" + n, "Load " + n, "load" + n + "@example.com"));
+                        } catch (RuntimeException e) {
+                            errors.incrementAndGet();
+                        }
+                        clientLatencies[r] = System.nanoTime() - sent;
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        if (reporter != null) {
+            long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+            reporter.publishEntry((groupCommit ? "group" : "single") + " clients=" + clients,
+                    String.format("throughput=%.0f creates/s p50=%.2f ms p99=%.2f ms errors=%d",
+                            all.length * 1e9 / elapsed, all[all.length / 2] / 1e6, all[(int) (all.length * 0.99)] / 1e6, errors.get()));
+        }
+    }
+}
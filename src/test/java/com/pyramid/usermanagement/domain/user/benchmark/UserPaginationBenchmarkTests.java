@@ -0,0 +1,115 @@
+package com.pyramid.usermanagement.domain.user.benchmark;
+
+import com.pyramid.usermanagement.domain.user.dto.UserCursorPageDTO;
+import com.pyramid.usermanagement.domain.user.repository.UserRepository;
+import com.pyramid.usermanagement.domain.user.services.UserService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares OFFSET paging with keyset paging on the first page and on page 10,000, and asserts that both return the
+ * same deep page. Latencies are published as report entries of the test.
+ * Run with {@code mvn test -Pbenchmark -Dtest=UserPaginationBenchmarkTests}.
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.orm.jdbc.bind=WARN"
+})
+class UserPaginationBenchmarkTests {
+
+    private static final int PAGE_SIZE = 10;
+    private static final int DEEP_PAGE = 10_000;
+    private static final int USER_COUNT = (DEEP_PAGE + 1) * PAGE_SIZE;
+    private static final int WARMUP_ITERATIONS = 500;
+    private static final int MEASURED_ITERATIONS = 500;
+    private static final int CURSOR_MAX_SIZE = 1000;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seedUsers() {
+        List<Object[]> rows = new ArrayList<>(USER_COUNT);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (int i = 0; i < USER_COUNT; i++) {
+            rows.add(new Object[]{"login" + i, "User " + i, "user" + i + "@example.com", "user" + i + "@example.com", now});
+        }
+        jdbcTemplate.batchUpdate("insert into users (id, login, name, email, email_key, created_date) values (next value for users_seq, ?, ?, ?, ?, ?)", rows);
+    }
+
+    @AfterAll
+    void cleanUp() {
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void offsetVersusKeysetOnShallowAndDeepPages(TestReporter reporter) {
+        for (String sortBy : List.of("id", "login")) {
+            Sort.Order order = Sort.Order.asc(sortBy);
+            String deepCursor = cursorForPage(DEEP_PAGE, order);
+
+            report(reporter, "offset " + sortBy + " page 1", () ->
+                    userService.getAllUsersPaginated(PageRequest.of(0, PAGE_SIZE, Sort.by(order))));
+            report(reporter, "offset " + sortBy + " page " + DEEP_PAGE, () ->
+                    userService.getAllUsersPaginated(PageRequest.of(DEEP_PAGE, PAGE_SIZE, Sort.by(order))));
+            report(reporter, "keyset " + sortBy + " page 1", () ->
+                    userService.getUsersByCursor(null, PAGE_SIZE, order));
+            report(reporter, "keyset " + sortBy + " page " + DEEP_PAGE, () ->
+                    userService.getUsersByCursor(deepCursor, PAGE_SIZE, order));
+
+            UserCursorPageDTO deepKeyset = userService.getUsersByCursor(deepCursor, PAGE_SIZE, order);
+            assertThat(deepKeyset.content())
+                    .isEqualTo(userService.getAllUsersPaginated(PageRequest.of(DEEP_PAGE, PAGE_SIZE, Sort.by(order))).getContent());
+        }
+    }
+
+    private String cursorForPage(int page, Sort.Order order) {
+        // Windows of the maximum size position the cursor right before the requested page
+        String cursor = null;
+        for (int skipped = 0; skipped < page * PAGE_SIZE; skipped += CURSOR_MAX_SIZE) {
+            cursor = userService.getUsersByCursor(cursor, CURSOR_MAX_SIZE, order).nextCursor();
+        }
+        return cursor;
+    }
+
+    private static void report(TestReporter reporter, String label, Runnable query) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            query.run();
+        }
+        long[] samples = new long[MEASURED_ITERATIONS];
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            long start = System.nanoTime();
+            query.run();
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        reporter.publishEntry(label, String.format("p50=%.1f us p99=%.1f us",
+                samples[MEASURED_ITERATIONS / 2] / 1_000.0, samples[MEASURED_ITERATIONS * 99 / 100] / 1_000.0));
+    }
+}
@@ -0,0 +1,50 @@
+package com.pyramid.usermanagement.domain.user.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BloomFilterTests {
+
+    @Test
+    void neverMissesAnAddedKey() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01, 1 << 20);
+
+        IntStream.range(0, 10_000).forEach(i -> filter.add("user" + i + "@example.com"));
+
+        assertThat(IntStream.range(0, 10_000).allMatch(i -> filter.mightContain("user" + i + "@example.com"))).isTrue();
+        assertThat(filter.added()).isEqualTo(10_000);
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTheTarget() {
+        BloomFilter filter = BloomFilter.create(100_000, 0.01, 1 << 20);
+        IntStream.range(0, 100_000).forEach(i -> filter.add("user" + i + "@example.com"));
+
+        long falsePositives = IntStream.range(0, 100_000)
+                .filter(i -> filter.mightContain("other" + i + "@example.com"))
+                .count();
+
+        assertThat(falsePositives).isBetween(1L, 1_500L);
+        assertThat(filter.expectedFalsePositiveRate()).isBetween(0.005, 0.015);
+    }
+
+    @Test
+    void memoryBudgetCapsTheSize() {
+        BloomFilter sized = BloomFilter.create(1_000_000, 0.01, 64L << 20);
+        BloomFilter capped = BloomFilter.create(1_000_000, 0.01, 256L << 10);
+
+        assertThat(sized.estimatedBytes()).isBetween(1_100_000L, 1_300_000L);
+        assertThat(sized.hashCount()).isEqualTo(7);
+        assertThat(capped.estimatedBytes()).isEqualTo(256L << 10);
+    }
+
+    @Test
+    void rejectsImpossibleFalsePositiveRates() {
+        assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(1_000, 0, 1 << 20));
+        assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(1_000, 1, 1 << 20));
+    }
+}
@@ -0,0 +1,79 @@
+package com.pyramid.usermanagement.domain.user.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserSearchIndexTests {
+
+    private final UserSearchIndex index = new UserSearchIndex();
+
+    @Test
+    void ranksExactThenPrefixThenWordPrefixThenInfix() {
+        index.upsert(1, "jo", "Mary Smith", "mary@example.com");
+        index.upsert(2, "joanna", "Joanna Lee", "joanna@example.com");
+        index.upsert(3, "mlee", "Jo Lee", "mlee@example.com");
+        index.upsert(4, "bjorn", "Bjorn Borg", "bjorn@example.com");
+
+        assertThat(index.search("jo", 0, 10).ids()).containsExactly(1L, 2L, 3L);
+        assertThat(index.search("jor", 0, 10).ids()).containsExactly(4L);
+        assertThat(index.search("lee", 0, 10).ids()).containsExactly(3L, 2L);
+    }
+
+    @Test
+    void shortQueriesOnlyMatchPrefixes() {
+        index.upsert(1, "alice", "Alice", "alice@example.com");
+        index.upsert(2, "malik", "Malik", "malik@example.com");
+
+        assertThat(index.search("a", 0, 10).ids()).containsExactly(1L);
+        assertThat(index.search("li", 0, 10).ids()).isEmpty();
+        assertThat(index.search("lic", 0, 10).ids()).containsExactly(1L);
+        assertThat(index.search("EXAMPLE.COM", 0, 10).total()).isEqualTo(2);
+    }
+
+    @Test
+    void pagesThroughRankedMatchesWithTotal() {
+        for (int i = 0; i < 25; i++) {
+            index.upsert(i, "user" + (100 + i), "User " + i, "user" + i + "@example.com");
+        }
+
+        UserSearchIndex.Hits second = index.search("user", 10, 10);
+
+        assertThat(second.total()).isEqualTo(25);
+        assertThat(second.ids()).containsExactly(10L, 11L, 12L, 13L, 14L, 15L, 16L, 17L, 18L, 19L);
+        assertThat(index.search("user", 20, 10).ids()).hasSize(5);
+    }
+
+    @Test
+    void updatesAndRemovalsReplaceOldValues() {
+        index.upsert(1, "alice", "Alice", "alice@example.com");
+        index.upsert(1, "alice", "Alice Cooper", "alice@example.com");
+        index.upsert(2, "bob", "Bob", "bob@example.com");
+        index.remove(2);
+
+        assertThat(index.search("cooper", 0, 10).ids()).containsExactly(1L);
+        assertThat(index.search("bob", 0, 10).ids()).isEmpty();
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void compactionKeepsEveryLiveUserSearchable() {
+        for (int i = 0; i < 5_000; i++) {
+            index.upsert(i, "login" + i, "Name " + i, "mail" + i + "@example.com");
+        }
+        long before = index.estimatedBytes();
+        for (int i = 0; i < 5_000; i += 2) {
+            index.upsert(i, "renamed" + i, "Name " + i, "mail" + i + "@example.com");
+        }
+        for (int i = 1; i < 5_000; i += 4) {
+            index.remove(i);
+        }
+
+        assertThat(index.size()).isEqualTo(3_750);
+        assertThat(index.search("renamed4998", 0, 10).ids()).containsExactly(4998L);
+        assertThat(index.search("login4998", 0, 10).ids()).isEmpty();
+        assertThat(index.search("login4999", 0, 10).ids()).containsExactly(4999L);
+        assertThat(index.search("login4997", 0, 10).ids()).isEmpty();
+        assertThat(index.estimatedBytes()).isLessThan(before * 2);
+    }
+}